@@ -39,7 +39,7 @@ java {
 }
 
 application {
-    mainClass.set("parssist.App")
+    mainClass.set("parssist.JvmApp")
 }
 
 tasks.named<Test>("test") {
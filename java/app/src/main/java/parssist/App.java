@@ -5,15 +5,26 @@ import java.util.List;
 import javax.management.RuntimeErrorException;
 
 import parssist.lexer.Lexer;
+import parssist.lexer.LexerSpec;
+import parssist.lexer.exception.InvalidLexFormatException;
 import parssist.lexer.util.Token;
 import parssist.lexer.util.TokenType;
+import parssist.parser.bottom_up_analysis.lrparser.lr1parser.generator.LALRGenerator;
+import parssist.parser.bottom_up_analysis.lrparser.lr1parser.generator.LR1Generator;
 import parssist.parser.bottom_up_analysis.lrparser.lr1parser.generator.SLRGenerator;
+import parssist.parser.bottom_up_analysis.lrparser.lr1parser.parser.LALRParser;
+import parssist.parser.bottom_up_analysis.lrparser.lr1parser.parser.LR1Parser;
 import parssist.parser.bottom_up_analysis.lrparser.lr1parser.parser.LRParser;
 import parssist.parser.bottom_up_analysis.lrparser.lr1parser.parser.SLRParser;
+import parssist.parser.bottom_up_analysis.lrparser.lr1parser.parser.exception.LRParseException;
+import parssist.parser.bottom_up_analysis.lrparser.lr1parser.parser.exception.NoLALR1GrammarException;
+import parssist.parser.bottom_up_analysis.lrparser.lr1parser.parser.exception.NoLR1GrammarException;
+import parssist.parser.bottom_up_analysis.lrparser.lr1parser.parser.exception.NoSLR1GrammarException;
 import parssist.parser.top_down_analysis.nrdparser.generator.GrammarGenerator;
 import parssist.parser.top_down_analysis.nrdparser.generator.TabledrivenPredictiveGenerator;
 import parssist.parser.top_down_analysis.nrdparser.parser.TabledrivenPredictiveParser;
 import parssist.parser.top_down_analysis.nrdparser.parser.exception.NoLL1GrammarException;
+import parssist.parser.top_down_analysis.nrdparser.parser.exception.NonRecursivePredictiveParseException;
 import parssist.util.Reader;
 
 
@@ -22,6 +33,12 @@ import parssist.util.Reader;
  * Because of webassembly, a lot of try catch blocks are used.
  */
 public class App {
+    private static String lastLex;
+    private static LexerSpec lastSpec;
+    /** The reader of the file mode. {@link JvmApp} replaces it with a {@link parssist.util.MappedReader}. */
+    static Reader reader = new Reader();
+
+
     /**
      * The main method of the application. 
      * It handles the command line arguments.
@@ -51,14 +68,20 @@ public class App {
                     }
                     break;
                 case "parsetree":
-                    String parsetree_lex = "", parsetree_grammar = "", parsetree_input = "", parsetree_algorithm = "auto";
+                    String parsetree_lex = "", parsetree_grammar = "", parsetree_input = "", parsetree_algorithm = "auto", parsetree_mode = "0";
 
                     if(args.length > 1) parsetree_lex = args[1];
                     if(args.length > 2) parsetree_grammar = args[2];
                     if(args.length > 3) parsetree_input = args[3];
                     if(args.length > 4) parsetree_algorithm = args[4];
+                    if(args.length > 5) parsetree_mode = args[5];
 
-                    handleParseTree(parsetree_lex, parsetree_grammar, parsetree_input, parsetree_algorithm);
+                    if(parsetree_mode.equals("1")) {
+                        // parsetree_lex, parsetree_grammar and parsetree_input are file paths
+                        handleParseTreeFile(parsetree_lex, parsetree_grammar, parsetree_input, parsetree_algorithm);
+                    } else {
+                        handleParseTree(parsetree_lex, parsetree_grammar, parsetree_input, parsetree_algorithm);
+                    }
                     break;
                 case "tokentable":
                     String tokentable_lex = "", tokentable_input = "";
@@ -69,14 +92,20 @@ public class App {
                     handleTokenTable(tokentable_lex, tokentable_input);
                     break;
                 case "validate": 
-                    String val_lex = "", val_grammar = "", val_input = "", val_algorithm = "auto";
+                    String val_lex = "", val_grammar = "", val_input = "", val_algorithm = "auto", val_mode = "0";
 
                     if(args.length > 1) val_lex = args[1];
                     if(args.length > 2) val_grammar = args[2];
                     if(args.length > 3) val_input = args[3];
                     if(args.length > 4) val_algorithm = args[4];
+                    if(args.length > 5) val_mode = args[5];
 
-                    handleValidate(val_lex, val_grammar, val_input, val_algorithm);
+                    if(val_mode.equals("1")) {
+                        // val_lex, val_grammar and val_input are file paths
+                        handleValidateFile(val_lex, val_grammar, val_input, val_algorithm);
+                    } else {
+                        handleValidate(val_lex, val_grammar, val_input, val_algorithm);
+                    }
                 default:
                     break;
             }
@@ -91,30 +120,38 @@ public class App {
      * @param module The module of the generated parser.
      * @param algorithm The algorithm of the generated parser.
      */
-    private static void handleCodeGeneration(final String lex, final String grammar, final String name, final String module, final String algorithm) {
+    private static void handleCodeGeneration(final String lex, final CharSequence grammar, final String name, final String module, final String algorithm) {
         try {
+            final LexerSpec spec = compileLex(lex);
+
             switch(algorithm) {
                 case "ll1":
-                    handleLL1(lex, grammar, name, module);                   
+                    handleLL1(spec, grammar, name, module);                   
                     break;
                 case "slr1":
-                    handleSLR(lex, grammar, name, module);
+                    handleSLR(spec, grammar, name, module);
+                    break;
+                case "lalr1":
+                    handleLALR(spec, grammar, name, module);
+                    break;
+                case "lr1":
+                    handleLR1(spec, grammar, name, module);
                     break;
                 case "auto":
                 default:
                     boolean isLL1 = false;
 
                     try {
-                        isLL1 = handleLL1(lex, grammar, name, module);
+                        isLL1 = handleLL1(spec, grammar, name, module);
                     } catch(Exception e) {
                         isLL1 = false;
                     }
 
                     if(!isLL1) {
-                        final boolean isSLR = handleSLR(lex, grammar, name, module);
+                        final boolean isSLR = handleSLR(spec, grammar, name, module);
 
-                        if(!isSLR) {
-                            System.out.println("Further algorithms are not implemented yet.");
+                        if(!isSLR && !handleLALR(spec, grammar, name, module) && !handleLR1(spec, grammar, name, module)) {
+                            System.out.println(Config.BOTTOM_UP_PARSER_ERROR_NO_LR1_GRAMMAR);
                         }
                     }
                     break;
@@ -134,9 +171,8 @@ public class App {
      */
     private static void handleCodeGenerationFile(final String lex, final String grammar, final String name, final String module, final String algorithm) {
         try {
-            final Reader reader = new Reader();
-            final String lexContent = reader.read(lex);
-            final String grammarContent = reader.read(grammar);
+            final String lexContent = reader.load(lex).toString();
+            final CharSequence grammarContent = reader.load(grammar);
 
             handleCodeGeneration(lexContent, grammarContent, name, module, algorithm);
         } catch(Exception e) {
@@ -151,30 +187,32 @@ public class App {
      * @param input The input string.
      * @param algorithm The algorithm of the generated parser.
      */
-    private static void handleParseTree(final String lex, final String grammar, final String input, final String algorithm) {
+    private static void handleParseTree(final String lex, final CharSequence grammar, final CharSequence input, final String algorithm) {
         try {
+            final LexerSpec spec = compileLex(lex);
+
             switch(algorithm) {
                 case "ll1":
-                    handleLL1ParseTree(lex, grammar, input);           
+                    handleLL1ParseTree(spec, grammar, input);           
                     break;
                 case "slr1":
-                    handleSLRParseTree(lex, grammar, input);
+                    handleSLRParseTree(spec, grammar, input);
+                    break;
+                case "lalr1":
+                    handleLALRParseTree(spec, grammar, input);
+                    break;
+                case "lr1":
+                    handleLR1ParseTree(spec, grammar, input);
                     break;
                 case "auto":    
                 default:
-                    boolean isLL1 = false;
-
-                    try {
-                        isLL1 = handleLL1ParseTree(lex, grammar, input);
-                    } catch(Exception e) {
-                        isLL1 = false;
-                    }
+                    final boolean isLL1 = handleLL1ParseTree(spec, grammar, input);
 
                     if(!isLL1) {
-                        final boolean isSLR = handleSLRParseTree(lex, grammar, input);
+                        final boolean isSLR = handleSLRParseTree(spec, grammar, input);
                         
-                        if(!isSLR) {
-                            System.out.println("Further algorithms are not implemented yet.");
+                        if(!isSLR && !handleLALRParseTree(spec, grammar, input) && !handleLR1ParseTree(spec, grammar, input)) {
+                            System.out.println(Config.BOTTOM_UP_PARSER_ERROR_NO_LR1_GRAMMAR);
                         } 
                     }
                     
@@ -185,17 +223,32 @@ public class App {
         }
     }
 
+    /**
+     * Handle the parse tree with files.
+     * On the JVM, the input file is memory-mapped, so the parser works directly on the mapped file.
+     * @param lex The lex file path.
+     * @param grammar The grammar file path.
+     * @param input The input file path.
+     * @param algorithm The algorithm of the generated parser.
+     */
+    private static void handleParseTreeFile(final String lex, final String grammar, final String input, final String algorithm) {
+        try {
+            handleParseTree(reader.load(lex).toString(), reader.load(grammar), reader.load(input), algorithm);
+        } catch(Exception e) {
+            System.out.println("Exception: " + e.getMessage());
+        }
+    }
+
     /**
      * Handle the tokentable.
      * It prints the tokentypes and tokens in a JSON like format, to parse it in javascript.
      * @param lex The lex file content.
      * @param input The input string.
      */
-    private static void handleTokenTable(final String lex, final String input) {
+    private static void handleTokenTable(final String lex, final CharSequence input) {
         try {
-            final Lexer lexer = new Lexer(lex);
+            final Lexer lexer = new Lexer(compileLex(lex));
             lexer.setCode(input);
-            lexer.parseTokens(lex);
             
             List<TokenType> tokentypes = lexer.getTokenTypes();
             List<Token> tokens = lexer.tokenize();
@@ -231,36 +284,40 @@ public class App {
      * @param input The input string.
      * @param algorithm The algorithm of the generated parser.
      */
-    private static void handleValidate(final String lex, final String grammar, final String input, final String algorithm) {
+    private static void handleValidate(final String lex, final CharSequence grammar, final CharSequence input, final String algorithm) {
         boolean isValid = false;
         try {
+            final LexerSpec spec = compileLex(lex);
+
             switch(algorithm) {
                 case "ll1":
-                    isValid = handleLL1Validation(lex, grammar, input);                   
+                    isValid = handleLL1Validation(spec, grammar, input);                   
                     break;
                 case "slr1":
-                    isValid = handleSLRValidation(lex, grammar, input);
+                    isValid = handleSLRValidation(spec, grammar, input);
+                    break;
+                case "lalr1":
+                    isValid = handleLALRValidation(spec, grammar, input);
+                    break;
+                case "lr1":
+                    isValid = handleLR1Validation(spec, grammar, input);
                     break;
                 case "auto":    
                 default:
-                    boolean isLL1 = false;
-
-                    try {
-                        isLL1 = handleLL1Validation(lex, grammar, input);
-                    } catch(Exception e) {
-                        isLL1 = false;
-                    }
+                    final boolean isLL1 = handleLL1Validation(spec, grammar, input);
 
                     if(!isLL1) {
-                        final boolean isSLR = handleSLRValidation(lex, grammar, input);
+                        final boolean isSLR = handleSLRValidation(spec, grammar, input);
 
-                        if(!isSLR) {
-                            System.out.println("Further algorithms are not implemented yet.");
+                        if(!isSLR && !handleLALRValidation(spec, grammar, input) && !handleLR1Validation(spec, grammar, input)) {
+                            System.out.println(Config.BOTTOM_UP_PARSER_ERROR_NO_LR1_GRAMMAR);
                         } else isValid = true;
                     } else isValid = true;
                     
                     break;
             }
+        } catch(LRParseException | NonRecursivePredictiveParseException e) {
+            isValid = false; // the grammar is fine, only the input isn't valid
         } catch(Exception e) {
             System.out.println("Exception: " + e.getMessage());
         }
@@ -271,20 +328,50 @@ public class App {
     }
 
     /**
-     * Handle the LL1 algorithm.
+     * Handle the validation of the grammar with files.
+     * On the JVM, the input file is memory-mapped, so the parser works directly on the mapped file.
+     * @param lex The lex file path.
+     * @param grammar The grammar file path.
+     * @param input The input file path.
+     * @param algorithm The algorithm of the generated parser.
+     */
+    private static void handleValidateFile(final String lex, final String grammar, final String input, final String algorithm) {
+        try {
+            handleValidate(reader.load(lex).toString(), reader.load(grammar), reader.load(input), algorithm);
+        } catch(Exception e) {
+            System.out.println("Exception: " + e.getMessage());
+            System.out.println("The input is not valid.");
+        }
+    }
+
+    /**
+     * Compile the lex file content.
+     * The last spec is kept, because the webassembly module gets called again and again with the same lex file content.
      * @param lex The lex file content.
+     * @return The compiled lex definition.
+     * @throws InvalidLexFormatException If the lex file has invalid syntax.
+     */
+    private static synchronized LexerSpec compileLex(final String lex) throws InvalidLexFormatException {
+        if(lastSpec == null || !lex.equals(lastLex)) {
+            lastSpec = LexerSpec.compile(lex);
+            lastLex = lex;
+        }
+
+        return lastSpec;
+    }
+
+    /**
+     * Handle the LL1 algorithm.
+     * @param spec The compiled lex definition.
      * @param grammar The grammar file content.
      * @param name The name of the generated parser.
      * @param module The module of the generated parser.
      * @return True if the grammar is LL(1), false otherwise.
      * @throws Exception If an exception occurs.
      */
-    private static boolean handleLL1(String lex, String grammar, String name, String module) throws Exception {
+    private static boolean handleLL1(LexerSpec spec, CharSequence grammar, String name, String module) throws Exception {
         try {
-            final Lexer lexer = new Lexer(lex);
-            lexer.parseTokens(lex);
-            
-            final GrammarGenerator generator = new GrammarGenerator(grammar, lexer.getTokenTypes(), true);
+            final GrammarGenerator generator = new GrammarGenerator(grammar, spec.getTokenTypes(), true);
             
             final TabledrivenPredictiveGenerator tabledrivenPredictiveGenerator = new TabledrivenPredictiveGenerator(generator.generate());
             System.out.println(tabledrivenPredictiveGenerator.generate(name, module)); 
@@ -300,23 +387,70 @@ public class App {
 
     /**
      * Handle the SLR algorithm.
-     * @param lex The lex file content.
+     * @param spec The compiled lex definition.
      * @param grammar The grammar file content.
      * @param name The name of the generated parser.
      * @param module The module of the generated parser.
      * @return True if the grammar is SLR(1), false otherwise.
      * @throws Exception If an exception occurs.
      */
-    private static boolean handleSLR(String lex, String grammar, String name, String module) throws Exception {
+    private static boolean handleSLR(LexerSpec spec, CharSequence grammar, String name, String module) throws Exception {
         try {
-            final Lexer lexer = new Lexer(lex);
-            lexer.parseTokens(lex);
-            
-            final GrammarGenerator generator = new GrammarGenerator(grammar, lexer.getTokenTypes(), true);
+            final GrammarGenerator generator = new GrammarGenerator(grammar, spec.getTokenTypes(), true);
             
             final SLRGenerator slrGenerator = new SLRGenerator(generator.generate());
             System.out.println(slrGenerator.generate(name, module)); 
-        } catch(NoLL1GrammarException e) {
+        } catch(NoSLR1GrammarException e) {
+            System.out.println("Exception: " + e.getMessage());
+            return false;
+        } catch(Exception e) {
+            throw e;
+        }
+
+        return true;
+    }
+
+    /**
+     * Handle the LALR algorithm.
+     * @param spec The compiled lex definition.
+     * @param grammar The grammar file content.
+     * @param name The name of the generated parser.
+     * @param module The module of the generated parser.
+     * @return True if the grammar is LALR(1), false otherwise.
+     * @throws Exception If an exception occurs.
+     */
+    private static boolean handleLALR(LexerSpec spec, CharSequence grammar, String name, String module) throws Exception {
+        try {
+            final GrammarGenerator generator = new GrammarGenerator(grammar, spec.getTokenTypes(), true);
+            
+            final LALRGenerator lalrGenerator = new LALRGenerator(generator.generate());
+            System.out.println(lalrGenerator.generate(name, module)); 
+        } catch(NoLALR1GrammarException e) {
+            System.out.println("Exception: " + e.getMessage());
+            return false;
+        } catch(Exception e) {
+            throw e;
+        }
+
+        return true;
+    }
+
+    /**
+     * Handle the LR1 algorithm.
+     * @param spec The compiled lex definition.
+     * @param grammar The grammar file content.
+     * @param name The name of the generated parser.
+     * @param module The module of the generated parser.
+     * @return True if the grammar is LR(1), false otherwise.
+     * @throws Exception If an exception occurs.
+     */
+    private static boolean handleLR1(LexerSpec spec, CharSequence grammar, String name, String module) throws Exception {
+        try {
+            final GrammarGenerator generator = new GrammarGenerator(grammar, spec.getTokenTypes(), true);
+            
+            final LR1Generator lr1Generator = new LR1Generator(generator.generate());
+            System.out.println(lr1Generator.generate(name, module)); 
+        } catch(NoLR1GrammarException e) {
             System.out.println("Exception: " + e.getMessage());
             return false;
         } catch(Exception e) {
@@ -328,93 +462,171 @@ public class App {
 
     /**
      * Handle the LL1 validation.
-     * @param lex The lex file content.
+     * @param spec The compiled lex definition.
      * @param grammar The grammar file content.
      * @param input The input string.
-     * @return True if the grammar is LL(1), false otherwise.
+     * @return True if the input is valid, false if the grammar isn't LL(1).
+     * @throws NonRecursivePredictiveParseException If the input isn't valid.
      * @throws Exception If an exception occurs.
      */
-    private static boolean handleLL1Validation(String lex, String grammar, String input) throws Exception {
+    private static boolean handleLL1Validation(LexerSpec spec, CharSequence grammar, CharSequence input) throws Exception {
         try {
-            final Lexer lexer = new Lexer(lex);
-            lexer.parseTokens(lex);
-            
-            final GrammarGenerator generator = new GrammarGenerator(grammar, lexer.getTokenTypes(), true);
+            final GrammarGenerator generator = new GrammarGenerator(grammar, spec.getTokenTypes(), true);
             
             final TabledrivenPredictiveParser tabledrivenPredictiveParser = new TabledrivenPredictiveParser(generator.generate(), input);
             return tabledrivenPredictiveParser.computeSystemAnalysis();
-        } catch(Exception e) {
+        } catch(NoLL1GrammarException e) {
             return false;
         }
     }
 
     /**
      * Handle the SLR validation.
-     * @param lex The lex file content.
+     * @param spec The compiled lex definition.
      * @param grammar The grammar file content.
      * @param input The input string.
-     * @return True if the grammar is SLR(1), false otherwise.
+     * @return True if the input is valid, false if the grammar isn't SLR(1).
+     * @throws LRParseException If the input isn't valid.
      * @throws Exception If an exception occurs.
      */
-    private static boolean handleSLRValidation(String lex, String grammar, String input) throws Exception {
+    private static boolean handleSLRValidation(LexerSpec spec, CharSequence grammar, CharSequence input) throws Exception {
         try {
-            final Lexer lexer = new Lexer(lex);
-            lexer.parseTokens(lex);
-            
-            final GrammarGenerator generator = new GrammarGenerator(grammar, lexer.getTokenTypes(), true);
+            final GrammarGenerator generator = new GrammarGenerator(grammar, spec.getTokenTypes(), true);
 
             final LRParser slrParser = new SLRParser(generator.generate(), input);
             slrParser.parse(input);
             return true;
-        } catch(Exception e) {            
+        } catch(NoSLR1GrammarException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Handle the LALR validation.
+     * @param spec The compiled lex definition.
+     * @param grammar The grammar file content.
+     * @param input The input string.
+     * @return True if the input is valid, false if the grammar isn't LALR(1).
+     * @throws LRParseException If the input isn't valid.
+     * @throws Exception If an exception occurs.
+     */
+    private static boolean handleLALRValidation(LexerSpec spec, CharSequence grammar, CharSequence input) throws Exception {
+        try {
+            final GrammarGenerator generator = new GrammarGenerator(grammar, spec.getTokenTypes(), true);
+
+            final LRParser lalrParser = new LALRParser(generator.generate(), input);
+            lalrParser.parse(input);
+            return true;
+        } catch(NoLALR1GrammarException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Handle the LR1 validation.
+     * @param spec The compiled lex definition.
+     * @param grammar The grammar file content.
+     * @param input The input string.
+     * @return True if the input is valid, false if the grammar isn't LR(1).
+     * @throws LRParseException If the input isn't valid.
+     * @throws Exception If an exception occurs.
+     */
+    private static boolean handleLR1Validation(LexerSpec spec, CharSequence grammar, CharSequence input) throws Exception {
+        try {
+            final GrammarGenerator generator = new GrammarGenerator(grammar, spec.getTokenTypes(), true);
+
+            final LRParser lr1Parser = new LR1Parser(generator.generate(), input);
+            lr1Parser.parse(input);
+            return true;
+        } catch(NoLR1GrammarException e) {
             return false;
         }
     }
 
     /**
      * Handle the LL1 parsetree.
-     * @param lex The lex file content.
+     * @param spec The compiled lex definition.
      * @param grammar The grammar file content.
      * @param input The input string.
-     * @return True if the grammar is LL(1), false otherwise.
+     * @return True if the input is valid, false if the grammar isn't LL(1).
+     * @throws NonRecursivePredictiveParseException If the input isn't valid.
      * @throws Exception If an exception occurs.
      */
-    private static boolean handleLL1ParseTree(String lex, String grammar, String input) throws Exception {
+    private static boolean handleLL1ParseTree(LexerSpec spec, CharSequence grammar, CharSequence input) throws Exception {
         try {
-            final Lexer lexer = new Lexer(lex);
-            lexer.parseTokens(lex);
-            
-            final GrammarGenerator generator = new GrammarGenerator(grammar, lexer.getTokenTypes(), true);
+            final GrammarGenerator generator = new GrammarGenerator(grammar, spec.getTokenTypes(), true);
 
             final TabledrivenPredictiveParser tabledrivenPredictiveGenerator = new TabledrivenPredictiveParser(generator.generate(), input);
             tabledrivenPredictiveGenerator.computeSystemAnalysis();
             tabledrivenPredictiveGenerator.printParseTree();  
             return true;
-        } catch(Exception e) {
+        } catch(NoLL1GrammarException e) {
             return false;
         }
     }
 
     /**
      * Handle the SLR parsetree.
-     * @param lex The lex file content.
+     * @param spec The compiled lex definition.
      * @param grammar The grammar file content.
      * @param input The input string.
-     * @return True if the grammar is SLR(1), false otherwise.
+     * @return True if the input is valid, false if the grammar isn't SLR(1).
+     * @throws LRParseException If the input isn't valid.
      * @throws Exception If an exception occurs.
      */
-    private static boolean handleSLRParseTree(String lex, String grammar, String input) throws Exception {
+    private static boolean handleSLRParseTree(LexerSpec spec, CharSequence grammar, CharSequence input) throws Exception {
         try {
-            final Lexer lexer = new Lexer(lex);
-            lexer.parseTokens(lex);
-            
-            final GrammarGenerator generator = new GrammarGenerator(grammar, lexer.getTokenTypes(), true);
+            final GrammarGenerator generator = new GrammarGenerator(grammar, spec.getTokenTypes(), true);
 
             final LRParser slrParser = new SLRParser(generator.generate(), input);
             slrParser.parse(input);
             slrParser.printParseTree();  
             return true;
-        } catch(Exception e) {
+        } catch(NoSLR1GrammarException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Handle the LALR parsetree.
+     * @param spec The compiled lex definition.
+     * @param grammar The grammar file content.
+     * @param input The input string.
+     * @return True if the input is valid, false if the grammar isn't LALR(1).
+     * @throws LRParseException If the input isn't valid.
+     * @throws Exception If an exception occurs.
+     */
+    private static boolean handleLALRParseTree(LexerSpec spec, CharSequence grammar, CharSequence input) throws Exception {
+        try {
+            final GrammarGenerator generator = new GrammarGenerator(grammar, spec.getTokenTypes(), true);
+
+            final LRParser lalrParser = new LALRParser(generator.generate(), input);
+            lalrParser.parse(input);
+            lalrParser.printParseTree();  
+            return true;
+        } catch(NoLALR1GrammarException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Handle the LR1 parsetree.
+     * @param spec The compiled lex definition.
+     * @param grammar The grammar file content.
+     * @param input The input string.
+     * @return True if the input is valid, false if the grammar isn't LR(1).
+     * @throws LRParseException If the input isn't valid.
+     * @throws Exception If an exception occurs.
+     */
+    private static boolean handleLR1ParseTree(LexerSpec spec, CharSequence grammar, CharSequence input) throws Exception {
+        try {
+            final GrammarGenerator generator = new GrammarGenerator(grammar, spec.getTokenTypes(), true);
+
+            final LRParser lr1Parser = new LR1Parser(generator.generate(), input);
+            lr1Parser.parse(input);
+            lr1Parser.printParseTree();  
+            return true;
+        } catch(NoLR1GrammarException e) {
             return false;
         }
     }
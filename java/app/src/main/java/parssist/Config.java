@@ -7,6 +7,7 @@ package parssist;
  */
 public class Config {
     public static final int PARSETREE_STATELESS_STATE = -1;
+    public static final int PARSETREE_NO_POSITION = -1;
     public static final int PARSELIMIT = 1000;
 
     public static final String LEXER_INIT_INPUT_IGNORE="^%( *\"(.*)\" *,)*( *\"(.*)\" *)";
@@ -14,7 +15,12 @@ public class Config {
     public static final String LEXER_INIT_INPUT_COMMENT="^#";
     public static final String LEXER_INIT_INPUT_TOKENMAP="^([a-zA-Z0-9_]*)( *:= *)\"(.*)\"";
     public static final String LEXER_INIT_INPUT_ROWSPLIT="\n";
+    public static final String LEXER_INIT_INPUT_MODE="^@([a-zA-Z0-9_]+) *$";
+    public static final String LEXER_INIT_INPUT_MODE_ACTION="\" *-> *(pop|push\\(([a-zA-Z0-9_]+)\\)) *$";
+    public static final String LEXER_INIT_MODE_NAME="INITIAL";
+    public static final String LEXER_ERROR_UNKNOWN_MODE="Unknown lexer mode: ";
     public static final String LEXER_ERROR_CURSOR="Invalid token at";
+    public static final String LEXER_ERROR_TOKENNAME="ERROR";
     public static final String LEXER_REGEX_STARTSYMBOL="^";
     public static final String LEXER_REGEX_ENDSYMBOL="$";
     public static final String LEXER_TOKENTABLE_TITLE1="\n======Tokentype lex list========================================================\n";
@@ -22,6 +28,22 @@ public class Config {
     public static final String LEXER_EMPTY_SYMBOL="EMPTY_SYMBOL";
     public static final String LEXER_TERMINAL="TERMINAL";
     public static final String LEXER_NONTERMINAL="NONTERMINAL";
+    public static final String LEXER_REGEX_ERROR_UNSUPPORTED="Unsupported regex construct at ";
+    public static final String LEXER_REGEX_ERROR_TOO_BIG="Automaton exceeds the state limit";
+    public static final String LEXER_REGEX_ERROR_NO_BYTES="No automaton over bytes for the fallback token type ";
+    public static final int LEXER_REGEX_MAX_REPEAT=1000;
+    public static final int LEXER_NFA_MAX_STATES=100000;
+    public static final int LEXER_DFA_MAX_STATES=10000;
+    public static final String LEXER_REGEX_ERROR_BUDGET="Match exceeds the step budget at cursor: ";
+    public static final int LEXER_TOKENBUFFER_CHARS_PER_TOKEN=4;
+    public static final int LEXER_TOKENBUFFER_SLACK_DIVISOR=4; // TokenBuffer#trimSlack() keeps up to capacity / divisor unused slots
+    public static final int LEXER_TOKENPOOL_SIZE=4096;
+    public static final int LEXER_TOKENPOOL_MAX_SYMBOL_LENGTH=64;
+    public static final int LEXER_STREAM_BUFFER_SIZE=8192;
+    public static final int LEXER_STREAM_MAX_BUFFER_SIZE=1 << 20;
+    public static final String LEXER_STREAM_ERROR_TOKEN_TOO_LONG="Token exceeds the stream buffer at cursor: ";
+    public static final int LEXER_PARALLEL_MIN_CHUNK_SIZE=1 << 16;
+    public static final int LEXER_PARALLEL_MAX_BOUNDARY_SEARCH=4096;
 
 
     public static final String GRAMMAR_TOKEN_VOCABULARY_ASSIGNMENT="VOCABULARY_ASSIGNMENT";
@@ -83,10 +105,17 @@ public class Config {
 
 
     public static final String BOTTOM_UP_PARSER_ERROR_NO_SLR1_GRAMMAR="Grammar is no SLR1";
+    public static final String BOTTOM_UP_PARSER_ERROR_NO_LALR1_GRAMMAR="Grammar is no LALR1";
+    public static final String BOTTOM_UP_PARSER_ERROR_NO_LR1_GRAMMAR="Grammar is no LR1";
     public static final String BOTTOM_UP_PARSER_ERROR_INVALID_TOKEN="Grammar is no LR1";
+    public static final String BOTTOM_UP_PARSER_ERROR_NO_ACTION="No action for token";
     public static final String BOTTOM_UP_PARSER_ERROR_PARSE_LIMIT="Parse limit reached: " + PARSELIMIT;
             
     public static final String GRAMMAR_ERROR_INVALID_SYMBOL="String is not a symbol";
+    public static final String GRAMMAR_ERROR_INVALID_ITEM="Item is not an item of the grammar: ";
+    public static final int GRAMMAR_PARALLEL_MIN_CHUNK_SIZE=64;
+
+    public static final String READER_ERROR_FILE_TOO_BIG="File is too big to be mapped: ";
 
 
     public static final String SLR_TEMPLATE = "{{package_name}};\r\n" + //
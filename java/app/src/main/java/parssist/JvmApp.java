@@ -0,0 +1,21 @@
+package parssist;
+
+import parssist.util.MappedReader;
+
+
+/**
+ * The main class of the application on the JVM.
+ * It memory-maps the files of the file mode, which webassembly can't do, so TeaVM compiles {@link App} instead.
+ */
+public class JvmApp {
+    /**
+     * The main method of the application on the JVM.
+     * It handles the command line arguments like {@link App#main(String...)}.
+     * @param args The command line arguments.
+     * @throws Exception If there was any further exception.
+     */
+    public static void main(String... args) throws Exception {
+        App.reader = new MappedReader();
+        App.main(args);
+    }
+}
@@ -0,0 +1,191 @@
+package parssist.lexer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import parssist.Config;
+import parssist.lexer.exception.InvalidTokenException;
+import parssist.lexer.util.TokenBuffer;
+
+
+/**
+ * Parallel tokenizer, which splits the code into chunks, tokenizes them speculatively on a {@link ForkJoinPool} and repairs the seams.
+ * The chunks start at candidate boundaries (behind a newline or a blank), but a chunk may still start inside of a token.
+ * Because the token at a position only depends on the code from this position on, the speculative tokens of a chunk are correct
+ * from the first token on, which starts where the previous chunk ended. Until then, the seam is tokenized again sequentially.
+ * So the result is always identical to the sequential tokenization (including the position of an invalid token).
+ */
+class ChunkedTokenizer {
+    private final LexerSpec spec;
+    private final CharSequence code;
+
+
+    ChunkedTokenizer(final LexerSpec spec, final CharSequence code) {
+        this.spec = spec;
+        this.code = code;
+    }
+
+
+    /**
+     * Tokenize the code with the threads of a pool.
+     * @param pool The pool.
+     * @return The tokens.
+     * @throws InvalidTokenException When an invalid token is found.
+     */
+    TokenBuffer tokenize(final ForkJoinPool pool) throws InvalidTokenException {
+        final int chunkCount = Math.min(pool.getParallelism(), code.length() / Config.LEXER_PARALLEL_MIN_CHUNK_SIZE);
+        if(chunkCount < 2 || spec.getModeCount() > 1) return spec.tokenizeToBuffer(code);
+
+        final int[] bounds = split(chunkCount);
+        final List<ForkJoinTask<Chunk>> tasks = new ArrayList<>();
+
+        for(int k = 0; k < chunkCount; k++) {
+            final int from = bounds[k];
+            final int to = bounds[k + 1];
+
+            tasks.add(pool.submit(() -> scan(from, to)));
+        }
+
+        final List<Chunk> chunks = new ArrayList<>();
+        for(final ForkJoinTask<Chunk> task : tasks) chunks.add(task.join());
+
+        return merge(bounds, chunks);
+    }
+
+
+    /**
+     * Split the code into chunks of about equal size. Every bound is moved behind the next newline (or blank), if there is one nearby.
+     * @param chunkCount The number of chunks.
+     * @return The bounds (first is 0, last is the length of the code).
+     */
+    private int[] split(final int chunkCount) {
+        final int[] bounds = new int[chunkCount + 1];
+        final int size = code.length() / chunkCount;
+
+        for(int k = 1; k < chunkCount; k++) {
+            final int target = k * size;
+            final int limit = Math.min(target + Config.LEXER_PARALLEL_MAX_BOUNDARY_SEARCH, code.length());
+            int bound = target;
+            int blank = -1;
+
+            for(int i = target; i < limit; i++) {
+                final char c = code.charAt(i);
+
+                if(c == '\n') {
+                    bound = i + 1;
+                    blank = -1;
+                    break;
+                }
+                if(blank < 0 && (c == ' ' || c == '\t')) blank = i + 1;
+            }
+            if(blank >= 0) bound = blank;
+
+            bounds[k] = Math.max(bound, bounds[k - 1]);
+        }
+        bounds[chunkCount] = code.length();
+
+        return bounds;
+    }
+
+    /**
+     * Tokenize a chunk speculatively. The last token may end behind the chunk.
+     * An invalid token ends the chunk early; it is reported by the merge, if the sequential tokenization reaches it.
+     * @param from The start of the chunk.
+     * @param to The end of the chunk.
+     * @return The chunk.
+     */
+    private Chunk scan(final int from, final int to) {
+        final TokenBuffer tokens = new TokenBuffer(spec.getTokenPool(), code, (to - from) / Config.LEXER_TOKENBUFFER_CHARS_PER_TOKEN);
+        final TokenScanner scanner = new TokenScanner(spec, code);
+        scanner.setCursor(from);
+
+        try {
+            while(scanner.getCursor() < to && scanner.next()) tokens.add(scanner.getType(), scanner.getStart(), scanner.getEnd());
+        } catch(InvalidTokenException e) {
+            // speculative chunks may start inside of a token
+        }
+
+        return new Chunk(tokens, scanner.getCursor());
+    }
+
+    /**
+     * Merge the chunks and repair the seams.
+     * @param bounds The bounds of the chunks.
+     * @param chunks The speculative chunks.
+     * @return The tokens.
+     * @throws InvalidTokenException When an invalid token is found.
+     */
+    private TokenBuffer merge(final int[] bounds, final List<Chunk> chunks) throws InvalidTokenException {
+        int capacity = 0;
+        for(final Chunk chunk : chunks) capacity += chunk.tokens.size();
+
+        final TokenBuffer result = new TokenBuffer(spec.getTokenPool(), code, capacity);
+        final TokenScanner scanner = new TokenScanner(spec, code);
+        int cursor = 0;
+
+        for(int k = 0; k < chunks.size(); k++) {
+            final Chunk chunk = chunks.get(k);
+
+            while(cursor < bounds[k + 1]) {
+                final int first = chunk.indexOfStart(cursor);
+
+                if(first >= 0) {
+                    for(int i = first; i < chunk.tokens.size(); i++) result.add(chunk.tokens.getType(i), chunk.tokens.getStart(i), chunk.tokens.getEnd(i));
+
+                    cursor = chunk.end;
+                    if(cursor < bounds[k + 1]) {
+                        scanner.setCursor(cursor);
+                        scanner.next(); // the chunk ended at an invalid token, so this throws at the same position as the sequential tokenization
+                    }
+                    break;
+                }
+
+                scanner.setCursor(cursor);
+                scanner.next();
+                result.add(scanner.getType(), scanner.getStart(), scanner.getEnd());
+                cursor = scanner.getEnd();
+            }
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Speculative tokens of a chunk.
+     */
+    private static final class Chunk {
+        private final TokenBuffer tokens;
+        private final int end;
+
+
+        private Chunk(final TokenBuffer tokens, final int end) {
+            this.tokens = tokens;
+            this.end = end;
+        }
+
+
+        /**
+         * Binary search of the token, which starts at a position.
+         * @param position The position.
+         * @return The index of the token or -1 if no token starts there.
+         */
+        private int indexOfStart(final int position) {
+            int lo = 0;
+            int hi = tokens.size() - 1;
+
+            while(lo <= hi) {
+                final int mid = (lo + hi) >>> 1;
+                final int start = tokens.getStart(mid);
+
+                if(start < position) lo = mid + 1;
+                else if(start > position) hi = mid - 1;
+                else return mid;
+            }
+
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package parssist.lexer;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import parssist.Config;
+import parssist.lexer.exception.InvalidTokenException;
+import parssist.lexer.util.TokenBuffer;
+
+
+/**
+ * Lexer for an edited document, which keeps the tokens of the last version and only relexes the area of an edit.
+ * Every token remembers how far the scanner read behind it (its lookahead), so an edit only invalidates the tokens, whose read chars reach the edit.
+ * The relexing starts at the first invalidated token and stops, as soon as a new token ends where an old token behind the edit started.
+ * Because the token at a position only depends on the code from this position on, the old tokens from there on are reused and only shifted.
+ * So the result is always identical to tokenizing the whole edited document.
+ * Tokens, at which a fallback pattern was tried, read until the end of the code, so an edit anywhere behind them relexes them.
+ * With modes, a token also depends on the mode stack before it, so the whole document is relexed.
+ */
+public class IncrementalLexer {
+    private final LexerSpec spec;
+
+    private String code;
+    private TokenBuffer tokens;
+    private int[] lookaheads; // scan end - end of every token
+    private int maxLookahead;
+
+
+    /**
+     * Create a new incremental lexer and tokenize the first version of the document.
+     * @param spec The compiled lex definition.
+     * @param code The code of the document.
+     * @throws InvalidTokenException When an invalid token is found.
+     */
+    public IncrementalLexer(final LexerSpec spec, final CharSequence code) throws InvalidTokenException {
+        this.spec = spec;
+        this.code = code.toString();
+        this.tokens = new TokenBuffer(spec.getTokenPool(), this.code, this.code.length() / Config.LEXER_TOKENBUFFER_CHARS_PER_TOKEN);
+        this.lookaheads = new int[16];
+
+        final TokenScanner scanner = new TokenScanner(spec, this.code);
+        while(scanner.next()) append(tokens, scanner);
+
+        tokens.trimSlack();
+    }
+
+
+    public LexerSpec getSpec() {
+        return spec;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * Get the tokens of the current version (including the ignorables).
+     * @return The tokens. They are replaced (not modified) by the next edit.
+     */
+    public TokenBuffer getTokens() {
+        return tokens;
+    }
+
+
+    /**
+     * Apply an edit to the document and relex the affected area.
+     * If an invalid token is found, the document keeps its last version.
+     * @param offset The position of the edit.
+     * @param removedLength The number of chars, which are removed from the offset on.
+     * @param insertedText The text, which is inserted at the offset.
+     * @return The tokens of the edited document.
+     * @throws InvalidTokenException When an invalid token is found.
+     * @throws IndexOutOfBoundsException If the removed range isn't inside of the code.
+     */
+    public TokenBuffer edit(final int offset, final int removedLength, final String insertedText) throws InvalidTokenException {
+        Objects.checkFromIndexSize(offset, removedLength, code.length());
+
+        final int delta = insertedText.length() - removedLength;
+        final int editEnd = offset + insertedText.length(); // in the new code
+        final String edited = new StringBuilder(code.length() + delta)
+            .append(code, 0, offset)
+            .append(insertedText)
+            .append(code, offset + removedLength, code.length())
+            .toString();
+
+        final boolean modal = spec.getModeCount() > 1;
+        final int first = modal ? 0 : firstAffected(offset);
+        final int relexStart = first < tokens.size() ? tokens.getStart(first) : code.length();
+        final TokenBuffer result = new TokenBuffer(spec.getTokenPool(), edited, tokens.size() + (delta > 0 ? delta : 0));
+        final int[] previousLookaheads = lookaheads;
+        final int previousMaxLookahead = maxLookahead;
+
+        for(int i = 0; i < first; i++) result.add(tokens.getType(i), tokens.getStart(i), tokens.getEnd(i));
+        lookaheads = Arrays.copyOf(previousLookaheads, Math.max(tokens.size(), 16));
+
+        try {
+            final TokenScanner scanner = new TokenScanner(spec, edited);
+            scanner.setCursor(relexStart);
+            int reuse = -1;
+
+            while(scanner.next()) {
+                append(result, scanner);
+
+                if(!modal && scanner.getEnd() >= editEnd && (reuse = indexOfStart(scanner.getEnd() - delta, offset + removedLength)) >= 0) break;
+            }
+
+            if(reuse >= 0) {
+                for(int i = reuse; i < tokens.size(); i++) {
+                    if(result.size() == lookaheads.length) lookaheads = Arrays.copyOf(lookaheads, lookaheads.length * 2);
+
+                    lookaheads[result.size()] = previousLookaheads[i];
+                    result.add(tokens.getType(i), tokens.getStart(i) + delta, tokens.getEnd(i) + delta);
+                }
+            }
+        } catch(InvalidTokenException e) {
+            lookaheads = previousLookaheads;
+            maxLookahead = previousMaxLookahead;
+            throw e;
+        }
+
+        result.trimSlack();
+        this.code = edited;
+        this.tokens = result;
+
+        return result;
+    }
+
+
+    /**
+     * Find the first token, whose read chars reach a position.
+     * @param position The position.
+     * @return The index of the token or the number of tokens, if there is none.
+     */
+    private int firstAffected(final int position) {
+        int lo = 0;
+        int hi = tokens.size();
+
+        while(lo < hi) { // first token, which ends after position - maxLookahead
+            final int mid = (lo + hi) >>> 1;
+
+            if((long) tokens.getEnd(mid) + maxLookahead <= position) lo = mid + 1;
+            else hi = mid;
+        }
+
+        while(lo < tokens.size() && tokens.getEnd(lo) + lookaheads[lo] <= position) lo++;
+
+        return lo;
+    }
+
+    /**
+     * Binary search of the old token, which starts at a position.
+     * @param position The position in the old code.
+     * @param from The minimal position. Tokens before it were changed by the edit.
+     * @return The index of the token or -1 if no token starts there.
+     */
+    private int indexOfStart(final int position, final int from) {
+        if(position < from) return -1;
+
+        int lo = 0;
+        int hi = tokens.size() - 1;
+
+        while(lo <= hi) {
+            final int mid = (lo + hi) >>> 1;
+            final int start = tokens.getStart(mid);
+
+            if(start < position) lo = mid + 1;
+            else if(start > position) hi = mid - 1;
+            else return mid;
+        }
+
+        return -1;
+    }
+
+    private void append(final TokenBuffer buffer, final TokenScanner scanner) {
+        if(buffer.size() == lookaheads.length) lookaheads = Arrays.copyOf(lookaheads, lookaheads.length * 2);
+
+        final int lookahead = scanner.getScanEnd() - scanner.getEnd();
+        lookaheads[buffer.size()] = lookahead;
+        maxLookahead = Math.max(maxLookahead, lookahead);
+
+        buffer.add(scanner.getType(), scanner.getStart(), scanner.getEnd());
+    }
+}
@@ -3,22 +3,28 @@ package parssist.lexer;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ForkJoinPool;
 
-import parssist.Config;
+import parssist.lexer.automaton.Dfa;
 import parssist.lexer.exception.InvalidLexFormatException;
 import parssist.lexer.exception.InvalidTokenException;
+import parssist.lexer.util.Diagnostic;
 import parssist.lexer.util.Token;
+import parssist.lexer.util.TokenBuffer;
 import parssist.lexer.util.TokenType;
 
 
 /**
  * The lexer class, which tokenizes an input string.
+ * All token types are compiled once into a {@link LexerSpec}, whose minimized {@link Dfa} finds the longest match in a single pass.
+ * If two token types match the same length, the one with the higher priority (first in {@link LexerSpec#getTokenTypes()}) wins.
+ * If a token regex isn't regular (e.g. it uses anchors or lookarounds), the lexer falls back to the precompiled patterns and picks the longest of their matches.
  */
 public class Lexer {
-    private List<TokenType> tokentypes;
-    private String code = "";
+    private final boolean linear;
+    private final int stepBudget;
+    private LexerSpec spec;
+    private CharSequence code = "";
 
 
     /**
@@ -29,19 +35,54 @@ public class Lexer {
      * @throws InvalidLexFormatException If the file has invalid syntax.
      */
     public Lexer(final String lex) throws IOException, InvalidLexFormatException {
+        this.linear = false;
+        this.stepBudget = 0;
         init(lex);
     }
 
+    /**
+     * Creates a new linear Lexer for untrusted lex files (see {@link LexerSpec#compileLinear(String, int)}).
+     * Because of webassembly, the lexer can't read files. The lex file content has to be passed as a string.
+     * @param lex The lex file content.
+     * @param stepBudget The maximal number of chars, which a match may read, or 0 for no limit. The DFA and the NFA count the same chars, so the budget allows the same matches on both.
+     * @throws IOException If the file couldn't be read.
+     * @throws InvalidLexFormatException If the file has invalid syntax or a token regex isn't supported by the linear engine.
+     */
+    public Lexer(final String lex, final int stepBudget) throws IOException, InvalidLexFormatException {
+        this.linear = true;
+        this.stepBudget = stepBudget;
+        init(lex);
+    }
+
+    /**
+     * Creates a new Lexer from an already compiled lex definition, which can be shared with other lexers.
+     * @param spec The compiled lex definition.
+     */
+    public Lexer(final LexerSpec spec) {
+        this.linear = spec.isLinear();
+        this.stepBudget = spec.getStepBudget();
+        this.spec = spec;
+    }
 
+
+    public LexerSpec getSpec() {
+        return spec;
+    }
+
+    /**
+     * Get the token types sorted by their priority.
+     * @return A modifiable copy of the token types.
+     */
     public List<TokenType> getTokenTypes() {
-        return tokentypes;
+        return new ArrayList<>(spec.getTokenTypes());
     }
 
     /**
      * Set via dependency injection the code which can get tokenized by {@link Lexer#tokenize()}.
+     * The code isn't copied, so it can be any char sequence (e.g. a view on a buffer).
      * @param code The code which can get tokenized.
      */
-    public void setCode(final String code) {
+    public void setCode(final CharSequence code) {
         if(code != null) this.code = code;
     }
 
@@ -51,74 +92,45 @@ public class Lexer {
      * @throws InvalidTokenException When an invalid token is found.
      */
     public List<Token> tokenize() throws InvalidTokenException {
-        final List<Token> tokens = new ArrayList<>();
-
-        int cursor = 0;
-
-        while(!code.isEmpty()) {
-            final Token token = match();
+        return spec.tokenize(code);
+    }
 
-            if(token == null) throw new InvalidTokenException(Config.LEXER_ERROR_CURSOR + cursor);
+    /**
+     * Tokenize a input string into a columnar buffer, which only stores the token type ids and offsets.
+     * @return The tokens.
+     * @throws InvalidTokenException When an invalid token is found.
+     */
+    public TokenBuffer tokenizeToBuffer() throws InvalidTokenException {
+        return spec.tokenizeToBuffer(code);
+    }
 
-            tokens.add(token);
-            cursor += token.symbol().length();
-        }
+    /**
+     * Tokenize a input string in recovery mode, which skips invalid spans as error tokens and reports them (see {@link LexerSpec#tokenizeWithRecovery(CharSequence, List)}).
+     * @param diagnostics The list, which the diagnostics of the invalid spans are added to.
+     * @return The tokens.
+     */
+    public TokenBuffer tokenizeWithRecovery(final List<Diagnostic> diagnostics) {
+        return spec.tokenizeWithRecovery(code, diagnostics);
+    }
 
-        return tokens;
+    /**
+     * Tokenize a input string in parallel chunks on the common pool. The result is identical to {@link Lexer#tokenizeToBuffer()}.
+     * @return The tokens.
+     * @throws InvalidTokenException When an invalid token is found.
+     */
+    public TokenBuffer tokenizeParallel() throws InvalidTokenException {
+        return spec.tokenizeParallel(code, ForkJoinPool.commonPool());
     }
 
     /**
-     * Handcoded parser. In the future this could also be done by inventing a grammar and put it in the created parsergenerator.
-     * Parses the tokens: [TOKENNAME] := "[REGEX]" and puts all tokens in {@link Lexer#tokentypes}
+     * Parses the tokens: [TOKENNAME] := "[REGEX]" and compiles them into a new {@link LexerSpec}.
+     * Rows @[MODE] start the token types of a mode and a token type can switch the mode with -> push([MODE]) or -> pop (see {@link LexerSpec}).
+     * A linear lexer rejects the token regexes, which aren't supported by the linear engine, here.
      * @param input The input string.
      * @throws InvalidLexFormatException If the file has invalid syntax.
      */
     public void parseTokens(final String input) throws InvalidLexFormatException {
-        final Pattern ignorePattern = Pattern.compile(Config.LEXER_INIT_INPUT_IGNORE);
-        final Pattern commentPattern = Pattern.compile(Config.LEXER_INIT_INPUT_COMMENT);
-        final Pattern tokenPattern = Pattern.compile(Config.LEXER_INIT_INPUT_TOKENMAP);
-        final String[] rows = input.split(Config.LEXER_INIT_INPUT_ROWSPLIT);
-        final List<String> ignorables = new ArrayList<>();
-
-        this.tokentypes = new ArrayList<>();
-
-        int priority = 0;
-        
-        for(String row : rows) {
-            final Matcher ignoreMatcher = ignorePattern.matcher(row);
-            if(ignoreMatcher.find()) {
-                row = row.substring(1, row.length());
-
-                ignorables.add(row);
-
-                continue;
-            }
-
-            final Matcher commentMatcher = commentPattern.matcher(row);
-            if(commentMatcher.find()) continue;
-
-            final Matcher tokenMatcher = tokenPattern.matcher(row);
-            if(tokenMatcher.find()) {
-                final String tokenName = tokenMatcher.group(1);
-                final String tokenRegex = tokenMatcher.group(3);
-
-                tokentypes.add(new TokenType(tokenName, tokenRegex, priority, false));
-            } else {
-                throw new InvalidLexFormatException(row);
-            }
-
-            priority++;
-        }
-
-        for(String ignorable : ignorables) {
-            final String[] list = ignorable.split(",\\s*");
-
-            for (String regex : list) {
-                tokentypes.add(new TokenType(Config.LEXER_INIT_INPUT_IGNORE_TOKENNAME, regex.replace("\"", ""), 0, true));
-            }
-        }
-
-        this.tokentypes.sort((a, b) -> a.priority() - b.priority());
+        this.spec = linear ? LexerSpec.compileLinear(input, stepBudget) : LexerSpec.compile(input);
     }
 
 
@@ -131,23 +143,4 @@ public class Lexer {
     private final void init(final String lex) throws IOException, InvalidLexFormatException {
         parseTokens(lex);
     }
-
-    /**
-     * Matches {@link code}.
-     * @return The next token from {@link code}.
-     */
-    private Token match() {
-        for(final TokenType tokenType : tokentypes) {
-            final Pattern pattern = Pattern.compile(Config.LEXER_REGEX_STARTSYMBOL + tokenType.regex());
-            final Matcher matcher = pattern.matcher(this.code);
-
-            if(matcher.find()) {
-                final String value = matcher.group();
-                this.code = this.code.substring(value.length());
-                return new Token(tokenType, value);
-            }
-        }
-
-        return null;
-    }
-}
\ No newline at end of file
+}
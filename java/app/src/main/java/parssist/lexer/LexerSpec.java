@@ -0,0 +1,595 @@
+package parssist.lexer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import javax.annotation.Nullable;
+
+import parssist.Config;
+import parssist.lexer.automaton.Dfa;
+import parssist.lexer.automaton.FirstCharTable;
+import parssist.lexer.automaton.Nfa;
+import parssist.lexer.automaton.RegexNode;
+import parssist.lexer.automaton.RegexParser;
+import parssist.lexer.automaton.Utf8Encoder;
+import parssist.lexer.exception.InvalidLexFormatException;
+import parssist.lexer.exception.InvalidTokenException;
+import parssist.lexer.exception.UnsupportedRegexException;
+import parssist.lexer.util.Diagnostic;
+import parssist.lexer.util.Token;
+import parssist.lexer.util.TokenBuffer;
+import parssist.lexer.util.TokenPool;
+import parssist.lexer.util.TokenType;
+import parssist.util.ByteCharSequence;
+
+
+/**
+ * Immutable, compiled lex definition.
+ * It is compiled once from the lex file content and holds the sorted token types (their index is the token type id),
+ * the ignore mask and the combined {@link Dfa} of the token types, whose regexes are supported by {@link RegexParser} (or their {@link Nfa}, if the DFA gets too big).
+ * Only the other token types fall back to their precompiled patterns with a {@link FirstCharTable}, which selects the patterns that can start with the current char.
+ * The longest match is taken over both, so the fallback of one token type doesn't change how the others are tokenized.
+ * Because nothing is mutable after the compilation, any number of threads can tokenize with the same spec at the same time (see {@link TokenScanner}).
+ * A linear spec (see {@link LexerSpec#compileLinear(String, int)}) never uses the backtracking regex engine: every token regex has to be supported by {@link RegexParser}.
+ * So the time of a match is linear in its length and can be bounded by a step budget (the number of chars, which a match may read).
+ * The automaton over UTF-8 bytes (see {@link LexerSpec#tokenizeUtf8(ByteBuffer)}) is only built on demand and then cached.
+ * A lex file can split its token types into modes (start conditions): a row "@NAME" starts the token types of a mode
+ * and a token type can push a mode or pop the current one, e.g. STRING_START := "\"" -> push(STRING) and STRING_END := "\"" -> pop.
+ * Every mode is compiled into its own spec, so only the small set of token types of the current mode is matched at every position.
+ * The first mode is the initial mode and the ids of the token types are numbered across all modes.
+ */
+public final class LexerSpec {
+    public static final int NO_TRANSITION = -1;
+    public static final int POP_MODE = -2;
+
+    private final List<TokenType> tokentypes;
+    private final boolean[] ignoreMask;
+    private final Pattern[] patterns;
+    private final int[] automatonTypes; // id of the token type of every token of the automaton
+    private final int[] patternTypes; // ids of the token types, which aren't supported by the automaton
+    private final FirstCharTable firstChars; // indices into patternTypes
+    private final TokenPool tokenPool;
+    private final @Nullable Dfa dfa;
+    private final @Nullable Nfa nfa; // only without DFA
+    private final boolean linear;
+    private final int stepBudget;
+    private final List<LexerSpec> modes; // empty, if the lex has no modes
+    private final int[] modeOffsets; // id of the first token type of every mode
+    private final @Nullable int[] transitions; // NO_TRANSITION, POP_MODE or the pushed mode of every token type
+    private volatile @Nullable Dfa utf8Dfa; // built on the first byte tokenization
+
+
+    private LexerSpec(final List<TokenType> tokentypes, final boolean linear, final int stepBudget) throws InvalidLexFormatException {
+        this.tokentypes = List.copyOf(tokentypes);
+        this.ignoreMask = new boolean[this.tokentypes.size()];
+        this.patterns = new Pattern[this.tokentypes.size()];
+
+        for(int id = 0; id < patterns.length; id++) {
+            ignoreMask[id] = this.tokentypes.get(id).ignore();
+
+            try {
+                patterns[id] = Pattern.compile(this.tokentypes.get(id).regex());
+            } catch(PatternSyntaxException e) {
+                throw new InvalidLexFormatException(e.getMessage());
+            }
+        }
+
+        final String[] literals = new String[patterns.length];
+        final List<RegexNode> nodes = new ArrayList<>();
+        final List<Integer> automatonTypes = new ArrayList<>();
+        final List<Integer> patternTypes = new ArrayList<>();
+
+        for(int id = 0; id < literals.length; id++) {
+            literals[id] = RegexParser.literal(this.tokentypes.get(id).regex());
+
+            try {
+                nodes.add(RegexParser.parse(this.tokentypes.get(id).regex()));
+                automatonTypes.add(id);
+            } catch(UnsupportedRegexException e) {
+                if(linear) throw new InvalidLexFormatException(e.getMessage());
+
+                patternTypes.add(id);
+            }
+        }
+
+        Nfa nfa = null;
+        if(!nodes.isEmpty()) {
+            try {
+                nfa = Nfa.compile(nodes);
+            } catch(UnsupportedRegexException e) {
+                if(linear) throw new InvalidLexFormatException(e.getMessage());
+
+                nfa = compileEach(nodes, automatonTypes, patternTypes);
+            }
+        }
+
+        this.automatonTypes = automatonTypes.stream().mapToInt(Integer::intValue).toArray();
+        this.patternTypes = patternTypes.stream().mapToInt(Integer::intValue).toArray();
+        this.firstChars = FirstCharTable.build(patternTypes.stream().map(id -> this.tokentypes.get(id).regex()).toList());
+        this.tokenPool = new TokenPool(this.tokentypes, literals, Config.LEXER_TOKENPOOL_SIZE, Config.LEXER_TOKENPOOL_MAX_SYMBOL_LENGTH);
+        this.linear = linear;
+        this.stepBudget = stepBudget;
+        this.modes = List.of();
+        this.modeOffsets = new int[] { 0 };
+        this.transitions = null;
+        this.dfa = nfa == null ? null : buildDfa(nfa);
+        this.nfa = dfa == null ? nfa : null;
+    }
+
+    /**
+     * Create the spec of a lex with modes. The matching state of the initial mode is shared, only the token types and their pool span all modes.
+     * @param modes The compiled modes (the first is the initial mode).
+     * @param transitions The transition of every token type.
+     */
+    private LexerSpec(final List<LexerSpec> modes, final int[] transitions) {
+        final LexerSpec initial = modes.get(0);
+        final List<TokenType> tokentypes = new ArrayList<>();
+
+        this.modeOffsets = new int[modes.size()];
+        for(int m = 0; m < modeOffsets.length; m++) {
+            modeOffsets[m] = tokentypes.size();
+            tokentypes.addAll(modes.get(m).tokentypes);
+        }
+
+        this.tokentypes = List.copyOf(tokentypes);
+        this.ignoreMask = new boolean[this.tokentypes.size()];
+
+        final String[] literals = new String[ignoreMask.length];
+        for(int id = 0; id < ignoreMask.length; id++) {
+            ignoreMask[id] = this.tokentypes.get(id).ignore();
+            literals[id] = RegexParser.literal(this.tokentypes.get(id).regex());
+        }
+
+        this.patterns = initial.patterns;
+        this.automatonTypes = initial.automatonTypes;
+        this.patternTypes = initial.patternTypes;
+        this.firstChars = initial.firstChars;
+        this.tokenPool = new TokenPool(this.tokentypes, literals, Config.LEXER_TOKENPOOL_SIZE, Config.LEXER_TOKENPOOL_MAX_SYMBOL_LENGTH);
+        this.dfa = initial.dfa;
+        this.nfa = initial.nfa;
+        this.linear = initial.linear;
+        this.stepBudget = initial.stepBudget;
+        this.modes = List.copyOf(modes);
+        this.transitions = transitions;
+    }
+
+
+    /**
+     * Compiles the lex file content.
+     * Because of webassembly, the lex file can't be read here. The lex file content has to be passed as a string.
+     * @param lex The lex file content.
+     * @return The compiled spec.
+     * @throws InvalidLexFormatException If the lex file has invalid syntax.
+     */
+    public static LexerSpec compile(final String lex) throws InvalidLexFormatException {
+        return compile(lex, false, 0);
+    }
+
+    /**
+     * Compiles already parsed token types. They are used in the given order, so the first type has the highest priority.
+     * @param tokentypes The token types.
+     * @return The compiled spec.
+     * @throws InvalidLexFormatException If a regex has invalid syntax.
+     */
+    public static LexerSpec of(final List<TokenType> tokentypes) throws InvalidLexFormatException {
+        return new LexerSpec(tokentypes, false, 0);
+    }
+
+    /**
+     * Compiles the lex file content into a linear spec, which is safe for untrusted lex files.
+     * @param lex The lex file content.
+     * @param stepBudget The maximal number of chars, which a match may read, or 0 for no limit. The DFA and the NFA count the same chars, so the budget allows the same matches on both.
+     * @return The compiled spec.
+     * @throws InvalidLexFormatException If the lex file has invalid syntax or a token regex isn't supported by {@link RegexParser}.
+     */
+    public static LexerSpec compileLinear(final String lex, final int stepBudget) throws InvalidLexFormatException {
+        return compile(lex, true, stepBudget);
+    }
+
+    /**
+     * Compiles already parsed token types into a linear spec. They are used in the given order, so the first type has the highest priority.
+     * @param tokentypes The token types.
+     * @param stepBudget The maximal number of chars, which a match may read, or 0 for no limit. The DFA and the NFA count the same chars, so the budget allows the same matches on both.
+     * @return The compiled spec.
+     * @throws InvalidLexFormatException If a regex has invalid syntax or isn't supported by {@link RegexParser}.
+     */
+    public static LexerSpec ofLinear(final List<TokenType> tokentypes, final int stepBudget) throws InvalidLexFormatException {
+        return new LexerSpec(tokentypes, true, stepBudget);
+    }
+
+
+    /**
+     * Get the token types sorted by their priority. The index of a token type is its id.
+     * @return The unmodifiable list of token types.
+     */
+    public List<TokenType> getTokenTypes() {
+        return tokentypes;
+    }
+
+    public TokenType getTokenType(final int id) {
+        return tokentypes.get(id);
+    }
+
+    public int size() {
+        return tokentypes.size();
+    }
+
+    public boolean isIgnored(final int id) {
+        return ignoreMask[id];
+    }
+
+    /**
+     * Check if all token types are regular, so the spec tokenizes only with the combined DFA.
+     * @return True if only the DFA is used, false if the spec simulates the NFA or falls back to patterns.
+     */
+    public boolean isDeterministic() {
+        if(!modes.isEmpty()) return modes.stream().allMatch(LexerSpec::isDeterministic);
+
+        return dfa != null && patternTypes.length == 0;
+    }
+
+    /**
+     * Get the token pool, which interns the tokens of all tokenizations with this spec.
+     * @return The token pool.
+     */
+    public TokenPool getTokenPool() {
+        return tokenPool;
+    }
+
+    /**
+     * Check if the spec only matches with automata, so no match can backtrack.
+     * @return True if the spec is linear, false otherwise.
+     */
+    public boolean isLinear() {
+        return linear;
+    }
+
+    public int getStepBudget() {
+        return stepBudget;
+    }
+
+    /**
+     * Get the number of modes.
+     * @return The number of modes (1, if the lex has no modes).
+     */
+    public int getModeCount() {
+        return modeOffsets.length;
+    }
+
+
+    /**
+     * Tokenize a code sequence. This is thread safe.
+     * @param code The code which gets tokenized.
+     * @return The tokens (including the ignorables) as read-only list view on a {@link TokenBuffer}.
+     * @throws InvalidTokenException When an invalid token is found.
+     */
+    public List<Token> tokenize(final CharSequence code) throws InvalidTokenException {
+        return tokenizeToBuffer(code).asList();
+    }
+
+    /**
+     * Tokenize a code sequence into a columnar buffer. This is thread safe.
+     * @param code The code which gets tokenized.
+     * @return The tokens (including the ignorables).
+     * @throws InvalidTokenException When an invalid token is found.
+     */
+    public TokenBuffer tokenizeToBuffer(final CharSequence code) throws InvalidTokenException {
+        final TokenBuffer buffer = new TokenBuffer(tokenPool, code, code.length() / Config.LEXER_TOKENBUFFER_CHARS_PER_TOKEN);
+        final TokenScanner scanner = new TokenScanner(this, code);
+
+        while(scanner.next()) buffer.add(scanner.getType(), scanner.getStart(), scanner.getEnd());
+
+        buffer.trimSlack();
+        return buffer;
+    }
+
+
+    /**
+     * Tokenize UTF-8 bytes without decoding them. This is thread safe.
+     * The automaton of the spec is translated once into an automaton over bytes (see {@link Utf8Encoder}), so the offsets of the tokens are byte offsets
+     * and a symbol is only decoded, when it's requested from the buffer. Outside of the BMP, a char set matches whole code points instead of surrogates.
+     * Token types, which fell back to {@link java.util.regex.Pattern}, aren't supported, because the patterns would match the bytes as chars.
+     * @param bytes The UTF-8 bytes (from index 0 up to the limit). They aren't copied.
+     * @return The tokens (including the ignorables).
+     * @throws InvalidTokenException When an invalid token is found.
+     * @throws UnsupportedRegexException If a regex isn't regular, a token type fell back to a pattern or the automaton over bytes gets too big.
+     */
+    public TokenBuffer tokenizeUtf8(final ByteBuffer bytes) throws InvalidTokenException, UnsupportedRegexException {
+        final CharSequence code = new ByteCharSequence(bytes, StandardCharsets.UTF_8);
+        final TokenBuffer buffer = new TokenBuffer(tokenPool, code, code.length() / Config.LEXER_TOKENBUFFER_CHARS_PER_TOKEN);
+        final Dfa[] dfas = new Dfa[getModeCount()];
+        for(int m = 0; m < dfas.length; m++) dfas[m] = getMode(m).getUtf8Dfa();
+
+        final TokenScanner scanner = new TokenScanner(this, code, dfas);
+
+        while(scanner.next()) buffer.add(scanner.getType(), scanner.getStart(), scanner.getEnd());
+
+        buffer.trimSlack();
+        return buffer;
+    }
+
+
+    /**
+     * Tokenize a code sequence in recovery mode. This is thread safe.
+     * Instead of stopping at the first invalid token, the shortest invalid span is skipped as {@link TokenBuffer#ERROR} token
+     * and reported as diagnostic, so all invalid spans are found in one pass.
+     * @param code The code which gets tokenized.
+     * @param diagnostics The list, which the diagnostics of the invalid spans are added to.
+     * @return The tokens (including the ignorables and the invalid spans).
+     */
+    public TokenBuffer tokenizeWithRecovery(final CharSequence code, final List<Diagnostic> diagnostics) {
+        final TokenBuffer buffer = new TokenBuffer(tokenPool, code, code.length() / Config.LEXER_TOKENBUFFER_CHARS_PER_TOKEN);
+        final TokenScanner scanner = new TokenScanner(this, code);
+
+        while(true) {
+            try {
+                if(!scanner.next()) break;
+            } catch(InvalidTokenException e) {
+                scanner.skipInvalid();
+                diagnostics.add(new Diagnostic(scanner.getStart(), scanner.getEnd(), e.getMessage()));
+            }
+
+            buffer.add(scanner.getType(), scanner.getStart(), scanner.getEnd());
+        }
+
+        buffer.trimSlack();
+        return buffer;
+    }
+
+
+    /**
+     * Tokenize a code sequence in parallel chunks on a pool. The result is identical to {@link LexerSpec#tokenizeToBuffer(CharSequence)}.
+     * Small inputs (less than two chunks of {@link Config#LEXER_PARALLEL_MIN_CHUNK_SIZE}) and specs with modes
+     * (where a chunk can't know its starting mode) are tokenized sequentially.
+     * @param code The code which gets tokenized. It has to be safe for concurrent reads.
+     * @param pool The pool, whose parallelism is the maximal number of chunks.
+     * @return The tokens (including the ignorables).
+     * @throws InvalidTokenException When an invalid token is found.
+     */
+    public TokenBuffer tokenizeParallel(final CharSequence code, final ForkJoinPool pool) throws InvalidTokenException {
+        return new ChunkedTokenizer(this, code).tokenize(pool);
+    }
+
+
+    @Nullable Dfa getDfa() {
+        return dfa;
+    }
+
+    /**
+     * Get the automaton over UTF-8 bytes. It's built on the first call (concurrent first calls may build it twice, but the result is the same).
+     * @return The automaton.
+     * @throws UnsupportedRegexException If a regex isn't regular, a token type fell back to a pattern or the automaton gets too big.
+     */
+    Dfa getUtf8Dfa() throws UnsupportedRegexException {
+        Dfa result = utf8Dfa;
+
+        if(result == null) {
+            if(patternTypes.length > 0) throw new UnsupportedRegexException(Config.LEXER_REGEX_ERROR_NO_BYTES + tokentypes.get(patternTypes[0]).name());
+
+            final List<RegexNode> nodes = new ArrayList<>();
+            for(final TokenType tokenType : tokentypes) nodes.add(Utf8Encoder.encode(RegexParser.parse(tokenType.regex())));
+
+            result = Dfa.build(Nfa.compile(nodes));
+            utf8Dfa = result;
+        }
+
+        return result;
+    }
+
+    @Nullable Nfa getNfa() {
+        return nfa;
+    }
+
+    /**
+     * Get the spec of a mode, whose token type ids start at {@link LexerSpec#getModeOffset(int)}.
+     * @param mode The mode.
+     * @return The spec of the mode (this spec, if the lex has no modes).
+     */
+    LexerSpec getMode(final int mode) {
+        return modes.isEmpty() ? this : modes.get(mode);
+    }
+
+    int getModeOffset(final int mode) {
+        return modeOffsets[mode];
+    }
+
+    /**
+     * Get the mode transition of a token type.
+     * @param id The token type id or {@link TokenBuffer#ERROR}.
+     * @return {@link LexerSpec#NO_TRANSITION}, {@link LexerSpec#POP_MODE} or the pushed mode.
+     */
+    int getTransition(final int id) {
+        if(transitions == null || id < 0) return NO_TRANSITION;
+
+        return transitions[id];
+    }
+
+    Pattern getPattern(final int id) {
+        return patterns[id];
+    }
+
+    /**
+     * Get the token types of the automaton.
+     * @return The token type id of every token of the {@link LexerSpec#getDfa()} or {@link LexerSpec#getNfa()}.
+     */
+    int[] getAutomatonTypes() {
+        return automatonTypes;
+    }
+
+    int[] getPatternTypes() {
+        return patternTypes;
+    }
+
+    FirstCharTable getFirstChars() {
+        return firstChars;
+    }
+
+
+    /**
+     * Compiles the lex file content and its modes.
+     * @param lex The lex file content.
+     * @param linear If the spec (and every mode) should be linear.
+     * @param stepBudget The maximal number of chars, which a match may read, or 0 for no limit. The DFA and the NFA count the same chars, so the budget allows the same matches on both.
+     * @return The compiled spec.
+     * @throws InvalidLexFormatException If the lex file has invalid syntax or a transition pushes an unknown mode.
+     */
+    private static LexerSpec compile(final String lex, final boolean linear, final int stepBudget) throws InvalidLexFormatException {
+        final Map<TokenType, String> actions = new IdentityHashMap<>();
+        final Map<String, List<TokenType>> modes = parseTokenTypes(lex, actions);
+
+        if(modes.size() == 1 && actions.isEmpty()) return new LexerSpec(modes.values().iterator().next(), linear, stepBudget);
+
+        final List<String> names = new ArrayList<>(modes.keySet());
+        final List<LexerSpec> specs = new ArrayList<>();
+        final List<Integer> transitions = new ArrayList<>();
+
+        for(final List<TokenType> tokentypes : modes.values()) {
+            specs.add(new LexerSpec(tokentypes, linear, stepBudget));
+
+            for(final TokenType tokenType : tokentypes) {
+                final String action = actions.get(tokenType);
+
+                if(action == null) transitions.add(NO_TRANSITION);
+                else if(action.isEmpty()) transitions.add(POP_MODE);
+                else if(names.contains(action)) transitions.add(names.indexOf(action));
+                else throw new InvalidLexFormatException(Config.LEXER_ERROR_UNKNOWN_MODE + action);
+            }
+        }
+
+        return new LexerSpec(specs, transitions.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Handcoded parser. In the future this could also be done by inventing a grammar and put it in the created parsergenerator.
+     * Parses the tokens: [TOKENNAME] := "[REGEX]" with an optional transition -> push([MODE]) or -> pop and the mode rows @[MODE].
+     * The token types of every mode are sorted by their priority. Token types before the first mode row belong to the mode {@link Config#LEXER_INIT_MODE_NAME}.
+     * @param input The lex file content.
+     * @param actions The map, which the pushed mode (or an empty string for a pop) of every token type with a transition is added to.
+     * @return The token types of every mode in the order of the file.
+     * @throws InvalidLexFormatException If the file has invalid syntax.
+     */
+    private static Map<String, List<TokenType>> parseTokenTypes(final String input, final Map<TokenType, String> actions) throws InvalidLexFormatException {
+        final Pattern ignorePattern = Pattern.compile(Config.LEXER_INIT_INPUT_IGNORE);
+        final Pattern commentPattern = Pattern.compile(Config.LEXER_INIT_INPUT_COMMENT);
+        final Pattern modePattern = Pattern.compile(Config.LEXER_INIT_INPUT_MODE);
+        final Pattern actionPattern = Pattern.compile(Config.LEXER_INIT_INPUT_MODE_ACTION);
+        final Pattern tokenPattern = Pattern.compile(Config.LEXER_INIT_INPUT_TOKENMAP);
+        final String[] rows = input.split(Config.LEXER_INIT_INPUT_ROWSPLIT);
+        final Map<String, List<String>> ignorables = new LinkedHashMap<>();
+        final Map<String, List<TokenType>> modes = new LinkedHashMap<>();
+
+        String mode = Config.LEXER_INIT_MODE_NAME;
+        int priority = 0;
+        
+        for(String row : rows) {
+            final Matcher ignoreMatcher = ignorePattern.matcher(row);
+            if(ignoreMatcher.find()) {
+                row = row.substring(1, row.length());
+
+                ignorables.computeIfAbsent(mode, k -> new ArrayList<>()).add(row);
+                modes.computeIfAbsent(mode, k -> new ArrayList<>());
+
+                continue;
+            }
+
+            final Matcher commentMatcher = commentPattern.matcher(row);
+            if(commentMatcher.find()) continue;
+
+            final Matcher modeMatcher = modePattern.matcher(row);
+            if(modeMatcher.find()) {
+                mode = modeMatcher.group(1);
+                modes.computeIfAbsent(mode, k -> new ArrayList<>());
+
+                continue;
+            }
+
+            final Matcher tokenMatcher = tokenPattern.matcher(row);
+            if(tokenMatcher.find()) {
+                final String tokenName = tokenMatcher.group(1);
+                final String tokenRegex = tokenMatcher.group(3);
+                final TokenType tokenType = new TokenType(tokenName, tokenRegex, priority, false);
+
+                final Matcher actionMatcher = actionPattern.matcher(row);
+                if(actionMatcher.find()) actions.put(tokenType, actionMatcher.group(2) == null ? "" : actionMatcher.group(2));
+
+                modes.computeIfAbsent(mode, k -> new ArrayList<>()).add(tokenType);
+            } else {
+                throw new InvalidLexFormatException(row);
+            }
+
+            priority++;
+        }
+
+        if(modes.isEmpty()) modes.put(mode, new ArrayList<>());
+
+        for(final Map.Entry<String, List<TokenType>> entry : modes.entrySet()) {
+            final List<TokenType> tokentypes = entry.getValue();
+
+            for(String ignorable : ignorables.getOrDefault(entry.getKey(), List.of())) {
+                final String[] list = ignorable.split(",\\s*");
+
+                for (String regex : list) {
+                    tokentypes.add(new TokenType(Config.LEXER_INIT_INPUT_IGNORE_TOKENNAME, regex.replace("\"", ""), 0, true));
+                }
+            }
+
+            tokentypes.sort((a, b) -> a.priority() - b.priority());
+        }
+
+        return modes;
+    }
+
+    /**
+     * Compiles the automaton token types one by one, if their NFA gets too big together.
+     * A token type, which doesn't fit into the NFA of the token types before it, falls back to its pattern, so only the token types, which fail, fall back.
+     * @param nodes The regexes of the automaton token types.
+     * @param automatonTypes The ids of the automaton token types, which are reduced to the ones in the NFA.
+     * @param patternTypes The ids of the fallback token types, which get the failed ones (sorted by their id).
+     * @return The NFA or null, if every token type falls back.
+     */
+    private static @Nullable Nfa compileEach(final List<RegexNode> nodes, final List<Integer> automatonTypes, final List<Integer> patternTypes) {
+        final List<RegexNode> compiled = new ArrayList<>();
+        final List<Integer> ids = new ArrayList<>();
+        Nfa nfa = null;
+
+        for(int k = 0; k < nodes.size(); k++) {
+            compiled.add(nodes.get(k));
+
+            try {
+                nfa = Nfa.compile(compiled);
+                ids.add(automatonTypes.get(k));
+            } catch(UnsupportedRegexException e) {
+                compiled.remove(compiled.size() - 1);
+                patternTypes.add(automatonTypes.get(k));
+            }
+        }
+
+        automatonTypes.clear();
+        automatonTypes.addAll(ids);
+        patternTypes.sort(null);
+
+        return nfa;
+    }
+
+    /**
+     * Builds the DFA of the automaton token types.
+     * @param nfa The NFA.
+     * @return The DFA or null, if it gets too big.
+     */
+    private static @Nullable Dfa buildDfa(final Nfa nfa) {
+        try {
+            return Dfa.build(nfa);
+        } catch(UnsupportedRegexException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package parssist.lexer;
+
+import java.util.Arrays;
+import java.util.regex.Matcher;
+
+import parssist.lexer.automaton.Dfa;
+import parssist.lexer.automaton.FirstCharTable;
+import parssist.lexer.automaton.Nfa;
+import parssist.lexer.automaton.NfaMatcher;
+
+
+/**
+ * Matching core of {@link TokenScanner} and {@link TokenStream}, which finds the longest match of the token types of the current mode at a position.
+ * The token types, which are supported by the automaton of the mode (its {@link Dfa} or {@link Nfa}), are matched with it and only the others with their patterns,
+ * so the longest match is found over both. The input is passed with every match, so it can be a whole code sequence or the window of a stream, which is refilled between the matches.
+ * If more input behind the limit could change the match and the end of the input isn't reached yet, the match asks for it with {@link LongestMatcher#NEED_INPUT}.
+ * The matcher keeps the stack of modes. It isn't thread safe, but any number of matchers can share the same spec.
+ */
+final class LongestMatcher {
+    static final int NEED_INPUT = -2; // NfaMatcher#BUDGET_EXCEEDED is -1
+
+    private final LexerSpec spec;
+    private final Dfa[] dfas; // of every mode
+    private final int[][] modeAutomatonTypes; // of every mode
+    private final NfaMatcher[] nfaMatchers; // of every mode
+    private final Matcher[][] modeMatchers; // of every mode
+
+    private Dfa dfa;
+    private NfaMatcher nfaMatcher;
+    private int[] automatonTypes;
+    private int[] patternTypes;
+    private FirstCharTable firstChars;
+    private Matcher[] matchers;
+    private int modeOffset;
+    private int[] modeStack = new int[8];
+    private int depth;
+
+    private int type = Nfa.NO_TOKEN;
+    private int scanEnd;
+
+
+    /**
+     * Create a new matcher, which starts in the initial mode.
+     * @param spec The compiled lex definition.
+     * @param input The input, which the patterns of the fallback are bound to (see {@link LongestMatcher#reset(CharSequence)}).
+     */
+    LongestMatcher(final LexerSpec spec, final CharSequence input) {
+        this.spec = spec;
+        this.dfas = new Dfa[spec.getModeCount()];
+        this.modeAutomatonTypes = new int[dfas.length][];
+        this.nfaMatchers = new NfaMatcher[dfas.length];
+        this.modeMatchers = new Matcher[dfas.length][];
+
+        for(int m = 0; m < dfas.length; m++) {
+            final LexerSpec mode = spec.getMode(m);
+            final int[] patternTypes = mode.getPatternTypes();
+
+            dfas[m] = mode.getDfa();
+            modeAutomatonTypes[m] = mode.getAutomatonTypes();
+            modeMatchers[m] = new Matcher[patternTypes.length];
+
+            if(mode.getNfa() != null) nfaMatchers[m] = new NfaMatcher(mode.getNfa());
+            for(int k = 0; k < patternTypes.length; k++) modeMatchers[m][k] = mode.getPattern(patternTypes[k]).matcher(input);
+        }
+
+        enter(0);
+    }
+
+    /**
+     * Create a new matcher, which runs other automata of the modes (e.g. the ones over UTF-8 bytes).
+     * @param spec The compiled lex definition.
+     * @param dfas The automaton of every mode, whose tokens are the token type ids of the mode.
+     */
+    LongestMatcher(final LexerSpec spec, final Dfa[] dfas) {
+        this.spec = spec;
+        this.dfas = dfas;
+        this.modeAutomatonTypes = new int[dfas.length][];
+        this.nfaMatchers = new NfaMatcher[dfas.length];
+        this.modeMatchers = new Matcher[dfas.length][];
+
+        for(int m = 0; m < dfas.length; m++) {
+            modeAutomatonTypes[m] = new int[spec.getMode(m).size()];
+            modeMatchers[m] = new Matcher[0];
+            for(int id = 0; id < modeAutomatonTypes[m].length; id++) modeAutomatonTypes[m][id] = id;
+        }
+
+        enter(0);
+    }
+
+
+    /**
+     * Get the token type of the last match.
+     * @return The token type id.
+     */
+    int getType() {
+        return type;
+    }
+
+    /**
+     * Get the end of the chars, which were read by the last match. The match only depends on the input until there.
+     * Because the regex engine doesn't report it, the fallback always reads until the limit.
+     * @return The exclusive end of the read chars or the limit plus one, if the limit was reached.
+     */
+    int getScanEnd() {
+        return scanEnd;
+    }
+
+    /**
+     * Get the current mode, in which the next token is matched.
+     * @return The mode (0 is the initial mode).
+     */
+    int getMode() {
+        return modeStack[depth];
+    }
+
+    /**
+     * Bind the patterns of the fallback to a new input.
+     * @param input The input.
+     */
+    void reset(final CharSequence input) {
+        for(final Matcher[] matchers : modeMatchers) {
+            for(final Matcher matcher : matchers) matcher.reset(input);
+        }
+    }
+
+
+    /**
+     * Find the longest match at a position (the token type with the higher priority wins equally long matches).
+     * The token type is stored in {@link LongestMatcher#getType()}.
+     * @param input The input.
+     * @param position The position in the input.
+     * @param limit The end of the available input (exclusive).
+     * @param eof True if the input ends at the limit, false if more input can follow.
+     * @return The length of the match, 0 if there is none, {@link LongestMatcher#NEED_INPUT} if more input could change the match
+     * or {@link NfaMatcher#BUDGET_EXCEEDED}.
+     */
+    int match(final CharSequence input, final int position, final int limit, final boolean eof) {
+        int token = Nfa.NO_TOKEN;
+        int length = 0;
+
+        if(dfa != null) {
+            final int budget = spec.getStepBudget();
+            int state = dfa.start();
+            int i = position;
+
+            for(; i < limit && (state = dfa.step(state, input.charAt(i))) != Dfa.DEAD; i++) {
+                if(budget > 0 && i - position >= budget) return NfaMatcher.BUDGET_EXCEEDED;
+
+                if(dfa.accept(state) != Nfa.NO_TOKEN) {
+                    token = dfa.accept(state);
+                    length = i + 1 - position;
+                }
+            }
+
+            if(i == limit && state != Dfa.DEAD && !eof) return NEED_INPUT;
+
+            this.scanEnd = i + 1; // the char at i killed the automaton or i is the limit
+        } else if(nfaMatcher != null) {
+            length = nfaMatcher.match(input, position, limit, spec.getStepBudget());
+            token = nfaMatcher.getToken();
+
+            if(length == NfaMatcher.BUDGET_EXCEEDED) return length;
+            if(nfaMatcher.hitEnd() && !eof) return NEED_INPUT;
+
+            this.scanEnd = nfaMatcher.getScanEnd();
+        } else {
+            this.scanEnd = position + 1;
+        }
+
+        if(token != Nfa.NO_TOKEN) token = automatonTypes[token];
+
+        final int[] candidates = firstChars.candidates(input, position, limit);
+        if(candidates.length > 0) this.scanEnd = limit + 1; // the regex engine doesn't report the read chars
+
+        for(final int k : candidates) {
+            final Matcher matcher = matchers[k].region(position, limit);
+            final boolean found = matcher.lookingAt();
+
+            if(matcher.hitEnd() && !eof) return NEED_INPUT;
+
+            if(found && isLonger(matcher.end() - position, patternTypes[k], length, token)) {
+                token = patternTypes[k];
+                length = matcher.end() - position;
+            }
+        }
+
+        if(token != Nfa.NO_TOKEN) this.type = modeOffset + token;
+
+        return length;
+    }
+
+    /**
+     * Apply the transition of a token type: push its mode or pop the current mode. The initial mode is never popped.
+     * @param type The token type id of the current token.
+     */
+    void transition(final int type) {
+        final int transition = spec.getTransition(type);
+
+        if(transition == LexerSpec.NO_TRANSITION) return;
+
+        if(transition == LexerSpec.POP_MODE) {
+            if(depth > 0) depth--;
+        } else {
+            if(++depth == modeStack.length) modeStack = Arrays.copyOf(modeStack, depth * 2);
+            modeStack[depth] = transition;
+        }
+
+        enter(modeStack[depth]);
+    }
+
+
+    /**
+     * Switch the matching state to a mode.
+     * @param mode The mode.
+     */
+    private void enter(final int mode) {
+        final LexerSpec modeSpec = spec.getMode(mode);
+
+        this.dfa = dfas[mode];
+        this.nfaMatcher = nfaMatchers[mode];
+        this.automatonTypes = modeAutomatonTypes[mode];
+        this.patternTypes = modeSpec.getPatternTypes();
+        this.firstChars = modeSpec.getFirstChars();
+        this.matchers = modeMatchers[mode];
+        this.modeOffset = spec.getModeOffset(mode);
+    }
+
+    /**
+     * Compare a match with the best match so far. Empty matches never count.
+     * @param length The length of the match.
+     * @param token The token type of the match.
+     * @param bestLength The length of the best match.
+     * @param bestToken The token type of the best match.
+     * @return True if the match is longer or equally long with a higher priority.
+     */
+    private static boolean isLonger(final int length, final int token, final int bestLength, final int bestToken) {
+        if(length == 0) return false;
+
+        return length > bestLength || (length == bestLength && token < bestToken);
+    }
+}
@@ -0,0 +1,148 @@
+package parssist.lexer;
+
+import parssist.Config;
+import parssist.lexer.automaton.Dfa;
+import parssist.lexer.automaton.Nfa;
+import parssist.lexer.automaton.NfaMatcher;
+import parssist.lexer.exception.InvalidTokenException;
+import parssist.lexer.util.Token;
+import parssist.lexer.util.TokenBuffer;
+
+
+/**
+ * Cursor over a code sequence, which finds one token after another with a {@link LexerSpec}.
+ * The scanner only keeps the id and the bounds of the current token, so the symbol is only extracted on demand.
+ * The tokens are matched by a {@link LongestMatcher}, so if the spec has modes, only the token types of the current mode are matched.
+ * A scanner isn't thread safe, but any number of scanners can share the same spec.
+ */
+public class TokenScanner {
+    private final LexerSpec spec;
+    private final CharSequence code;
+    private final LongestMatcher matcher;
+
+    private int cursor;
+    private int type = Nfa.NO_TOKEN;
+    private int start;
+    private int end;
+    private int scanEnd;
+
+
+    /**
+     * Create a new scanner, which starts at the beginning of the code.
+     * @param spec The compiled lex definition.
+     * @param code The code which gets tokenized. It isn't copied.
+     */
+    public TokenScanner(final LexerSpec spec, final CharSequence code) {
+        this.spec = spec;
+        this.code = code;
+        this.matcher = new LongestMatcher(spec, code);
+    }
+
+    /**
+     * Create a new scanner, which runs other automata of the modes (e.g. the ones over UTF-8 bytes) on the code.
+     * @param spec The compiled lex definition.
+     * @param code The code which gets tokenized. It isn't copied.
+     * @param dfas The automaton of every mode, whose tokens are the token type ids of the mode.
+     */
+    TokenScanner(final LexerSpec spec, final CharSequence code, final Dfa[] dfas) {
+        this.spec = spec;
+        this.code = code;
+        this.matcher = new LongestMatcher(spec, dfas);
+    }
+
+
+    public LexerSpec getSpec() {
+        return spec;
+    }
+
+    public CharSequence getCode() {
+        return code;
+    }
+
+    public int getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Move the cursor. The next token is searched from this position on.
+     * @param cursor The new position in the code.
+     */
+    public void setCursor(final int cursor) {
+        this.cursor = cursor;
+    }
+
+    /**
+     * Get the current mode, in which the next token is searched.
+     * @return The mode (0 is the initial mode).
+     */
+    public int getMode() {
+        return matcher.getMode();
+    }
+
+    public int getType() {
+        return type;
+    }
+
+    public int getStart() {
+        return start;
+    }
+
+    public int getEnd() {
+        return end;
+    }
+
+    /**
+     * Get the end of the chars, which were read to find the current token. The token only depends on the code until there.
+     * Because the regex engine doesn't report it, the fallback always reads until the end.
+     * @return The exclusive end of the read chars or the length of the code plus one, if the end of the code was reached.
+     */
+    public int getScanEnd() {
+        return scanEnd;
+    }
+
+
+    /**
+     * Find the next token at the cursor and move the cursor behind it.
+     * @return True if a token was found, false if the end of the code is reached.
+     * @throws InvalidTokenException When no token type matches at the cursor or the match exceeds the step budget of a linear spec.
+     */
+    public boolean next() throws InvalidTokenException {
+        if(cursor >= code.length()) return false;
+
+        final int length = matcher.match(code, cursor, code.length(), true);
+        if(length == NfaMatcher.BUDGET_EXCEEDED) throw new InvalidTokenException(Config.LEXER_REGEX_ERROR_BUDGET + cursor);
+        if(length == 0) throw new InvalidTokenException(Config.LEXER_ERROR_CURSOR + cursor);
+
+        this.type = matcher.getType();
+        this.start = cursor;
+        this.end = cursor + length;
+        this.scanEnd = matcher.getScanEnd();
+        this.cursor = end;
+        matcher.transition(type);
+
+        return true;
+    }
+
+    /**
+     * Skip the shortest run of chars at the cursor, at whose end a token matches again (or the code ends), as the current token.
+     * The token type of this span is {@link TokenBuffer#ERROR}. Matches, which exceed the step budget, count as invalid too.
+     */
+    public void skipInvalid() {
+        int position = cursor + 1;
+        while(position < code.length() && matcher.match(code, position, code.length(), true) <= 0) position++;
+
+        this.type = TokenBuffer.ERROR;
+        this.start = cursor;
+        this.end = position;
+        this.cursor = position;
+        this.scanEnd = code.length() + 1;
+    }
+
+    /**
+     * Get the current token with its symbol from the token pool of the spec.
+     * @return The token.
+     */
+    public Token getToken() {
+        return spec.getTokenPool().get(type, code, start, end);
+    }
+}
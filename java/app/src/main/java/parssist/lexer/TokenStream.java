@@ -0,0 +1,188 @@
+package parssist.lexer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.annotation.Nullable;
+
+import parssist.Config;
+import parssist.lexer.automaton.NfaMatcher;
+import parssist.lexer.exception.InvalidTokenException;
+import parssist.lexer.exception.UncheckedInvalidTokenException;
+import parssist.lexer.util.Token;
+
+
+/**
+ * Streaming lexer, which tokenizes a {@link Reader} or a {@link ReadableByteChannel} through a sliding char buffer.
+ * The buffer only keeps the pending input (the chars after the last token, up to the end of the longest possible match),
+ * so the memory is bounded by {@link Config#LEXER_STREAM_MAX_BUFFER_SIZE} no matter how big the input is.
+ * It matches with a {@link LongestMatcher} like {@link TokenScanner}, so it produces the same tokens as {@link LexerSpec#tokenize(CharSequence)}.
+ */
+public class TokenStream implements Iterator<Token>, Closeable {
+    private final LexerSpec spec;
+    private final Reader reader;
+    private final LongestMatcher matcher;
+
+    private char[] buffer;
+    private CharBuffer view;
+    private int begin;
+    private int limit;
+    private long offset; // absolute position of buffer[0]
+    private boolean eof;
+    private @Nullable Token next;
+
+
+    /**
+     * Create a new token stream over a reader.
+     * @param spec The compiled lex definition.
+     * @param reader The reader. It is closed by {@link TokenStream#close()}.
+     */
+    public TokenStream(final LexerSpec spec, final Reader reader) {
+        this.spec = spec;
+        this.reader = reader;
+        this.buffer = new char[Config.LEXER_STREAM_BUFFER_SIZE];
+        this.view = CharBuffer.wrap(buffer);
+        this.matcher = new LongestMatcher(spec, view);
+    }
+
+    /**
+     * Create a new token stream over a byte channel.
+     * @param spec The compiled lex definition.
+     * @param channel The channel. It is closed by {@link TokenStream#close()}.
+     * @param charset The charset of the channel.
+     */
+    public TokenStream(final LexerSpec spec, final ReadableByteChannel channel, final Charset charset) {
+        this(spec, Channels.newReader(channel, charset.newDecoder(), -1));
+    }
+
+
+    /**
+     * Get the absolute position of the next token in the input.
+     * @return The position.
+     */
+    public long getPosition() {
+        return offset + begin;
+    }
+
+
+    /**
+     * Read the next token.
+     * @return The next token or null at the end of the input.
+     * @throws IOException If the input couldn't be read.
+     * @throws InvalidTokenException When an invalid token is found, a token is longer than the maximal buffer or a match exceeds the step budget.
+     */
+    public @Nullable Token nextToken() throws IOException, InvalidTokenException {
+        if(next != null) {
+            final Token token = next;
+            next = null;
+            return token;
+        }
+
+        while(begin == limit) {
+            if(eof) return null;
+            fill();
+        }
+
+        int length;
+        while((length = matcher.match(view, begin, limit, eof)) == LongestMatcher.NEED_INPUT) fill();
+
+        if(length == NfaMatcher.BUDGET_EXCEEDED) throw new InvalidTokenException(Config.LEXER_REGEX_ERROR_BUDGET + getPosition());
+        if(length == 0) throw new InvalidTokenException(Config.LEXER_ERROR_CURSOR + getPosition());
+
+        final Token token = spec.getTokenPool().get(matcher.getType(), view, begin, begin + length);
+        begin += length;
+        matcher.transition(matcher.getType());
+
+        return token;
+    }
+
+    @Override public boolean hasNext() {
+        if(next == null) {
+            try {
+                next = nextToken();
+            } catch(IOException e) {
+                throw new UncheckedIOException(e);
+            } catch(InvalidTokenException e) {
+                throw new UncheckedInvalidTokenException(e);
+            }
+        }
+
+        return next != null;
+    }
+
+    @Override public Token next() {
+        if(!hasNext()) throw new NoSuchElementException();
+
+        final Token token = next;
+        next = null;
+        return token;
+    }
+
+    /**
+     * Get a spliterator over the remaining tokens. I/O errors are thrown as {@link UncheckedIOException} and invalid tokens as {@link UncheckedInvalidTokenException}.
+     * @return The spliterator.
+     */
+    public Spliterator<Token> spliterator() {
+        return Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    /**
+     * Get a sequential stream over the remaining tokens, which closes the input when it is closed.
+     * @return The stream.
+     */
+    public Stream<Token> stream() {
+        return StreamSupport.stream(spliterator(), false).onClose(() -> {
+            try {
+                close();
+            } catch(IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Override public void close() throws IOException {
+        reader.close();
+    }
+
+
+    /**
+     * Slide the pending input to the start of the buffer and read more input behind it.
+     * The buffer grows, if the pending input fills it, up to {@link Config#LEXER_STREAM_MAX_BUFFER_SIZE}.
+     * @throws IOException If the input couldn't be read.
+     * @throws InvalidTokenException If the pending input doesn't fit into the maximal buffer.
+     */
+    private void fill() throws IOException, InvalidTokenException {
+        if(begin > 0) {
+            System.arraycopy(buffer, begin, buffer, 0, limit - begin);
+            offset += begin;
+            limit -= begin;
+            begin = 0;
+        }
+
+        if(limit == buffer.length) {
+            if(buffer.length >= Config.LEXER_STREAM_MAX_BUFFER_SIZE) throw new InvalidTokenException(Config.LEXER_STREAM_ERROR_TOKEN_TOO_LONG + getPosition());
+
+            buffer = Arrays.copyOf(buffer, Math.min(buffer.length * 2, Config.LEXER_STREAM_MAX_BUFFER_SIZE));
+            view = CharBuffer.wrap(buffer);
+            matcher.reset(view);
+        }
+
+        final int read = reader.read(buffer, limit, buffer.length - limit);
+
+        if(read < 0) eof = true;
+        else limit += read;
+    }
+}
@@ -0,0 +1,189 @@
+package parssist.lexer.automaton;
+
+import java.util.Arrays;
+
+
+/**
+ * Immutable set of UTF-16 chars, stored as sorted and disjoint inclusive ranges.
+ * Used as the label of the edges in {@link Nfa} and {@link Dfa}.
+ */
+public final class CharSet {
+    public static final CharSet EMPTY = new CharSet(new int[0]);
+    public static final CharSet ANY = new CharSet(new int[] { Character.MIN_VALUE, Character.MAX_VALUE });
+
+    private final int[] ranges; // [lo0, hi0, lo1, hi1, ...]
+
+
+    private CharSet(final int[] ranges) {
+        this.ranges = ranges;
+    }
+
+
+    /**
+     * Creates a set which contains exactly one char.
+     * @param c The char.
+     * @return The set.
+     */
+    public static CharSet of(final char c) {
+        return new CharSet(new int[] { c, c });
+    }
+
+    /**
+     * Creates a set which contains all chars from lo to hi (both inclusive).
+     * @param lo The lower bound.
+     * @param hi The upper bound.
+     * @return The set.
+     */
+    public static CharSet range(final char lo, final char hi) {
+        if(lo > hi) return EMPTY;
+        return new CharSet(new int[] { lo, hi });
+    }
+
+
+    @Override public boolean equals(final Object obj) {
+        if(obj instanceof CharSet) return Arrays.equals(ranges, ((CharSet) obj).ranges);
+
+        return false;
+    }
+
+    @Override public int hashCode() {
+        return Arrays.hashCode(ranges);
+    }
+
+    @Override public String toString() {
+        final StringBuilder sb = new StringBuilder("[");
+
+        for(int i = 0; i < ranges.length; i += 2) {
+            sb.append(String.format("\\u%04x", ranges[i]));
+            if(ranges[i + 1] != ranges[i]) sb.append('-').append(String.format("\\u%04x", ranges[i + 1]));
+        }
+
+        return sb.append(']').toString();
+    }
+
+
+    /**
+     * Get the number of ranges.
+     * @return The number of ranges.
+     */
+    public int size() {
+        return ranges.length / 2;
+    }
+
+    /**
+     * Get the lower bound of a range.
+     * @param i The index of the range.
+     * @return The lower bound.
+     */
+    public char lo(final int i) {
+        return (char) ranges[2 * i];
+    }
+
+    /**
+     * Get the upper bound of a range.
+     * @param i The index of the range.
+     * @return The upper bound (inclusive).
+     */
+    public char hi(final int i) {
+        return (char) ranges[2 * i + 1];
+    }
+
+    /**
+     * Check if the set is empty.
+     * @return True if the set doesn't contain any char, false otherwise.
+     */
+    public boolean isEmpty() {
+        return ranges.length == 0;
+    }
+
+    /**
+     * Check if the set contains exactly one char.
+     * @return True if the set is a singleton, false otherwise.
+     */
+    public boolean isSingleton() {
+        return ranges.length == 2 && ranges[0] == ranges[1];
+    }
+
+    /**
+     * Check if a char is in the set.
+     * @param c The char.
+     * @return True if the char is in the set, false otherwise.
+     */
+    public boolean contains(final char c) {
+        int lo = 0;
+        int hi = size() - 1;
+
+        while(lo <= hi) {
+            final int mid = (lo + hi) >>> 1;
+
+            if(c < ranges[2 * mid]) hi = mid - 1;
+            else if(c > ranges[2 * mid + 1]) lo = mid + 1;
+            else return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Union of this and another set.
+     * @param other The other set.
+     * @return The union.
+     */
+    public CharSet union(final CharSet other) {
+        if(other.isEmpty()) return this;
+        if(isEmpty()) return other;
+
+        final int[] merged = new int[ranges.length + other.ranges.length];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+
+        while(i < ranges.length || j < other.ranges.length) {
+            final int lo;
+            final int hi;
+
+            if(j >= other.ranges.length || (i < ranges.length && ranges[i] <= other.ranges[j])) {
+                lo = ranges[i];
+                hi = ranges[i + 1];
+                i += 2;
+            } else {
+                lo = other.ranges[j];
+                hi = other.ranges[j + 1];
+                j += 2;
+            }
+
+            if(n > 0 && lo <= merged[n - 1] + 1) merged[n - 1] = Math.max(merged[n - 1], hi);
+            else {
+                merged[n++] = lo;
+                merged[n++] = hi;
+            }
+        }
+
+        return new CharSet(Arrays.copyOf(merged, n));
+    }
+
+    /**
+     * Complement of this set within all UTF-16 chars.
+     * @return The complement.
+     */
+    public CharSet negate() {
+        final int[] result = new int[ranges.length + 2];
+        int n = 0;
+        int next = Character.MIN_VALUE;
+
+        for(int i = 0; i < ranges.length; i += 2) {
+            if(ranges[i] > next) {
+                result[n++] = next;
+                result[n++] = ranges[i] - 1;
+            }
+            next = ranges[i + 1] + 1;
+        }
+
+        if(next <= Character.MAX_VALUE) {
+            result[n++] = next;
+            result[n++] = Character.MAX_VALUE;
+        }
+
+        return new CharSet(Arrays.copyOf(result, n));
+    }
+}
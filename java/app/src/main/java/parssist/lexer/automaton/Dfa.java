@@ -0,0 +1,310 @@
+package parssist.lexer.automaton;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import parssist.Config;
+import parssist.lexer.exception.UnsupportedRegexException;
+
+
+/**
+ * Minimized DFA of several token regexes.
+ * The chars are grouped into classes (chars which are never distinguished by any edge), so the transition table is a flat int array with one row per state.
+ * Every state knows the token with the highest priority (lowest token number) among the accepted tokens, so the lexer can do a priority-aware longest match in a single pass.
+ */
+public final class Dfa {
+    public static final int DEAD = -1;
+
+    private final int[] classStarts; // first char of every class
+    private final int[] asciiClasses;
+    private final int classCount;
+    private final int[] transitions; // state * classCount + class
+    private final int[] accepts;
+    private final int start;
+
+
+    private Dfa(final int[] classStarts, final int[] transitions, final int[] accepts, final int start) {
+        this.classStarts = classStarts;
+        this.classCount = classStarts.length;
+        this.transitions = transitions;
+        this.accepts = accepts;
+        this.start = start;
+        this.asciiClasses = new int[128];
+
+        for(int c = 0; c < asciiClasses.length; c++) asciiClasses[c] = searchClass(classStarts, (char) c);
+    }
+
+
+    /**
+     * Builds the minimized DFA of a NFA via subset construction and partition refinement.
+     * @param nfa The NFA.
+     * @return The DFA.
+     * @throws UnsupportedRegexException If the automaton gets bigger than {@link Config#LEXER_DFA_MAX_STATES}.
+     */
+    public static Dfa build(final Nfa nfa) throws UnsupportedRegexException {
+        final int[] classStarts = classStarts(nfa);
+        final int classCount = classStarts.length;
+
+        final Map<Key, Integer> ids = new HashMap<>();
+        final List<Key> sets = new ArrayList<>();
+        final boolean[] member = new boolean[nfa.size()];
+        final int[] members = new int[nfa.size()];
+        final int[][] moves = new int[classCount][nfa.size()];
+        final int[] moveSizes = new int[classCount];
+
+        int size = nfa.closure(0, member, members, 0);
+        final Key initial = Key.of(members, size, member);
+        ids.put(initial, 0);
+        sets.add(initial);
+
+        int[] transitions = new int[classCount * 16];
+
+        for(int d = 0; d < sets.size(); d++) {
+            Arrays.fill(moveSizes, 0);
+
+            for(final int s : sets.get(d).values) {
+                for(int e = nfa.edgeStart(s); e < nfa.edgeEnd(s); e++) {
+                    final CharSet set = nfa.edgeSet(e);
+
+                    for(int r = 0; r < set.size(); r++) {
+                        final int last = searchClass(classStarts, set.hi(r));
+
+                        for(int c = searchClass(classStarts, set.lo(r)); c <= last; c++) moves[c][moveSizes[c]++] = nfa.edgeTarget(e);
+                    }
+                }
+            }
+
+            if(transitions.length < (d + 1) * classCount) transitions = Arrays.copyOf(transitions, transitions.length * 2);
+
+            for(int c = 0; c < classCount; c++) {
+                if(moveSizes[c] == 0) {
+                    transitions[d * classCount + c] = DEAD;
+                    continue;
+                }
+
+                size = 0;
+                for(int i = 0; i < moveSizes[c]; i++) size = nfa.closure(moves[c][i], member, members, size);
+
+                final Key target = Key.of(members, size, member);
+                Integer id = ids.get(target);
+
+                if(id == null) {
+                    if(sets.size() >= Config.LEXER_DFA_MAX_STATES) throw new UnsupportedRegexException(Config.LEXER_REGEX_ERROR_TOO_BIG);
+
+                    id = sets.size();
+                    ids.put(target, id);
+                    sets.add(target);
+                }
+
+                transitions[d * classCount + c] = id;
+            }
+        }
+
+        final int[] accepts = new int[sets.size()];
+        for(int d = 0; d < sets.size(); d++) {
+            accepts[d] = Nfa.NO_TOKEN;
+
+            for(final int s : sets.get(d).values) {
+                final int token = nfa.accept(s);
+                if(token != Nfa.NO_TOKEN && (accepts[d] == Nfa.NO_TOKEN || token < accepts[d])) accepts[d] = token;
+            }
+        }
+
+        return minimize(classStarts, Arrays.copyOf(transitions, sets.size() * classCount), accepts);
+    }
+
+
+    /**
+     * Get the start state.
+     * @return The start state.
+     */
+    public int start() {
+        return start;
+    }
+
+    /**
+     * Get the next state.
+     * @param state The current state.
+     * @param c The next char.
+     * @return The next state or {@link Dfa#DEAD}.
+     */
+    public int step(final int state, final char c) {
+        return transitions[state * classCount + classOf(c)];
+    }
+
+    /**
+     * Get the token which is accepted in a state.
+     * @param state The state.
+     * @return The token number or {@link Nfa#NO_TOKEN}.
+     */
+    public int accept(final int state) {
+        return accepts[state];
+    }
+
+    /**
+     * Get the number of states.
+     * @return The number of states.
+     */
+    public int size() {
+        return accepts.length;
+    }
+
+    /**
+     * Get the class of a char.
+     * @param c The char.
+     * @return The class.
+     */
+    public int classOf(final char c) {
+        if(c < 128) return asciiClasses[c];
+
+        return searchClass(classStarts, c);
+    }
+
+
+    /**
+     * Partition refinement (Moore): states are equivalent, if they accept the same token and all their transitions lead into equivalent states.
+     * @param classStarts The class boundaries.
+     * @param transitions The transitions of the unminimized DFA.
+     * @param accepts The accepted tokens of the unminimized DFA.
+     * @return The minimized DFA.
+     */
+    private static Dfa minimize(final int[] classStarts, final int[] transitions, final int[] accepts) {
+        final int classCount = classStarts.length;
+        final int n = accepts.length;
+        int[] blocks = new int[n];
+        int blockCount = 0;
+
+        final Map<Integer, Integer> initial = new HashMap<>();
+        for(int s = 0; s < n; s++) {
+            Integer block = initial.get(accepts[s]);
+            if(block == null) {
+                block = blockCount++;
+                initial.put(accepts[s], block);
+            }
+            blocks[s] = block;
+        }
+
+        while(true) {
+            final Map<Key, Integer> signatures = new HashMap<>();
+            final int[] next = new int[n];
+            final int[] signature = new int[classCount + 1];
+
+            for(int s = 0; s < n; s++) {
+                signature[0] = blocks[s];
+                for(int c = 0; c < classCount; c++) {
+                    final int target = transitions[s * classCount + c];
+                    signature[c + 1] = target == DEAD ? DEAD : blocks[target];
+                }
+
+                final Key key = new Key(signature.clone());
+                Integer block = signatures.get(key);
+                if(block == null) {
+                    block = signatures.size();
+                    signatures.put(key, block);
+                }
+                next[s] = block;
+            }
+
+            final boolean stable = signatures.size() == blockCount;
+            blocks = next;
+            blockCount = signatures.size();
+
+            if(stable) break;
+        }
+
+        final int[] minimizedTransitions = new int[blockCount * classCount];
+        final int[] minimizedAccepts = new int[blockCount];
+
+        for(int s = 0; s < n; s++) {
+            final int block = blocks[s];
+            minimizedAccepts[block] = accepts[s];
+
+            for(int c = 0; c < classCount; c++) {
+                final int target = transitions[s * classCount + c];
+                minimizedTransitions[block * classCount + c] = target == DEAD ? DEAD : blocks[target];
+            }
+        }
+
+        return new Dfa(classStarts, minimizedTransitions, minimizedAccepts, blocks[0]);
+    }
+
+    /**
+     * Splits the chars into classes, so that every edge label is a union of whole classes.
+     * @param nfa The NFA.
+     * @return The first char of every class in ascending order.
+     */
+    private static int[] classStarts(final Nfa nfa) {
+        final TreeSet<Integer> starts = new TreeSet<>();
+        starts.add((int) Character.MIN_VALUE);
+
+        for(final CharSet set : nfa.getEdgeSets()) {
+            for(int r = 0; r < set.size(); r++) {
+                starts.add((int) set.lo(r));
+                if(set.hi(r) < Character.MAX_VALUE) starts.add(set.hi(r) + 1);
+            }
+        }
+
+        return starts.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int searchClass(final int[] classStarts, final char c) {
+        int lo = 0;
+        int hi = classStarts.length - 1;
+
+        while(lo < hi) {
+            final int mid = (lo + hi + 1) >>> 1;
+
+            if(classStarts[mid] <= c) lo = mid;
+            else hi = mid - 1;
+        }
+
+        return lo;
+    }
+
+
+    /**
+     * A int array (a sorted set of states or a signature), which is used as a hash key.
+     */
+    private static final class Key {
+        private final int[] values;
+        private final int hash;
+
+
+        private Key(final int[] values) {
+            this.values = values;
+            this.hash = Arrays.hashCode(values);
+        }
+
+
+        /**
+         * Creates a sorted set from the members and resets their membership flags.
+         * @param members The members.
+         * @param size The number of members.
+         * @param member The membership flags.
+         * @return The set.
+         */
+        private static Key of(final int[] members, final int size, final boolean[] member) {
+            final int[] states = Arrays.copyOf(members, size);
+            Arrays.sort(states);
+
+            for(final int s : states) member[s] = false;
+
+            return new Key(states);
+        }
+
+
+        @Override public boolean equals(final Object obj) {
+            if(obj instanceof Key) return Arrays.equals(values, ((Key) obj).values);
+
+            return false;
+        }
+
+        @Override public int hashCode() {
+            return hash;
+        }
+    }
+}
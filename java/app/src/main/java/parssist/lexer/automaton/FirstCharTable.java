@@ -0,0 +1,121 @@
+package parssist.lexer.automaton;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+import parssist.lexer.exception.UnsupportedRegexException;
+
+
+/**
+ * Dispatch table from the first char of a token to the token regexes, which can start with it.
+ * The set of possible first chars of every regex is computed from its syntax tree. The chars are grouped into classes (like in {@link Dfa}),
+ * every class knows its sorted candidates and ASCII chars are looked up directly in an array.
+ * A regex, which matches the empty string or isn't supported by {@link RegexParser}, is a candidate for every char.
+ */
+public final class FirstCharTable {
+    private final int[] classStarts; // first char of every class
+    private final int[][] classCandidates;
+    private final int[][] asciiCandidates;
+    private final int[] endCandidates;
+
+
+    private FirstCharTable(final int[] classStarts, final int[][] classCandidates, final int[] endCandidates) {
+        this.classStarts = classStarts;
+        this.classCandidates = classCandidates;
+        this.endCandidates = endCandidates;
+        this.asciiCandidates = new int[128][];
+
+        for(int c = 0; c < asciiCandidates.length; c++) asciiCandidates[c] = classCandidates[searchClass(classStarts, (char) c)];
+    }
+
+
+    /**
+     * Builds the table.
+     * @param regexes The regexes. Their index is the number in the candidate arrays.
+     * @return The table.
+     */
+    public static FirstCharTable build(final List<String> regexes) {
+        final CharSet[] firsts = new CharSet[regexes.size()];
+        final TreeSet<Integer> starts = new TreeSet<>();
+        final List<Integer> endCandidates = new ArrayList<>();
+
+        starts.add((int) Character.MIN_VALUE);
+
+        for(int i = 0; i < firsts.length; i++) {
+            try {
+                final RegexNode node = RegexParser.parse(regexes.get(i));
+                firsts[i] = node.isNullable() ? null : node.firstChars();
+            } catch(UnsupportedRegexException e) {
+                firsts[i] = null;
+            }
+
+            if(firsts[i] == null) {
+                firsts[i] = CharSet.ANY;
+                endCandidates.add(i);
+            }
+
+            for(int r = 0; r < firsts[i].size(); r++) {
+                starts.add((int) firsts[i].lo(r));
+                if(firsts[i].hi(r) < Character.MAX_VALUE) starts.add(firsts[i].hi(r) + 1);
+            }
+        }
+
+        final int[] classStarts = starts.stream().mapToInt(Integer::intValue).toArray();
+        final int[][] classCandidates = new int[classStarts.length][];
+        final int[] candidates = new int[firsts.length];
+
+        for(int c = 0; c < classStarts.length; c++) {
+            int n = 0;
+
+            for(int i = 0; i < firsts.length; i++) {
+                if(firsts[i].contains((char) classStarts[c])) candidates[n++] = i;
+            }
+
+            classCandidates[c] = c > 0 && Arrays.equals(classCandidates[c - 1], 0, classCandidates[c - 1].length, candidates, 0, n) ? classCandidates[c - 1] : Arrays.copyOf(candidates, n);
+        }
+
+        return new FirstCharTable(classStarts, classCandidates, endCandidates.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+
+    /**
+     * Get the regexes, which can match at a position.
+     * @param input The input.
+     * @param position The position in the input.
+     * @param limit The end of the input (exclusive).
+     * @return The sorted numbers of the regexes. The array must not be modified.
+     */
+    public int[] candidates(final CharSequence input, final int position, final int limit) {
+        if(position >= limit) return endCandidates;
+
+        return candidates(input.charAt(position));
+    }
+
+    /**
+     * Get the regexes, which can match a token starting with a char.
+     * @param c The first char.
+     * @return The sorted numbers of the regexes. The array must not be modified.
+     */
+    public int[] candidates(final char c) {
+        if(c < 128) return asciiCandidates[c];
+
+        return classCandidates[searchClass(classStarts, c)];
+    }
+
+
+    private static int searchClass(final int[] classStarts, final char c) {
+        int lo = 0;
+        int hi = classStarts.length - 1;
+
+        while(lo < hi) {
+            final int mid = (lo + hi + 1) >>> 1;
+
+            if(classStarts[mid] <= c) lo = mid;
+            else hi = mid - 1;
+        }
+
+        return lo;
+    }
+}
@@ -0,0 +1,182 @@
+package parssist.lexer.automaton;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+
+/**
+ * Compiled trie of the literal token types (token regexes without any operator, e.g. keywords or punctuation).
+ * The edges of every node are stored sorted in flat arrays, so a match is one binary search per char and needs no regex engine.
+ * Every node knows the token with the highest priority (lowest token number), whose literal ends in this node.
+ */
+public final class LiteralTrie {
+    public static final int NONE = -1;
+
+    private final int[] edgeStart; // edges of node n: edgeStart[n] until edgeStart[n + 1]
+    private final char[] labels;
+    private final int[] targets;
+    private final int[] tokens;
+    private final int[] depths;
+
+
+    private LiteralTrie(final int[] edgeStart, final char[] labels, final int[] targets, final int[] tokens, final int[] depths) {
+        this.edgeStart = edgeStart;
+        this.labels = labels;
+        this.targets = targets;
+        this.tokens = tokens;
+        this.depths = depths;
+    }
+
+
+    /**
+     * Builds the trie.
+     * @param literals The literal of every token number or null, if the token isn't a literal.
+     * @return The trie.
+     */
+    public static LiteralTrie build(final String[] literals) {
+        final List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        final List<Integer> tokens = new ArrayList<>();
+        final List<Integer> depths = new ArrayList<>();
+
+        children.add(new TreeMap<>());
+        tokens.add(NONE);
+        depths.add(0);
+
+        for(int token = 0; token < literals.length; token++) {
+            if(literals[token] == null || literals[token].isEmpty()) continue;
+
+            int node = 0;
+            for(int i = 0; i < literals[token].length(); i++) {
+                final char c = literals[token].charAt(i);
+                Integer next = children.get(node).get(c);
+
+                if(next == null) {
+                    next = children.size();
+                    children.get(node).put(c, next);
+                    children.add(new TreeMap<>());
+                    tokens.add(NONE);
+                    depths.add(i + 1);
+                }
+                node = next;
+            }
+
+            if(tokens.get(node) == NONE) tokens.set(node, token);
+        }
+
+        final int n = children.size();
+        final int[] edgeStart = new int[n + 1];
+        final char[] labels = new char[n - 1];
+        final int[] targets = new int[n - 1];
+        int e = 0;
+
+        for(int node = 0; node < n; node++) {
+            edgeStart[node] = e;
+
+            for(final Map.Entry<Character, Integer> edge : children.get(node).entrySet()) {
+                labels[e] = edge.getKey();
+                targets[e++] = edge.getValue();
+            }
+        }
+        edgeStart[n] = e;
+
+        return new LiteralTrie(edgeStart, labels, targets, tokens.stream().mapToInt(Integer::intValue).toArray(), depths.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+
+    /**
+     * Check if the trie doesn't contain any literal.
+     * @return True if it's empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return edgeStart[1] == 0;
+    }
+
+    /**
+     * Get the token of a node.
+     * @param node The node.
+     * @return The token number.
+     */
+    public int token(final int node) {
+        return tokens[node];
+    }
+
+    /**
+     * Get the length of the literal of a node.
+     * @param node The node.
+     * @return The length.
+     */
+    public int length(final int node) {
+        return depths[node];
+    }
+
+    /**
+     * Find the longest literal at a position.
+     * @param input The input.
+     * @param position The position in the input.
+     * @param limit The end of the input (exclusive).
+     * @return The node of the literal or {@link LiteralTrie#NONE}.
+     */
+    public int longest(final CharSequence input, final int position, final int limit) {
+        int node = 0;
+        int found = NONE;
+
+        for(int i = position; i < limit && (node = step(node, input.charAt(i))) != NONE; i++) {
+            if(tokens[node] != NONE) found = node;
+        }
+
+        return found;
+    }
+
+    /**
+     * Find the literal with the highest priority (lowest token number) at a position.
+     * @param input The input.
+     * @param position The position in the input.
+     * @param limit The end of the input (exclusive).
+     * @return The node of the literal or {@link LiteralTrie#NONE}.
+     */
+    public int first(final CharSequence input, final int position, final int limit) {
+        int node = 0;
+        int found = NONE;
+
+        for(int i = position; i < limit && (node = step(node, input.charAt(i))) != NONE; i++) {
+            if(tokens[node] != NONE && (found == NONE || tokens[node] < tokens[found])) found = node;
+        }
+
+        return found;
+    }
+
+    /**
+     * Check if more input after the limit could extend the longest literal at a position.
+     * @param input The input.
+     * @param position The position in the input.
+     * @param limit The end of the available input (exclusive).
+     * @return True if the walk reaches the limit in a node with children, false otherwise.
+     */
+    public boolean hitEnd(final CharSequence input, final int position, final int limit) {
+        int node = 0;
+
+        for(int i = position; i < limit; i++) {
+            if((node = step(node, input.charAt(i))) == NONE) return false;
+        }
+
+        return edgeStart[node + 1] > edgeStart[node];
+    }
+
+
+    private int step(final int node, final char c) {
+        int lo = edgeStart[node];
+        int hi = edgeStart[node + 1] - 1;
+
+        while(lo <= hi) {
+            final int mid = (lo + hi) >>> 1;
+
+            if(labels[mid] < c) lo = mid + 1;
+            else if(labels[mid] > c) hi = mid - 1;
+            else return targets[mid];
+        }
+
+        return NONE;
+    }
+}
@@ -0,0 +1,250 @@
+package parssist.lexer.automaton;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import parssist.Config;
+import parssist.lexer.exception.UnsupportedRegexException;
+
+
+/**
+ * Thompson NFA of several token regexes.
+ * State 0 is the start state, which has an epsilon edge to the fragment of every token.
+ * The edges are stored in compressed rows (start index per state), so the automaton can be traversed without any allocation.
+ */
+public final class Nfa {
+    public static final int NO_TOKEN = -1;
+
+    private final int[] epsilonStart;
+    private final int[] epsilonTargets;
+    private final int[] edgeStart;
+    private final CharSet[] edgeSets;
+    private final int[] edgeTargets;
+    private final int[] accepts;
+
+
+    private Nfa(final Builder builder) {
+        final int n = builder.accepts.size();
+
+        this.epsilonStart = new int[n + 1];
+        this.edgeStart = new int[n + 1];
+        this.accepts = new int[n];
+
+        int epsilons = 0;
+        int edges = 0;
+        for(int s = 0; s < n; s++) {
+            epsilons += builder.epsilons.get(s).size();
+            edges += builder.edgeTargets.get(s).size();
+        }
+
+        this.epsilonTargets = new int[epsilons];
+        this.edgeSets = new CharSet[edges];
+        this.edgeTargets = new int[edges];
+
+        int e = 0;
+        int c = 0;
+        for(int s = 0; s < n; s++) {
+            epsilonStart[s] = e;
+            for(final int target : builder.epsilons.get(s)) epsilonTargets[e++] = target;
+
+            edgeStart[s] = c;
+            for(int i = 0; i < builder.edgeTargets.get(s).size(); i++) {
+                edgeSets[c] = builder.edgeSets.get(s).get(i);
+                edgeTargets[c++] = builder.edgeTargets.get(s).get(i);
+            }
+
+            accepts[s] = builder.accepts.get(s);
+        }
+        epsilonStart[n] = e;
+        edgeStart[n] = c;
+    }
+
+
+    /**
+     * Compiles the syntax trees of the tokens into one NFA.
+     * The index of a tree in the list is the token number, which is reported by the accepting states.
+     * @param tokens The syntax trees.
+     * @return The NFA.
+     * @throws UnsupportedRegexException If the automaton gets bigger than {@link Config#LEXER_NFA_MAX_STATES}.
+     */
+    public static Nfa compile(final List<RegexNode> tokens) throws UnsupportedRegexException {
+        final Builder builder = new Builder();
+        final int start = builder.state();
+
+        for(int i = 0; i < tokens.size(); i++) {
+            final int from = builder.state();
+            builder.epsilon(start, from);
+
+            final int end = builder.fragment(tokens.get(i), from);
+            builder.accept(end, i);
+        }
+
+        return new Nfa(builder);
+    }
+
+
+    /**
+     * Get the number of states.
+     * @return The number of states.
+     */
+    public int size() {
+        return accepts.length;
+    }
+
+    /**
+     * Get the token which is accepted in a state.
+     * @param state The state.
+     * @return The token number or {@link Nfa#NO_TOKEN}.
+     */
+    public int accept(final int state) {
+        return accepts[state];
+    }
+
+    /**
+     * Get all sets, which label a char edge of the automaton.
+     * @return The edge labels.
+     */
+    public CharSet[] getEdgeSets() {
+        return edgeSets;
+    }
+
+    public int edgeStart(final int state) {
+        return edgeStart[state];
+    }
+
+    public int edgeEnd(final int state) {
+        return edgeStart[state + 1];
+    }
+
+    public CharSet edgeSet(final int edge) {
+        return edgeSets[edge];
+    }
+
+    public int edgeTarget(final int edge) {
+        return edgeTargets[edge];
+    }
+
+    /**
+     * Adds the epsilon closure of a state to a state set.
+     * @param state The state.
+     * @param set The membership flags of the set.
+     * @param members The members of the set.
+     * @param size The number of members.
+     * @return The new number of members.
+     */
+    public int closure(final int state, final boolean[] set, final int[] members, int size) {
+        if(set[state]) return size;
+
+        set[state] = true;
+        members[size++] = state;
+
+        for(int next = size - 1; next < size; next++) {
+            final int current = members[next];
+
+            for(int i = epsilonStart[current]; i < epsilonStart[current + 1]; i++) {
+                final int target = epsilonTargets[i];
+
+                if(!set[target]) {
+                    set[target] = true;
+                    members[size++] = target;
+                }
+            }
+        }
+
+        return size;
+    }
+
+
+    /**
+     * Builder of the automaton, which translates syntax trees via the Thompson construction.
+     */
+    private static final class Builder {
+        private final List<List<Integer>> epsilons = new ArrayList<>();
+        private final List<List<CharSet>> edgeSets = new ArrayList<>();
+        private final List<List<Integer>> edgeTargets = new ArrayList<>();
+        private final List<Integer> accepts = new ArrayList<>();
+
+
+        private int state() throws UnsupportedRegexException {
+            if(accepts.size() >= Config.LEXER_NFA_MAX_STATES) throw new UnsupportedRegexException(Config.LEXER_REGEX_ERROR_TOO_BIG);
+
+            epsilons.add(new ArrayList<>());
+            edgeSets.add(new ArrayList<>());
+            edgeTargets.add(new ArrayList<>());
+            accepts.add(NO_TOKEN);
+
+            return accepts.size() - 1;
+        }
+
+        private void epsilon(final int from, final int to) {
+            epsilons.get(from).add(to);
+        }
+
+        private void edge(final int from, final CharSet set, final int to) {
+            edgeSets.get(from).add(set);
+            edgeTargets.get(from).add(to);
+        }
+
+        private void accept(final int state, final int token) {
+            if(accepts.get(state) == NO_TOKEN || accepts.get(state) > token) accepts.set(state, token);
+        }
+
+        /**
+         * Builds the fragment of a node.
+         * @param node The node.
+         * @param from The state the fragment starts in.
+         * @return The state the fragment ends in.
+         * @throws UnsupportedRegexException If the automaton gets too big.
+         */
+        private int fragment(final RegexNode node, final int from) throws UnsupportedRegexException {
+            switch(node.getKind()) {
+                case EMPTY:
+                    return from;
+                case CHARSET: {
+                    final int to = state();
+                    if(!node.getSet().isEmpty()) edge(from, node.getSet(), to);
+                    return to;
+                }
+                case CONCAT: {
+                    int current = from;
+                    for(final RegexNode child : node.getChildren()) current = fragment(child, current);
+                    return current;
+                }
+                case ALTERNATION: {
+                    final int to = state();
+                    for(final RegexNode child : node.getChildren()) {
+                        final int branch = state();
+                        epsilon(from, branch);
+                        epsilon(fragment(child, branch), to);
+                    }
+                    return to;
+                }
+                case REPEAT: {
+                    final RegexNode child = node.getChildren().get(0);
+                    int current = from;
+
+                    for(int i = 0; i < node.getMin(); i++) current = fragment(child, current);
+
+                    if(node.getMax() == RegexNode.UNBOUNDED) {
+                        final int loop = state();
+                        final int to = state();
+                        epsilon(current, loop);
+                        epsilon(fragment(child, loop), loop);
+                        epsilon(loop, to);
+                        return to;
+                    }
+
+                    final int to = state();
+                    for(int i = node.getMin(); i < node.getMax(); i++) {
+                        epsilon(current, to);
+                        current = fragment(child, current);
+                    }
+                    epsilon(current, to);
+                    return to;
+                }
+                default:
+                    throw new UnsupportedRegexException(node.getKind().toString());
+            }
+        }
+    }
+}
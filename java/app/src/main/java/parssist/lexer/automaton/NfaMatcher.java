@@ -0,0 +1,128 @@
+package parssist.lexer.automaton;
+
+
+/**
+ * Simulates a {@link Nfa} on the set of active states (Thompson), so a match takes at most (states * chars) steps and never backtracks.
+ * It's used, if the combined DFA of a spec gets too big. A matcher isn't thread safe, but any number of matchers can share the same NFA.
+ */
+public final class NfaMatcher {
+    public static final int BUDGET_EXCEEDED = -1;
+
+    private final Nfa nfa;
+    private boolean[] current;
+    private boolean[] next;
+    private int[] currentMembers;
+    private int[] nextMembers;
+
+    private int token = Nfa.NO_TOKEN;
+    private int scanEnd;
+    private boolean hitEnd;
+
+
+    /**
+     * Create a new matcher.
+     * @param nfa The NFA.
+     */
+    public NfaMatcher(final Nfa nfa) {
+        this.nfa = nfa;
+        this.current = new boolean[nfa.size()];
+        this.next = new boolean[nfa.size()];
+        this.currentMembers = new int[nfa.size()];
+        this.nextMembers = new int[nfa.size()];
+    }
+
+
+    /**
+     * Find the longest match at a position (the token with the higher priority wins equally long matches).
+     * @param input The input.
+     * @param position The position in the input.
+     * @param limit The end of the input (exclusive).
+     * @param budget The maximal number of chars, which the match may read, or 0 for no limit (the same unit as the step budget on a {@link Dfa}).
+     * @return The length of the match, 0 if there is none or {@link NfaMatcher#BUDGET_EXCEEDED}.
+     */
+    public int match(final CharSequence input, final int position, final int limit, final int budget) {
+        int size = nfa.closure(0, current, currentMembers, 0);
+        int length = 0;
+        int i = position;
+
+        token = Nfa.NO_TOKEN;
+
+        for(; i < limit && size > 0; i++) {
+            final char c = input.charAt(i);
+            int nextSize = 0;
+            int accept = Nfa.NO_TOKEN;
+
+            for(int m = 0; m < size; m++) {
+                final int s = currentMembers[m];
+                current[s] = false;
+
+                for(int e = nfa.edgeStart(s); e < nfa.edgeEnd(s); e++) {
+                    if(nfa.edgeSet(e).contains(c)) nextSize = nfa.closure(nfa.edgeTarget(e), next, nextMembers, nextSize);
+                }
+            }
+
+            if(budget > 0 && nextSize > 0 && i - position >= budget) {
+                clear(next, nextMembers, nextSize);
+                return BUDGET_EXCEEDED;
+            }
+
+            for(int m = 0; m < nextSize; m++) {
+                final int a = nfa.accept(nextMembers[m]);
+                if(a != Nfa.NO_TOKEN && (accept == Nfa.NO_TOKEN || a < accept)) accept = a;
+            }
+
+            if(accept != Nfa.NO_TOKEN) {
+                token = accept;
+                length = i + 1 - position;
+            }
+
+            swap();
+            size = nextSize;
+        }
+
+        hitEnd = i == limit && size > 0;
+        scanEnd = hitEnd ? limit + 1 : i; // the set died while reading the char before i
+        clear(current, currentMembers, size);
+
+        return length;
+    }
+
+    /**
+     * Get the token of the last match.
+     * @return The token number or {@link Nfa#NO_TOKEN}.
+     */
+    public int getToken() {
+        return token;
+    }
+
+    /**
+     * Get the end of the chars, which were read by the last match.
+     * @return The exclusive end of the read chars or the limit plus one, if the limit was reached.
+     */
+    public int getScanEnd() {
+        return scanEnd;
+    }
+
+    /**
+     * Check if the last match reached the limit with active states, so more input could change it.
+     * @return True if more input could change the match, false otherwise.
+     */
+    public boolean hitEnd() {
+        return hitEnd;
+    }
+
+
+    private void swap() {
+        final boolean[] flags = current;
+        final int[] members = currentMembers;
+
+        current = next;
+        currentMembers = nextMembers;
+        next = flags;
+        nextMembers = members;
+    }
+
+    private static void clear(final boolean[] flags, final int[] members, final int size) {
+        for(int m = 0; m < size; m++) flags[members[m]] = false;
+    }
+}
@@ -0,0 +1,159 @@
+package parssist.lexer.automaton;
+
+import java.util.List;
+
+
+/**
+ * Node of the abstract syntax tree of a regular expression (see {@link RegexParser}).
+ * Only the constructs of a real regular language are representable (no anchors, lookarounds or backreferences).
+ */
+public final class RegexNode {
+    public static final int UNBOUNDED = -1;
+
+    /**
+     * Kind of a node.
+     */
+    public static enum Kind {
+        EMPTY,
+        CHARSET,
+        CONCAT,
+        ALTERNATION,
+        REPEAT
+    }
+
+
+    private final Kind kind;
+    private final CharSet set;
+    private final List<RegexNode> children;
+    private final int min;
+    private final int max;
+
+
+    private RegexNode(final Kind kind, final CharSet set, final List<RegexNode> children, final int min, final int max) {
+        this.kind = kind;
+        this.set = set;
+        this.children = children;
+        this.min = min;
+        this.max = max;
+    }
+
+
+    /**
+     * Creates a node which matches the empty string.
+     * @return The node.
+     */
+    public static RegexNode empty() {
+        return new RegexNode(Kind.EMPTY, null, List.of(), 0, 0);
+    }
+
+    /**
+     * Creates a node which matches exactly one char of the set.
+     * @param set The set of chars.
+     * @return The node.
+     */
+    public static RegexNode charset(final CharSet set) {
+        return new RegexNode(Kind.CHARSET, set, List.of(), 0, 0);
+    }
+
+    /**
+     * Creates a node which matches the children one after another.
+     * @param children The children.
+     * @return The node.
+     */
+    public static RegexNode concat(final List<RegexNode> children) {
+        if(children.isEmpty()) return empty();
+        if(children.size() == 1) return children.get(0);
+
+        return new RegexNode(Kind.CONCAT, null, List.copyOf(children), 0, 0);
+    }
+
+    /**
+     * Creates a node which matches one of the children.
+     * @param children The children.
+     * @return The node.
+     */
+    public static RegexNode alternation(final List<RegexNode> children) {
+        if(children.size() == 1) return children.get(0);
+
+        return new RegexNode(Kind.ALTERNATION, null, List.copyOf(children), 0, 0);
+    }
+
+    /**
+     * Creates a node which matches the child min to max times.
+     * @param child The repeated child.
+     * @param min The minimal number of repetitions.
+     * @param max The maximal number of repetitions or {@link RegexNode#UNBOUNDED}.
+     * @return The node.
+     */
+    public static RegexNode repeat(final RegexNode child, final int min, final int max) {
+        return new RegexNode(Kind.REPEAT, null, List.of(child), min, max);
+    }
+
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public CharSet getSet() {
+        return set;
+    }
+
+    public List<RegexNode> getChildren() {
+        return children;
+    }
+
+    public int getMin() {
+        return min;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    /**
+     * Computes the chars, a non-empty match of this node can start with.
+     * @return The first chars.
+     */
+    public CharSet firstChars() {
+        switch(kind) {
+            case CHARSET:
+                return set;
+            case CONCAT: {
+                CharSet first = CharSet.EMPTY;
+                for(final RegexNode child : children) {
+                    first = first.union(child.firstChars());
+                    if(!child.isNullable()) break;
+                }
+                return first;
+            }
+            case ALTERNATION: {
+                CharSet first = CharSet.EMPTY;
+                for(final RegexNode child : children) first = first.union(child.firstChars());
+                return first;
+            }
+            case REPEAT:
+                return max == 0 ? CharSet.EMPTY : children.get(0).firstChars();
+            default:
+                return CharSet.EMPTY;
+        }
+    }
+
+    /**
+     * Check if this node matches the empty string.
+     * @return True if it's nullable, false otherwise.
+     */
+    public boolean isNullable() {
+        switch(kind) {
+            case CHARSET:
+                return false;
+            case CONCAT:
+                return children.stream().allMatch(RegexNode::isNullable);
+            case ALTERNATION:
+                return children.stream().anyMatch(RegexNode::isNullable);
+            case REPEAT:
+                return min == 0 || children.get(0).isNullable();
+            default:
+                return true;
+        }
+    }
+}
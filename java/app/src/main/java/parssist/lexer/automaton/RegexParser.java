@@ -0,0 +1,291 @@
+package parssist.lexer.automaton;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import parssist.Config;
+import parssist.lexer.exception.UnsupportedRegexException;
+
+
+/**
+ * Handcoded parser for the regular subset of the {@link java.util.regex.Pattern} syntax, which is used in the token definitions of a lex file.
+ * Supported are literals, escapes, the predefined classes \d \D \s \S \w \W, the dot, char classes with ranges and negation,
+ * (non-capturing) groups, alternations and the greedy quantifiers * + ? {n} {n,} {n,m}.
+ * Everything else (anchors, lookarounds, backreferences, lazy or possessive quantifiers, ...) throws an {@link UnsupportedRegexException}.
+ */
+public final class RegexParser {
+    private static final CharSet DIGIT = CharSet.range('0', '9');
+    private static final CharSet SPACE = CharSet.of(' ').union(CharSet.range('\t', '\r')); // [ \t\n\x0B\f\r]
+    private static final CharSet WORD = CharSet.range('a', 'z').union(CharSet.range('A', 'Z')).union(CharSet.of('_')).union(DIGIT);
+    private static final CharSet DOT = CharSet.of('\n').union(CharSet.of('\r')).union(CharSet.of('\u0085')).union(CharSet.range('\u2028', '\u2029')).negate();
+
+    private final String regex;
+    private int pos;
+
+
+    private RegexParser(final String regex) {
+        this.regex = regex;
+        this.pos = 0;
+    }
+
+
+    /**
+     * Parse a regex into its syntax tree.
+     * @param regex The regex.
+     * @return The root of the syntax tree.
+     * @throws UnsupportedRegexException If the regex uses a construct outside of the supported subset.
+     */
+    public static RegexNode parse(final String regex) throws UnsupportedRegexException {
+        final RegexParser parser = new RegexParser(regex);
+        final RegexNode node = parser.alternation();
+
+        if(parser.pos < regex.length()) throw parser.unsupported();
+
+        return node;
+    }
+
+
+    /**
+     * Get the literal of a regex, which matches exactly one (non-empty) string, like a keyword or punctuation.
+     * @param regex The regex.
+     * @return The matched string or null, if the regex isn't a literal.
+     */
+    public static @Nullable String literal(final String regex) {
+        final RegexNode node;
+
+        try {
+            node = parse(regex);
+        } catch(UnsupportedRegexException e) {
+            return null;
+        }
+
+        final List<RegexNode> chars = node.getKind() == RegexNode.Kind.CONCAT ? node.getChildren() : List.of(node);
+        final StringBuilder literal = new StringBuilder(chars.size());
+
+        for(final RegexNode child : chars) {
+            if(child.getKind() != RegexNode.Kind.CHARSET || !child.getSet().isSingleton()) return null;
+
+            literal.append(child.getSet().lo(0));
+        }
+
+        return literal.toString();
+    }
+
+
+    private RegexNode alternation() throws UnsupportedRegexException {
+        final List<RegexNode> alternatives = new ArrayList<>();
+        alternatives.add(concat());
+
+        while(pos < regex.length() && regex.charAt(pos) == '|') {
+            pos++;
+            alternatives.add(concat());
+        }
+
+        return RegexNode.alternation(alternatives);
+    }
+
+    private RegexNode concat() throws UnsupportedRegexException {
+        final List<RegexNode> nodes = new ArrayList<>();
+
+        while(pos < regex.length() && regex.charAt(pos) != '|' && regex.charAt(pos) != ')') {
+            nodes.add(quantified());
+        }
+
+        return RegexNode.concat(nodes);
+    }
+
+    private RegexNode quantified() throws UnsupportedRegexException {
+        final RegexNode atom = atom();
+
+        if(pos >= regex.length()) return atom;
+
+        final int min;
+        final int max;
+
+        switch(regex.charAt(pos)) {
+            case '*':
+                min = 0;
+                max = RegexNode.UNBOUNDED;
+                pos++;
+                break;
+            case '+':
+                min = 1;
+                max = RegexNode.UNBOUNDED;
+                pos++;
+                break;
+            case '?':
+                min = 0;
+                max = 1;
+                pos++;
+                break;
+            case '{':
+                pos++;
+                min = number();
+                if(peek(',')) {
+                    pos++;
+                    max = peek('}') ? RegexNode.UNBOUNDED : number();
+                } else max = min;
+                if(!peek('}') || (max != RegexNode.UNBOUNDED && max < min)) throw unsupported();
+                pos++;
+                break;
+            default:
+                return atom;
+        }
+
+        // lazy, possessive or stacked quantifiers have no meaning for a longest match automaton
+        if(pos < regex.length() && "*+?{".indexOf(regex.charAt(pos)) >= 0) throw unsupported();
+
+        return RegexNode.repeat(atom, min, max);
+    }
+
+    private RegexNode atom() throws UnsupportedRegexException {
+        final char c = regex.charAt(pos);
+
+        switch(c) {
+            case '(':
+                pos++;
+                if(peek('?')) {
+                    if(pos + 1 < regex.length() && regex.charAt(pos + 1) == ':') pos += 2;
+                    else throw unsupported();
+                }
+                final RegexNode group = alternation();
+                if(!peek(')')) throw unsupported();
+                pos++;
+                return group;
+            case '[':
+                pos++;
+                return RegexNode.charset(charClass());
+            case '.':
+                pos++;
+                return RegexNode.charset(DOT);
+            case '\\':
+                pos++;
+                return RegexNode.charset(escape());
+            case '^':
+            case '$':
+            case '*':
+            case '+':
+            case '?':
+            case '{':
+                throw unsupported();
+            default:
+                pos++;
+                return RegexNode.charset(CharSet.of(c));
+        }
+    }
+
+    private CharSet charClass() throws UnsupportedRegexException {
+        boolean negate = false;
+        CharSet set = CharSet.EMPTY;
+
+        if(peek('^')) {
+            negate = true;
+            pos++;
+        }
+        if(peek(']')) throw unsupported();
+
+        while(!peek(']')) {
+            if(pos >= regex.length() || peek('[') || regex.startsWith("&&", pos)) throw unsupported();
+
+            final CharSet lo = classAtom();
+
+            if(peek('-') && pos + 1 < regex.length() && regex.charAt(pos + 1) != ']') {
+                pos++;
+                final CharSet hi = classAtom();
+
+                if(!lo.isSingleton() || !hi.isSingleton() || lo.lo(0) > hi.lo(0)) throw unsupported();
+
+                set = set.union(CharSet.range(lo.lo(0), hi.lo(0)));
+            } else set = set.union(lo);
+        }
+        pos++;
+
+        return negate ? set.negate() : set;
+    }
+
+    private CharSet classAtom() throws UnsupportedRegexException {
+        if(pos >= regex.length()) throw unsupported();
+
+        final char c = regex.charAt(pos++);
+
+        if(c == '\\') return escape();
+        if(Character.isSurrogate(c)) throw unsupported();
+
+        return CharSet.of(c);
+    }
+
+    private CharSet escape() throws UnsupportedRegexException {
+        if(pos >= regex.length()) throw unsupported();
+
+        final char c = regex.charAt(pos++);
+
+        switch(c) {
+            case 't': return CharSet.of('\t');
+            case 'n': return CharSet.of('\n');
+            case 'r': return CharSet.of('\r');
+            case 'f': return CharSet.of('\f');
+            case 'a': return CharSet.of('\u0007');
+            case 'e': return CharSet.of('\u001B');
+            case 'd': return DIGIT;
+            case 'D': return DIGIT.negate();
+            case 's': return SPACE;
+            case 'S': return SPACE.negate();
+            case 'w': return WORD;
+            case 'W': return WORD.negate();
+            case 'x': return CharSet.of((char) hex(2));
+            case 'u': return CharSet.of((char) hex(4));
+            case '0': {
+                int value = 0;
+                int digits = 0;
+
+                while(digits < 3 && pos < regex.length() && regex.charAt(pos) >= '0' && regex.charAt(pos) <= '7' && value * 8 + (regex.charAt(pos) - '0') <= 0377) {
+                    value = value * 8 + (regex.charAt(pos++) - '0');
+                    digits++;
+                }
+                if(digits == 0) throw unsupported();
+
+                return CharSet.of((char) value);
+            }
+            default:
+                // Letters and digits are reserved for special constructs (anchors, backreferences, properties, ...)
+                if(Character.isLetterOrDigit(c) || Character.isSurrogate(c)) throw unsupported();
+
+                return CharSet.of(c);
+        }
+    }
+
+    private int hex(final int digits) throws UnsupportedRegexException {
+        if(pos + digits > regex.length()) throw unsupported();
+
+        int value = 0;
+        for(int i = 0; i < digits; i++) {
+            final int digit = Character.digit(regex.charAt(pos++), 16);
+            if(digit < 0) throw unsupported();
+            value = value * 16 + digit;
+        }
+
+        return value;
+    }
+
+    private int number() throws UnsupportedRegexException {
+        final int start = pos;
+
+        while(pos < regex.length() && regex.charAt(pos) >= '0' && regex.charAt(pos) <= '9' && pos - start < 4) pos++;
+        if(start == pos) throw unsupported();
+
+        final int value = Integer.parseInt(regex.substring(start, pos));
+        if(value > Config.LEXER_REGEX_MAX_REPEAT) throw unsupported();
+
+        return value;
+    }
+
+    private boolean peek(final char c) {
+        return pos < regex.length() && regex.charAt(pos) == c;
+    }
+
+    private UnsupportedRegexException unsupported() {
+        return new UnsupportedRegexException(Config.LEXER_REGEX_ERROR_UNSUPPORTED + pos + " " + regex);
+    }
+}
@@ -0,0 +1,123 @@
+package parssist.lexer.automaton;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Translates the syntax tree of a char regex into a syntax tree over UTF-8 bytes, so the automaton can run on the undecoded bytes (one byte per char 0 - 255).
+ * Every char set becomes an alternation of byte range sequences, where each sequence covers a block of code points with the same encoded length.
+ * Single surrogates can't occur in UTF-8. If a set contains all surrogates (e.g. a negated set), it matches every supplementary code point (4 bytes) instead.
+ */
+public final class Utf8Encoder {
+    private static final int[] MAX_CODE_POINTS = { 0x7F, 0x7FF, 0xFFFF, 0x10FFFF };
+
+
+    private Utf8Encoder() {}
+
+
+    /**
+     * Translates a syntax tree.
+     * @param node The syntax tree over chars.
+     * @return The syntax tree over UTF-8 bytes.
+     */
+    public static RegexNode encode(final RegexNode node) {
+        switch(node.getKind()) {
+            case CHARSET:
+                return encode(node.getSet());
+            case CONCAT:
+                return RegexNode.concat(encodeAll(node.getChildren()));
+            case ALTERNATION:
+                return RegexNode.alternation(encodeAll(node.getChildren()));
+            case REPEAT:
+                return RegexNode.repeat(encode(node.getChildren().get(0)), node.getMin(), node.getMax());
+            default:
+                return node;
+        }
+    }
+
+
+    private static List<RegexNode> encodeAll(final List<RegexNode> nodes) {
+        final List<RegexNode> encoded = new ArrayList<>();
+        for(final RegexNode node : nodes) encoded.add(encode(node));
+
+        return encoded;
+    }
+
+    /**
+     * Translates a char set into byte range sequences.
+     * @param set The char set.
+     * @return The alternation of the sequences (an empty set, if no char is encodable).
+     */
+    private static RegexNode encode(final CharSet set) {
+        final List<RegexNode> sequences = new ArrayList<>();
+        int surrogates = 0;
+
+        for(int r = 0; r < set.size(); r++) {
+            final int lo = set.lo(r);
+            final int hi = set.hi(r);
+
+            surrogates += Math.max(0, Math.min(hi, Character.MAX_SURROGATE) - Math.max(lo, Character.MIN_SURROGATE) + 1);
+
+            if(lo < Character.MIN_SURROGATE) split(lo, Math.min(hi, Character.MIN_SURROGATE - 1), sequences);
+            if(hi > Character.MAX_SURROGATE) split(Math.max(lo, Character.MAX_SURROGATE + 1), hi, sequences);
+        }
+
+        if(surrogates == Character.MAX_SURROGATE - Character.MIN_SURROGATE + 1) split(Character.MIN_SUPPLEMENTARY_CODE_POINT, Character.MAX_CODE_POINT, sequences);
+
+        if(sequences.isEmpty()) return RegexNode.charset(CharSet.EMPTY);
+
+        return RegexNode.alternation(sequences);
+    }
+
+    /**
+     * Splits a code point range, until the encoded bytes of each part are a sequence of independent byte ranges.
+     * @param lo The first code point.
+     * @param hi The last code point.
+     * @param sequences The list, which the byte range sequences are added to.
+     */
+    private static void split(final int lo, final int hi, final List<RegexNode> sequences) {
+        for(int i = 0; i < MAX_CODE_POINTS.length - 1; i++) { // parts of different encoded length
+            final int max = MAX_CODE_POINTS[i];
+
+            if(lo <= max && hi > max) {
+                split(lo, max, sequences);
+                split(max + 1, hi, sequences);
+                return;
+            }
+        }
+
+        for(int i = 1; i < 4; i++) { // parts, whose continuation bytes don't cover the full range
+            final int mask = (1 << (6 * i)) - 1;
+
+            if((lo & ~mask) != (hi & ~mask)) {
+                if((lo & mask) != 0) {
+                    split(lo, lo | mask, sequences);
+                    split((lo | mask) + 1, hi, sequences);
+                    return;
+                }
+                if((hi & mask) != mask) {
+                    split(lo, (hi & ~mask) - 1, sequences);
+                    split(hi & ~mask, hi, sequences);
+                    return;
+                }
+            }
+        }
+
+        final byte[] from = encode(lo);
+        final byte[] to = encode(hi);
+        final List<RegexNode> bytes = new ArrayList<>();
+
+        for(int i = 0; i < from.length; i++) bytes.add(RegexNode.charset(CharSet.range((char) (from[i] & 0xFF), (char) (to[i] & 0xFF))));
+
+        sequences.add(RegexNode.concat(bytes));
+    }
+
+    private static byte[] encode(final int codePoint) {
+        if(codePoint <= 0x7F) return new byte[] { (byte) codePoint };
+        if(codePoint <= 0x7FF) return new byte[] { (byte) (0xC0 | codePoint >> 6), (byte) (0x80 | codePoint & 0x3F) };
+        if(codePoint <= 0xFFFF) return new byte[] { (byte) (0xE0 | codePoint >> 12), (byte) (0x80 | codePoint >> 6 & 0x3F), (byte) (0x80 | codePoint & 0x3F) };
+
+        return new byte[] { (byte) (0xF0 | codePoint >> 18), (byte) (0x80 | codePoint >> 12 & 0x3F), (byte) (0x80 | codePoint >> 6 & 0x3F), (byte) (0x80 | codePoint & 0x3F) };
+    }
+}
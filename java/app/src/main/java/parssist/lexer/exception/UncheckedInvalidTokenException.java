@@ -0,0 +1,15 @@
+package parssist.lexer.exception;
+
+
+/**
+ * UncheckedInvalidTokenException class, used to pass an {@link InvalidTokenException} through an iterator or a stream.
+ */
+public class UncheckedInvalidTokenException extends RuntimeException {
+    public UncheckedInvalidTokenException(final InvalidTokenException cause) {
+        super(cause.getMessage(), cause);
+    }
+
+    @Override public InvalidTokenException getCause() {
+        return (InvalidTokenException) super.getCause();
+    }
+}
@@ -0,0 +1,15 @@
+package parssist.lexer.exception;
+
+
+/**
+ * UnsupportedRegexException class, used when a token regex contains a construct outside of the regular subset, which the automatons can handle.
+ */
+public class UnsupportedRegexException extends Exception {
+    public UnsupportedRegexException(final String message) {
+        super(message);
+    }
+
+    public UnsupportedRegexException() {
+        super();
+    }
+}
@@ -0,0 +1,10 @@
+package parssist.lexer.util;
+
+
+/**
+ * Class, which represents a diagnostic of an invalid span in the code.
+ * @param start The start offset (inclusive).
+ * @param end The end offset (exclusive).
+ * @param message The message.
+ */
+public record Diagnostic(int start, int end, String message) {}
@@ -0,0 +1,110 @@
+package parssist.lexer.util;
+
+import java.util.Arrays;
+
+
+/**
+ * Lazy index of the line starts of an input, which maps an offset to its line and column.
+ * The index is built by one scan on the first query and then queried by binary search, so tokens and parse tree nodes only have to store their offset.
+ * Lines are separated by '\n' and both lines and columns start at 1.
+ */
+public class LineIndex {
+    private final CharSequence input;
+    private volatile int[] lineStarts;
+
+
+    /**
+     * Create a new line index. The input isn't scanned until the first query.
+     * @param input The input.
+     */
+    public LineIndex(final CharSequence input) {
+        this.input = input;
+    }
+
+
+    public CharSequence getInput() {
+        return input;
+    }
+
+    /**
+     * Get the number of lines.
+     * @return The number of lines (at least 1).
+     */
+    public int getLineCount() {
+        return lineStarts().length;
+    }
+
+    /**
+     * Get the line of an offset.
+     * @param offset The offset in the input (the length of the input is allowed too).
+     * @return The line.
+     * @throws IndexOutOfBoundsException If the offset is outside of the input.
+     */
+    public int getLine(final int offset) throws IndexOutOfBoundsException {
+        if(offset < 0 || offset > input.length()) throw new IndexOutOfBoundsException(offset);
+
+        final int[] starts = lineStarts();
+        int lo = 0;
+        int hi = starts.length - 1;
+
+        while(lo < hi) { // last line, which starts at or before the offset
+            final int mid = (lo + hi + 1) >>> 1;
+
+            if(starts[mid] <= offset) lo = mid;
+            else hi = mid - 1;
+        }
+
+        return lo + 1;
+    }
+
+    /**
+     * Get the column of an offset.
+     * @param offset The offset in the input (the length of the input is allowed too).
+     * @return The column.
+     * @throws IndexOutOfBoundsException If the offset is outside of the input.
+     */
+    public int getColumn(final int offset) throws IndexOutOfBoundsException {
+        return offset - getLineStart(getLine(offset)) + 1;
+    }
+
+    /**
+     * Get the offset, where a line starts.
+     * @param line The line.
+     * @return The offset.
+     * @throws IndexOutOfBoundsException If the line doesn't exist.
+     */
+    public int getLineStart(final int line) throws IndexOutOfBoundsException {
+        return lineStarts()[line - 1];
+    }
+
+    /**
+     * Format an offset as "line:column".
+     * @param offset The offset in the input.
+     * @return The formatted location.
+     */
+    public String format(final int offset) {
+        return getLine(offset) + ":" + getColumn(offset);
+    }
+
+
+    private int[] lineStarts() {
+        int[] starts = lineStarts;
+
+        if(starts == null) {
+            starts = new int[16];
+            int count = 1;
+
+            for(int i = 0; i < input.length(); i++) {
+                if(input.charAt(i) != '\n') continue;
+
+                if(count == starts.length) starts = Arrays.copyOf(starts, count * 2);
+                starts[count++] = i + 1;
+            }
+
+            starts = Arrays.copyOf(starts, count);
+            lineStarts = starts;
+        }
+
+        return starts;
+    }
+}
@@ -6,6 +6,7 @@ package parssist.lexer.util;
  */
 public record Token(TokenType tokenType, String symbol) {
     @Override public boolean equals(Object obj) {
+        if (this == obj) return true; // interned tokens (see TokenPool)
         if (obj instanceof Token) {
             Token other = (Token)obj;
             return this.tokenType.equals(other.tokenType) && this.symbol.equals(other.symbol);
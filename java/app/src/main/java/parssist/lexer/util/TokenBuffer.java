@@ -0,0 +1,235 @@
+package parssist.lexer.util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+import parssist.Config;
+
+
+/**
+ * Columnar list of tokens over the original input.
+ * Every token is stored as its token type id and its start and end offset in parallel int arrays (12 bytes per token),
+ * so neither token records nor symbol strings are allocated, until they are requested.
+ * Requested tokens come from a {@link TokenPool} (usually the one of the spec), so repeated symbols aren't allocated again.
+ */
+public class TokenBuffer {
+    public static final int ERROR = -1;
+    public static final TokenType ERROR_TYPE = new TokenType(Config.LEXER_ERROR_TOKENNAME, "", -1, false);
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final List<TokenType> tokenTypes;
+    private final CharSequence input;
+    private final TokenPool pool;
+    private int[] types;
+    private int[] starts;
+    private int[] ends;
+    private int size;
+    private LineIndex lineIndex;
+
+
+    /**
+     * Create a new token buffer, which doesn't intern its tokens.
+     * @param tokenTypes The token types, whose index is the token type id.
+     * @param input The tokenized input. It isn't copied.
+     * @param capacity The initial capacity.
+     */
+    public TokenBuffer(final List<TokenType> tokenTypes, final CharSequence input, final int capacity) {
+        this(new TokenPool(tokenTypes, new String[tokenTypes.size()], 0, 0), input, capacity);
+    }
+
+    /**
+     * Create a new token buffer, whose tokens come from a pool.
+     * @param pool The token pool, whose token types are the token types of the buffer.
+     * @param input The tokenized input. It isn't copied.
+     * @param capacity The initial capacity.
+     */
+    public TokenBuffer(final TokenPool pool, final CharSequence input, final int capacity) {
+        this.tokenTypes = pool.getTokenTypes();
+        this.input = input;
+        this.pool = pool;
+        this.types = new int[Math.max(capacity, 1)];
+        this.starts = new int[types.length];
+        this.ends = new int[types.length];
+    }
+
+    /**
+     * Create a new token buffer with the default capacity.
+     * @param tokenTypes The token types, whose index is the token type id.
+     * @param input The tokenized input. It isn't copied.
+     */
+    public TokenBuffer(final List<TokenType> tokenTypes, final CharSequence input) {
+        this(tokenTypes, input, DEFAULT_CAPACITY);
+    }
+
+
+    public List<TokenType> getTokenTypes() {
+        return tokenTypes;
+    }
+
+    public CharSequence getInput() {
+        return input;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the line index of the input. It is created on the first call and only scans the input on the first query.
+     * @return The line index.
+     */
+    public LineIndex getLineIndex() {
+        if(lineIndex == null) lineIndex = new LineIndex(input);
+
+        return lineIndex;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getType(final int index) {
+        return types[checkIndex(index)];
+    }
+
+    public int getStart(final int index) {
+        return starts[checkIndex(index)];
+    }
+
+    public int getEnd(final int index) {
+        return ends[checkIndex(index)];
+    }
+
+    /**
+     * Get the token type of a token.
+     * @param index The index of the token.
+     * @return The token type or {@link TokenBuffer#ERROR_TYPE} for an invalid span.
+     */
+    public TokenType getTokenType(final int index) {
+        final int type = getType(index);
+
+        return type == ERROR ? ERROR_TYPE : tokenTypes.get(type);
+    }
+
+    /**
+     * Get the line, where a token starts.
+     * @param index The index of the token.
+     * @return The line (starting at 1).
+     */
+    public int getLine(final int index) {
+        return getLineIndex().getLine(getStart(index));
+    }
+
+    /**
+     * Get the column, where a token starts.
+     * @param index The index of the token.
+     * @return The column (starting at 1).
+     */
+    public int getColumn(final int index) {
+        return getLineIndex().getColumn(getStart(index));
+    }
+
+    /**
+     * Get the symbol of a token. The symbol is extracted from the input on every call.
+     * @param index The index of the token.
+     * @return The symbol.
+     */
+    public String getSymbol(final int index) {
+        return input.subSequence(getStart(index), getEnd(index)).toString();
+    }
+
+    /**
+     * Get a token record from the pool.
+     * @param index The index of the token.
+     * @return The token.
+     */
+    public Token getToken(final int index) {
+        return pool.get(getType(index), input, getStart(index), getEnd(index));
+    }
+
+
+    /**
+     * Append a token.
+     * @param type The token type id or {@link TokenBuffer#ERROR}.
+     * @param start The start offset (inclusive).
+     * @param end The end offset (exclusive).
+     */
+    public void add(final int type, final int start, final int end) {
+        if(size == types.length) grow();
+
+        types[size] = type;
+        starts[size] = start;
+        ends[size] = end;
+        size++;
+    }
+
+    /**
+     * Remove all tokens from an index on.
+     * @param index The first removed index.
+     */
+    public void truncate(final int index) {
+        if(index < 0 || index > size) throw new IndexOutOfBoundsException(index);
+
+        size = index;
+    }
+
+    /**
+     * Shrink the arrays to the number of tokens.
+     */
+    public void trimToSize() {
+        if(size == types.length) return;
+
+        final int capacity = Math.max(size, 1);
+        types = Arrays.copyOf(types, capacity);
+        starts = Arrays.copyOf(starts, capacity);
+        ends = Arrays.copyOf(ends, capacity);
+    }
+
+    /**
+     * Shrink the arrays to the number of tokens, unless they are nearly full (see {@link Config#LEXER_TOKENBUFFER_SLACK_DIVISOR}).
+     * The copies exist next to the old arrays until they are done, so trimming a nearly full buffer would double the peak memory to save only the slack.
+     */
+    public void trimSlack() {
+        if(types.length - size > types.length / Config.LEXER_TOKENBUFFER_SLACK_DIVISOR) trimToSize();
+    }
+
+    /**
+     * Get a read-only list view on the tokens. The token records are created on access.
+     * @return The list view.
+     */
+    public List<Token> asList() {
+        return new TokenList();
+    }
+
+
+    private int checkIndex(final int index) {
+        if(index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+
+        return index;
+    }
+
+    private void grow() {
+        final int capacity = types.length + (types.length >> 1) + 1;
+
+        types = Arrays.copyOf(types, capacity);
+        starts = Arrays.copyOf(starts, capacity);
+        ends = Arrays.copyOf(ends, capacity);
+    }
+
+
+    /**
+     * Read-only list view on the buffer.
+     */
+    private final class TokenList extends AbstractList<Token> implements RandomAccess {
+        @Override public Token get(final int index) {
+            return getToken(index);
+        }
+
+        @Override public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package parssist.lexer.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import javax.annotation.Nullable;
+
+import parssist.Config;
+import parssist.lexer.automaton.FirstCharTable;
+import parssist.lexer.automaton.LiteralTrie;
+import parssist.lexer.automaton.RegexParser;
+
+
+/**
+ * Matches token types at a cursor of an input sequence.
+ * Literal token types (e.g. keywords or punctuation) are matched with a {@link LiteralTrie}, only the real patterns need the regex engine.
+ * Of these, only the candidates for the char at the cursor are tried (see {@link FirstCharTable}).
+ * The patterns are compiled once and the matchers are reused for every cursor position via {@link Matcher#region(int, int)},
+ * so the input is never copied. Only the symbol of a found token is extracted and the tokens are interned in a {@link TokenPool}.
+ */
+public class TokenMatcher {
+    private final List<TokenType> tokenTypes;
+    private final LiteralTrie literals;
+    private final int[] patternTypes; // token type index of every matcher
+    private final FirstCharTable firstChars;
+    private final TokenPool tokenPool;
+    private final Matcher[] matchers;
+    private CharSequence input;
+
+
+    /**
+     * Create a new token matcher.
+     * @param tokenTypes The token types to match (in the order they are tried).
+     * @param input The input sequence.
+     * @throws PatternSyntaxException If a regex of a token type has invalid syntax.
+     */
+    public TokenMatcher(final List<TokenType> tokenTypes, final CharSequence input) throws PatternSyntaxException {
+        final String[] literals = new String[tokenTypes.size()];
+        final List<Integer> patternTypes = new ArrayList<>();
+
+        this.tokenTypes = List.copyOf(tokenTypes);
+        this.input = input;
+
+        for(int i = 0; i < literals.length; i++) {
+            literals[i] = RegexParser.literal(this.tokenTypes.get(i).regex());
+            if(literals[i] == null) patternTypes.add(i);
+        }
+
+        this.literals = LiteralTrie.build(literals);
+        this.patternTypes = patternTypes.stream().mapToInt(Integer::intValue).toArray();
+        this.firstChars = FirstCharTable.build(patternTypes.stream().map(i -> this.tokenTypes.get(i).regex()).toList());
+        this.tokenPool = new TokenPool(this.tokenTypes, literals, Config.LEXER_TOKENPOOL_SIZE, Config.LEXER_TOKENPOOL_MAX_SYMBOL_LENGTH);
+        this.matchers = new Matcher[this.patternTypes.length];
+
+        for(int k = 0; k < matchers.length; k++) matchers[k] = Pattern.compile(this.tokenTypes.get(this.patternTypes[k]).regex()).matcher(input);
+    }
+
+
+    public CharSequence getInput() {
+        return input;
+    }
+
+    /**
+     * Set a new input sequence.
+     * @param input The input sequence.
+     */
+    public void reset(final CharSequence input) {
+        this.input = input;
+
+        for(final Matcher matcher : matchers) matcher.reset(input);
+    }
+
+
+    /**
+     * Get the token of the first token type, which matches at the cursor.
+     * @param ip The cursor.
+     * @return The token or null if no token type matches.
+     */
+    public @Nullable Token firstMatch(final int ip) {
+        final int node = literals.first(input, ip, input.length());
+        final int literal = node == LiteralTrie.NONE ? Integer.MAX_VALUE : literals.token(node);
+
+        for(final int k : firstChars.candidates(input, ip, input.length())) {
+            if(patternTypes[k] > literal) break;
+            if(matches(k, ip)) return token(patternTypes[k], ip, matchers[k].end());
+        }
+
+        if(node == LiteralTrie.NONE) return null;
+
+        return token(literal, ip, ip + literals.length(node));
+    }
+
+    /**
+     * Get the longest token at the cursor. If several token types match the same length, the first one wins.
+     * @param ip The cursor.
+     * @return The token or null if no token type matches.
+     */
+    public @Nullable Token longestMatch(final int ip) {
+        final int node = literals.longest(input, ip, input.length());
+        int index = node == LiteralTrie.NONE ? -1 : literals.token(node);
+        int end = node == LiteralTrie.NONE ? -1 : ip + literals.length(node);
+
+        for(final int k : firstChars.candidates(input, ip, input.length())) {
+            if(matches(k, ip) && (matchers[k].end() > end || (matchers[k].end() == end && patternTypes[k] < index))) {
+                index = patternTypes[k];
+                end = matchers[k].end();
+            }
+        }
+
+        if(index < 0) return null;
+
+        return token(index, ip, end);
+    }
+
+
+    private boolean matches(final int k, final int ip) {
+        return matchers[k].region(ip, input.length()).lookingAt();
+    }
+
+    private Token token(final int i, final int start, final int end) {
+        return tokenPool.get(i, input, start, end);
+    }
+}
@@ -0,0 +1,83 @@
+package parssist.lexer.util;
+
+import java.util.List;
+
+
+/**
+ * Flyweight pool of the tokens of a compiled lex definition, so repeated symbols don't allocate new strings and tokens.
+ * Every literal token type (e.g. a keyword or punctuation) has one canonical token, because its symbol is always the same.
+ * The tokens of the other token types (e.g. identifiers) are interned in a bounded hash table, in which a new token replaces the token of its slot.
+ * So literal tokens can be compared by identity, other tokens are mostly identical, if they are equal.
+ * Any number of threads can share a pool: a token is immutable (final fields), so a racing read sees either a complete token or another one,
+ * and a lost write only costs a later allocation.
+ */
+public final class TokenPool {
+    private final List<TokenType> tokenTypes;
+    private final Token[] literals; // canonical token of every literal token type or null
+    private final Token[] slots;
+    private final int maxSymbolLength;
+
+
+    /**
+     * Create a new token pool.
+     * @param tokenTypes The token types, whose index is the token type id.
+     * @param literals The literal of every token type or null, if it isn't a literal.
+     * @param capacity The number of slots of the hash table (rounded up to a power of two).
+     * @param maxSymbolLength The maximal length of an interned symbol. Longer symbols are rarely repeated, so they are always allocated.
+     */
+    public TokenPool(final List<TokenType> tokenTypes, final String[] literals, final int capacity, final int maxSymbolLength) {
+        this.tokenTypes = tokenTypes;
+        this.literals = new Token[tokenTypes.size()];
+        this.slots = new Token[Integer.highestOneBit(Math.max(capacity, 1) * 2 - 1)];
+        this.maxSymbolLength = maxSymbolLength;
+
+        for(int id = 0; id < this.literals.length; id++) {
+            if(literals[id] != null) this.literals[id] = new Token(tokenTypes.get(id), literals[id]);
+        }
+    }
+
+
+    public List<TokenType> getTokenTypes() {
+        return tokenTypes;
+    }
+
+    /**
+     * Get the token of a span of an input. Only if the token isn't in the pool, its symbol is extracted.
+     * @param type The token type id or {@link TokenBuffer#ERROR}.
+     * @param input The input.
+     * @param start The start offset (inclusive).
+     * @param end The end offset (exclusive).
+     * @return The token.
+     */
+    public Token get(final int type, final CharSequence input, final int start, final int end) {
+        if(type == TokenBuffer.ERROR) return new Token(TokenBuffer.ERROR_TYPE, input.subSequence(start, end).toString());
+        if(literals[type] != null) return literals[type];
+
+        final TokenType tokenType = tokenTypes.get(type);
+        if(end - start > maxSymbolLength) return new Token(tokenType, input.subSequence(start, end).toString());
+
+        int hash = type;
+        for(int i = start; i < end; i++) hash = 31 * hash + input.charAt(i);
+
+        final int slot = (hash ^ (hash >>> 16)) & (slots.length - 1);
+        final Token pooled = slots[slot];
+
+        if(pooled != null && pooled.tokenType() == tokenType && equals(pooled.symbol(), input, start, end)) return pooled;
+
+        final Token token = new Token(tokenType, input.subSequence(start, end).toString());
+        slots[slot] = token;
+
+        return token;
+    }
+
+
+    private static boolean equals(final String symbol, final CharSequence input, final int start, final int end) {
+        if(symbol.length() != end - start) return false;
+
+        for(int i = 0; i < symbol.length(); i++) {
+            if(symbol.charAt(i) != input.charAt(start + i)) return false;
+        }
+
+        return true;
+    }
+}
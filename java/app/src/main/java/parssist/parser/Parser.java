@@ -13,5 +13,5 @@ abstract public class Parser {
      * @return Parse tree node.
      * @throws Exception If there is an error while parsing.
      */
-    abstract public ParseTreeNode parse(final String w) throws Exception;
+    abstract public ParseTreeNode parse(final CharSequence w) throws Exception;
 }
@@ -0,0 +1,26 @@
+package parssist.parser.bottom_up_analysis.lrparser.lr1parser.generator;
+
+import parssist.parser.bottom_up_analysis.lrparser.lr1parser.parser.LALRParser;
+import parssist.parser.bottom_up_analysis.lrparser.lr1parser.parser.LRParser;
+import parssist.parser.util.Grammar;
+
+
+/**
+ * Class, which generates a LALR parser.
+ * The generated parser is the same table driven LR parser as the SLR one, only the parse table is a LALR(1) table.
+ */
+public class LALRGenerator extends SLRGenerator {
+    /**
+     * Create a new LALR parser.
+     * @param grammar Grammar.
+     * @throws NullPointerException If the grammar is null.
+     */
+    public LALRGenerator(final Grammar grammar) throws NullPointerException {
+        super(grammar);
+    }
+
+
+    @Override protected LRParser createParser(final Grammar grammar) {
+        return new LALRParser(grammar);
+    }
+}
@@ -0,0 +1,26 @@
+package parssist.parser.bottom_up_analysis.lrparser.lr1parser.generator;
+
+import parssist.parser.bottom_up_analysis.lrparser.lr1parser.parser.LR1Parser;
+import parssist.parser.bottom_up_analysis.lrparser.lr1parser.parser.LRParser;
+import parssist.parser.util.Grammar;
+
+
+/**
+ * Class, which generates a LR(1) parser.
+ * The generated parser is the same table driven LR parser as the SLR one, only the parse table is a LR(1) table (with merged states).
+ */
+public class LR1Generator extends SLRGenerator {
+    /**
+     * Create a new LR(1) parser.
+     * @param grammar Grammar.
+     * @throws NullPointerException If the grammar is null.
+     */
+    public LR1Generator(final Grammar grammar) throws NullPointerException {
+        super(grammar);
+    }
+
+
+    @Override protected LRParser createParser(final Grammar grammar) {
+        return new LR1Parser(grammar);
+    }
+}
@@ -42,7 +42,7 @@ public class SLRGenerator extends ParserGenerator {
     @Override public String generate(String parserName, String packageName) throws Exception {
         LRParser slrParser = null;
         try {
-            slrParser = new SLRParser(grammar);
+            slrParser = createParser(grammar);
         } catch (Exception e) {
             throw new ParseException(e.getMessage());
         }
@@ -66,6 +66,16 @@ public class SLRGenerator extends ParserGenerator {
     }
 
 
+    /**
+     * Creates the parser, which creates the parse table.
+     * Subclasses of other LR algorithms share the code generation and only replace the parser.
+     * @param grammar Grammar.
+     * @return The parser.
+     */
+    protected LRParser createParser(final Grammar grammar) {
+        return new SLRParser(grammar);
+    }
+
     /**
      * Generates the code for the parsetable.
      * Code is embedded in the parser.
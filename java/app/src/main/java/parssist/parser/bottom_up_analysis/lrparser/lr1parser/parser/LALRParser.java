@@ -0,0 +1,363 @@
+package parssist.parser.bottom_up_analysis.lrparser.lr1parser.parser;
+
+import parssist.Config;
+import parssist.lexer.util.Token;
+import parssist.lexer.util.TokenType;
+import parssist.parser.bottom_up_analysis.lrparser.lr1parser.parser.exception.NoLALR1GrammarException;
+import parssist.parser.util.Grammar;
+import parssist.parser.util.GrammarAnalysis;
+import parssist.parser.util.LR0Automaton;
+import parssist.parser.util.LR0Items;
+import parssist.parser.util.SymbolTable;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * A look-ahead LR parser implementation, which can create a LALR(1) parsetable.
+ * The table has the states of the canonical LR(0) collection (like a SLR table), but the lookaheads of the reductions are computed by the relations
+ * of DeRemer and Pennello ("Efficient Computation of LALR(1) Look-Ahead Sets", 1982) on the nonterminal transitions of the goto graph:
+ * - DR(p, A): the terminals, which can be shifted directly after the transition.
+ * - (p, A) reads (r, C): r is the successor of the transition and C is nullable, so the terminals read after C are read after A too.
+ * - (p, A) includes (p', B): B -> bAg, g is nullable and p' reaches p by b, so FOLLOW(p', B) is in FOLLOW(p, A).
+ * - (q, A -> w) lookback (p, A): p reaches q by w, so LA(q, A -> w) contains FOLLOW(p, A).
+ * Read and FOLLOW are the unions over the relations, computed by the digraph algorithm (which collapses the strongly connected components).
+ */
+public class LALRParser extends LRParser {
+    private static final int INFINITY = Integer.MAX_VALUE;
+
+
+    /**
+     * Creates a new LALR parser.
+     * @param grammar The grammar to parse.
+     * @param w The input string.
+     */
+    public LALRParser(final Grammar grammar, final CharSequence w) {
+        super(grammar, w);
+    }
+
+    /**
+     * Creates a LALR parse table with an empty input string.
+     * @param grammar The grammar to parse.
+     */
+    public LALRParser(final Grammar grammar) {
+        super(grammar, "");
+    }
+
+
+    /**
+     * Creates a LALR parse table.
+     * Startstate of the parser is the set of items of the augmented grammar with the item [S' -> .S].
+     * @throws NoLALR1GrammarException if the grammar is not LALR(1). Its not possible to create a LALR(1) parse table for the given grammar.
+     */
+    @Override public LRParseTable createParseTable() throws NoLALR1GrammarException {
+        final LR0Automaton automaton = grammar.getAutomaton();
+        final LR0Items items = automaton.getItemTable();
+        final SymbolTable symbols = automaton.getSymbolTable();
+        final int terminals = symbols.getTerminalCount();
+        final int nonterminals = symbols.getNonterminalCount();
+        final int states = automaton.getStateCount();
+        final int end = symbols.getTerminal(new Token(new TokenType(Config.LEXER_EMPTY_SYMBOL, "", 0, false), Grammar.EMPTY_SYMBOL));
+
+        final int[] transitions = new int[states * nonterminals]; // nonterminal transition of a state and nonterminal or -1
+        int count = 0;
+
+        for(int p = 0; p < states; p++) {
+            for(int A = 0; A < nonterminals; A++) transitions[p * nonterminals + A] = automaton.getGoto(p, terminals + A) == LR0Automaton.NONE ? -1 : count++;
+        }
+
+        final int[] sources = new int[count];
+        final int[] symbolsOf = new int[count];
+
+        for(int p = 0; p < states; p++) {
+            for(int A = 0; A < nonterminals; A++) {
+                final int x = transitions[p * nonterminals + A];
+                if(x < 0) continue;
+
+                sources[x] = p;
+                symbolsOf[x] = A;
+            }
+        }
+
+        final boolean[] nullable = nullableNonterminals(symbols);
+        final BitSet[] read = computeRead(automaton, transitions, sources, symbolsOf, nullable, end);
+        final Map<Long, BitSet> lookaheads = new HashMap<>();
+        final BitSet[] follow = computeFollow(automaton, transitions, sources, symbolsOf, nullable, read, lookaheads);
+
+        final Action[][] actions = new Action[states][terminals];
+        final int[][] gotos = new int[states][nonterminals];
+
+        for(int i = 0; i < states; i++) {
+            for(int a = 0; a < terminals; a++) {
+                final int j = automaton.getGoto(i, a);
+                if(j != LR0Automaton.NONE) actions[i][a] = new Action(Action.Type.SHIFT, j);
+            }
+
+            for(int A = 0; A < nonterminals; A++) {
+                final int j = automaton.getGoto(i, terminals + A);
+                if(j != LR0Automaton.NONE) gotos[i][A] = j;
+            }
+
+            for(final int item : automaton.getItems(i)) {
+                if(!items.isComplete(item)) continue;
+
+                final int production = items.getProduction(item);
+                final Token lhs = items.getProductions().get(production).getLhs();
+
+                if(!lhs.equals(grammar.getStartsymbol())) {
+                    final BitSet columns = lookaheads.get(key(i, production));
+                    if(columns == null) continue;
+
+                    final Action reduce = new Action(Action.Type.REDUCE, production);
+
+                    for(int a = columns.nextSetBit(0); a >= 0; a = columns.nextSetBit(a + 1)) {
+                        if(!setAction(actions, i, a, reduce)) throw new NoLALR1GrammarException(Config.BOTTOM_UP_PARSER_ERROR_NO_LALR1_GRAMMAR);
+                    }
+                } else if(items.getDot(item) == items.getRhs(production).length && end >= 0) {
+                    if(!setAction(actions, i, end, new Action(Action.Type.ACCEPT, 0))) throw new NoLALR1GrammarException(Config.BOTTOM_UP_PARSER_ERROR_NO_LALR1_GRAMMAR);
+                }
+            }
+        }
+
+        fillErrors(actions);
+
+        return new LRParseTable(grammar, actions, gotos, automaton.toItemSets(), grammar.getAlphabet(), grammar.getVocabulary());
+    }
+
+
+    /**
+     * Computes which nonterminals are nullable.
+     * @param symbols The symbol table.
+     * @return The flags by the index of the nonterminals in the vocabulary.
+     */
+    private boolean[] nullableNonterminals(final SymbolTable symbols) {
+        final GrammarAnalysis analysis = grammar.getAnalysis();
+        final boolean[] nullable = new boolean[symbols.getNonterminalCount()];
+
+        for(int A = 0; A < nullable.length; A++) nullable[A] = analysis.isNullable(A);
+
+        return nullable;
+    }
+
+    /**
+     * Computes Read of every nonterminal transition: DR over the reads relation.
+     * The transition of the start state by the start symbol reads the end of the input.
+     * @param automaton The LR(0) automaton.
+     * @param transitions The nonterminal transitions by state and nonterminal.
+     * @param sources The state of every transition.
+     * @param symbolsOf The nonterminal of every transition.
+     * @param nullable The nullable nonterminals.
+     * @param end The column of the end of the input or -1.
+     * @return Read of every transition (columns of the action table).
+     */
+    private BitSet[] computeRead(final LR0Automaton automaton, final int[] transitions, final int[] sources, final int[] symbolsOf, final boolean[] nullable, final int end) {
+        final SymbolTable symbols = automaton.getSymbolTable();
+        final LR0Items items = automaton.getItemTable();
+        final int terminals = symbols.getTerminalCount();
+        final int nonterminals = symbols.getNonterminalCount();
+        final BitSet[] read = new BitSet[sources.length];
+        final int[][] reads = new int[sources.length][];
+        final int start = items.getSymbol(items.getItem(0, 0)) - terminals;
+
+        for(int x = 0; x < sources.length; x++) {
+            final int r = automaton.getGoto(sources[x], terminals + symbolsOf[x]);
+            read[x] = new BitSet(terminals);
+
+            for(int a = 0; a < terminals; a++) {
+                if(automaton.getGoto(r, a) != LR0Automaton.NONE) read[x].set(a);
+            }
+
+            if(sources[x] == 0 && symbolsOf[x] == start && end >= 0) read[x].set(end);
+
+            int size = 0;
+            final int[] edges = new int[nonterminals];
+
+            for(int C = 0; C < nonterminals; C++) {
+                if(nullable[C] && transitions[r * nonterminals + C] >= 0) edges[size++] = transitions[r * nonterminals + C];
+            }
+
+            reads[x] = Arrays.copyOf(edges, size);
+        }
+
+        digraph(reads, read);
+
+        return read;
+    }
+
+    /**
+     * Computes FOLLOW of every nonterminal transition: Read over the includes relation.
+     * The productions of every transition are walked through the goto graph, which gives the includes and the lookback relation together.
+     * @param automaton The LR(0) automaton.
+     * @param transitions The nonterminal transitions by state and nonterminal.
+     * @param sources The state of every transition.
+     * @param symbolsOf The nonterminal of every transition.
+     * @param nullable The nullable nonterminals.
+     * @param read Read of every transition.
+     * @param lookaheads The map, which the lookaheads of the reductions (by state and production) are put into.
+     * @return FOLLOW of every transition (columns of the action table).
+     */
+    private BitSet[] computeFollow(final LR0Automaton automaton, final int[] transitions, final int[] sources, final int[] symbolsOf, final boolean[] nullable, final BitSet[] read, final Map<Long, BitSet> lookaheads) {
+        final SymbolTable symbols = automaton.getSymbolTable();
+        final LR0Items items = automaton.getItemTable();
+        final int terminals = symbols.getTerminalCount();
+        final int nonterminals = symbols.getNonterminalCount();
+        final int productionCount = items.getProductions().size();
+
+        final int[][] byLhs = new int[nonterminals][];
+        final int[] byLhsSizes = new int[nonterminals];
+        final boolean[] nullableFrom = new boolean[items.size()]; // the rest of the rhs from the dot is nullable
+
+        for(int p = 0; p < productionCount; p++) {
+            final Token[] rhs = items.getRhs(p);
+            final int A = symbols.getNonterminal(items.getProductions().get(p).getLhs().symbol());
+
+            if(A >= 0) {
+                if(byLhs[A] == null) byLhs[A] = new int[2];
+                else if(byLhs[A].length == byLhsSizes[A]) byLhs[A] = Arrays.copyOf(byLhs[A], byLhsSizes[A] * 2);
+
+                byLhs[A][byLhsSizes[A]++] = p;
+            }
+
+            nullableFrom[items.getItem(p, rhs.length)] = true;
+
+            for(int dot = rhs.length - 1; dot >= 0; dot--) {
+                final int X = items.getSymbol(items.getItem(p, dot));
+                final boolean empty = rhs[dot].tokenType().name().equals(Config.LEXER_EMPTY_SYMBOL) || (X >= terminals && nullable[X - terminals]);
+
+                nullableFrom[items.getItem(p, dot)] = empty && nullableFrom[items.getItem(p, dot + 1)];
+            }
+        }
+
+        final int[][] includes = new int[sources.length][];
+        final int[] includesSizes = new int[sources.length];
+        final Map<Long, int[]> lookbacks = new HashMap<>();
+
+        for(int x = 0; x < sources.length; x++) {
+            final int B = symbolsOf[x];
+
+            for(int k = 0; k < byLhsSizes[B]; k++) {
+                final int production = byLhs[B][k];
+                final Token[] rhs = items.getRhs(production);
+                int q = sources[x];
+
+                for(int dot = 0; dot < rhs.length && q != LR0Automaton.NONE; dot++) {
+                    final int item = items.getItem(production, dot);
+                    final int X = items.getSymbol(item);
+
+                    if(X == LR0Items.NONE) {
+                        if(!rhs[dot].tokenType().name().equals(Config.LEXER_EMPTY_SYMBOL)) q = LR0Automaton.NONE; // no transition
+
+                        continue;
+                    }
+
+                    if(X >= terminals && nullableFrom[item + 1]) {
+                        final int y = transitions[q * nonterminals + X - terminals];
+
+                        if(y >= 0) {
+                            if(includes[y] == null) includes[y] = new int[2];
+                            else if(includes[y].length == includesSizes[y]) includes[y] = Arrays.copyOf(includes[y], includesSizes[y] * 2);
+
+                            includes[y][includesSizes[y]++] = x;
+                        }
+                    }
+
+                    q = automaton.getGoto(q, X);
+                }
+
+                if(q == LR0Automaton.NONE) continue;
+
+                final int[] lookback = lookbacks.getOrDefault(key(q, production), new int[0]);
+                final int[] extended = Arrays.copyOf(lookback, lookback.length + 1);
+                extended[lookback.length] = x;
+
+                lookbacks.put(key(q, production), extended);
+            }
+        }
+
+        for(int x = 0; x < sources.length; x++) includes[x] = includes[x] == null ? new int[0] : Arrays.copyOf(includes[x], includesSizes[x]);
+
+        final BitSet[] follow = new BitSet[read.length]; // the members of a component share their Read set
+        for(int x = 0; x < read.length; x++) follow[x] = (BitSet) read[x].clone();
+
+        digraph(includes, follow);
+
+        for(final Map.Entry<Long, int[]> lookback : lookbacks.entrySet()) {
+            final BitSet columns = new BitSet(terminals);
+            for(final int x : lookback.getValue()) columns.or(follow[x]);
+
+            lookaheads.put(lookback.getKey(), columns);
+        }
+
+        return follow;
+    }
+
+    /**
+     * The digraph algorithm of DeRemer and Pennello: F(x) becomes the union of F(y) of all y reachable from x, the members of a strongly connected component share one set.
+     * The traversal uses an explicit stack, so deep relations don't overflow the call stack.
+     * @param relation The successors of every node.
+     * @param F The sets of every node (replaced by the unions).
+     */
+    private static void digraph(final int[][] relation, final BitSet[] F) {
+        final int n = relation.length;
+        final int[] N = new int[n];
+        final int[] depths = new int[n]; // depth in the stack, when the node was pushed
+        final int[] stack = new int[n];
+        final int[] frames = new int[n]; // nodes of the traversal
+        final int[] edges = new int[n]; // next edge of every frame
+        int sp = 0;
+
+        for(int root = 0; root < n; root++) {
+            if(N[root] != 0) continue;
+
+            int fp = 0;
+            stack[sp++] = root;
+            N[root] = depths[root] = sp;
+            frames[fp] = root;
+            edges[fp++] = 0;
+
+            while(fp > 0) {
+                final int x = frames[fp - 1];
+
+                if(edges[fp - 1] < relation[x].length) {
+                    final int y = relation[x][edges[fp - 1]++];
+
+                    if(N[y] == 0) {
+                        stack[sp++] = y;
+                        N[y] = depths[y] = sp;
+                        frames[fp] = y;
+                        edges[fp++] = 0;
+                    } else {
+                        N[x] = Math.min(N[x], N[y]);
+                        F[x].or(F[y]);
+                    }
+
+                    continue;
+                }
+
+                if(N[x] == depths[x]) {
+                    int z;
+                    do {
+                        z = stack[--sp];
+                        N[z] = INFINITY;
+                        if(z != x) F[z] = F[x];
+                    } while(z != x);
+                }
+
+                fp--;
+
+                if(fp > 0) {
+                    final int parent = frames[fp - 1];
+                    N[parent] = Math.min(N[parent], N[x]);
+                    F[parent].or(F[x]);
+                }
+            }
+        }
+    }
+
+    private static long key(final int state, final int production) {
+        return (long) state << 32 | production;
+    }
+}
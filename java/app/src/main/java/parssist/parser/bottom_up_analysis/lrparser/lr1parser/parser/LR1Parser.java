@@ -0,0 +1,448 @@
+package parssist.parser.bottom_up_analysis.lrparser.lr1parser.parser;
+
+import parssist.Config;
+import parssist.lexer.util.Token;
+import parssist.lexer.util.TokenType;
+import parssist.parser.bottom_up_analysis.lrparser.lr1parser.parser.exception.NoLR1GrammarException;
+import parssist.parser.util.Grammar;
+import parssist.parser.util.Grammar.Item;
+import parssist.parser.util.GrammarAnalysis;
+import parssist.parser.util.LR0Items;
+import parssist.parser.util.SymbolTable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * A LR(1) parser implementation, which can create a LR(1) parsetable with the states merged by Pager's weak compatibility
+ * ("A Practical General Method for Constructing LR(k) Parsers", 1977).
+ * A state is a kernel of LR(0) items (its core) with a lookahead set (over the columns of the action table) for every kernel item.
+ * A new successor is merged into an existing state of the same core, if they are weakly compatible:
+ * for every two kernel items i and j, their lookaheads L and M don't cross (L(i) and M(j), L(j) and M(i) are disjoint)
+ * or already overlap in one of the states (L(i) and L(j) or M(i) and M(j)).
+ * So merging never adds a reduce/reduce conflict, which isn't in the canonical LR(1) collection, but the state count stays close to LALR(1).
+ * If the lookaheads of a merged state grow, they are propagated to its successors by processing it again.
+ */
+public class LR1Parser extends LRParser {
+    /**
+     * Creates a new LR(1) parser.
+     * @param grammar The grammar to parse.
+     * @param w The input string.
+     */
+    public LR1Parser(final Grammar grammar, final CharSequence w) {
+        super(grammar, w);
+    }
+
+    /**
+     * Creates a LR(1) parse table with an empty input string.
+     * @param grammar The grammar to parse.
+     */
+    public LR1Parser(final Grammar grammar) {
+        super(grammar, "");
+    }
+
+
+    /**
+     * Creates a LR(1) parse table.
+     * Startstate of the parser is the item [S' -> .S, $] of the augmented grammar.
+     * @throws NoLR1GrammarException if the grammar is not LR(1). Its not possible to create a LR(1) parse table for the given grammar.
+     */
+    @Override public LRParseTable createParseTable() throws NoLR1GrammarException {
+        final Collection collection = new Collection(grammar.getItems(), grammar.getAnalysis());
+        final LR0Items items = collection.items;
+        final int terminals = collection.terminals;
+        final int nonterminals = collection.symbols.getNonterminalCount();
+        final int states = collection.states.size();
+
+        final Action[][] actions = new Action[states][terminals];
+        final int[][] gotos = new int[states][nonterminals];
+        final List<List<Item>> C = new ArrayList<>();
+
+        for(int i = 0; i < states; i++) {
+            final State state = collection.states.get(i);
+            final List<Item> I = new ArrayList<>();
+
+            for(int a = 0; a < terminals; a++) {
+                final int j = state.gotos[a];
+                if(j != LR0Items.NONE) actions[i][a] = new Action(Action.Type.SHIFT, j);
+            }
+
+            for(int A = 0; A < nonterminals; A++) {
+                final int j = state.gotos[terminals + A];
+                if(j != LR0Items.NONE) gotos[i][A] = j;
+            }
+
+            for(int k = 0; k < state.items.length; k++) {
+                final int item = state.items[k];
+                I.add(items.toItem(item));
+
+                if(!items.isComplete(item)) continue;
+
+                final int production = items.getProduction(item);
+                final Token lhs = items.getProductions().get(production).getLhs();
+
+                if(!lhs.equals(grammar.getStartsymbol())) {
+                    final BitSet columns = state.lookaheads[k];
+                    final Action reduce = new Action(Action.Type.REDUCE, production);
+
+                    for(int a = columns.nextSetBit(0); a >= 0; a = columns.nextSetBit(a + 1)) {
+                        if(!setAction(actions, i, a, reduce)) throw new NoLR1GrammarException(Config.BOTTOM_UP_PARSER_ERROR_NO_LR1_GRAMMAR);
+                    }
+                } else if(items.getDot(item) == items.getRhs(production).length && collection.end >= 0) {
+                    if(!setAction(actions, i, collection.end, new Action(Action.Type.ACCEPT, 0))) throw new NoLR1GrammarException(Config.BOTTOM_UP_PARSER_ERROR_NO_LR1_GRAMMAR);
+                }
+            }
+
+            C.add(I);
+        }
+
+        fillErrors(actions);
+
+        return new LRParseTable(grammar, actions, gotos, C, grammar.getAlphabet(), grammar.getVocabulary());
+    }
+
+
+    /**
+     * The collection of LR(1) states (merged by weak compatibility) of a grammar.
+     */
+    private static final class Collection {
+        private final LR0Items items;
+        private final SymbolTable symbols;
+        private final int terminals;
+        private final int end;
+        private final int[] order; // successors in the order of the vocabulary, then the alphabet (like the LR(0) automaton)
+        private final int[][] expansions; // productions by nonterminal
+        private final BitSet[] suffixFirst; // FIRST of the rhs from the dot on (by item)
+        private final boolean[] suffixNullable;
+        private final List<State> states = new ArrayList<>();
+        private final Map<Core, List<Integer>> cores = new HashMap<>();
+
+
+        /**
+         * Builds the states of a grammar by a worklist.
+         * @param items The LR(0) items of the grammar.
+         * @param analysis The analysis of the grammar.
+         */
+        private Collection(final LR0Items items, final GrammarAnalysis analysis) {
+            this.items = items;
+            this.symbols = items.getSymbolTable();
+            this.terminals = symbols.getTerminalCount();
+            this.end = symbols.getTerminal(new Token(new TokenType(Config.LEXER_EMPTY_SYMBOL, "", 0, false), Grammar.EMPTY_SYMBOL));
+            this.order = new int[symbols.size()];
+            this.expansions = new int[symbols.getNonterminalCount()][];
+            this.suffixFirst = new BitSet[items.size()];
+            this.suffixNullable = new boolean[items.size()];
+
+            for(int X = 0; X < order.length; X++) order[X] = (X + terminals) % order.length;
+
+            createSuffixes(analysis);
+            build();
+        }
+
+
+        /**
+         * Computes FIRST and NULLABLE of the rest of the rhs of every item and groups the productions by their lhs.
+         * @param analysis The analysis of the grammar.
+         */
+        private void createSuffixes(final GrammarAnalysis analysis) {
+            final int nonterminals = symbols.getNonterminalCount();
+            final BitSet[] first = new BitSet[nonterminals];
+            final boolean[] nullable = new boolean[nonterminals];
+            final int[] sizes = new int[nonterminals];
+
+            for(int A = 0; A < nonterminals; A++) {
+                first[A] = analysis.getFirst(A).get(0, terminals); // without the empty symbol and the terminals behind the columns
+                first[A].clear(analysis.getEmpty());
+                nullable[A] = analysis.isNullable(A);
+            }
+
+            for(int p = 0; p < items.getProductions().size(); p++) {
+                final Token[] rhs = items.getRhs(p);
+                final int A = symbols.getNonterminal(items.getProductions().get(p).getLhs().symbol());
+
+                if(A >= 0) {
+                    if(expansions[A] == null) expansions[A] = new int[0];
+
+                    expansions[A] = Arrays.copyOf(expansions[A], sizes[A] + 1);
+                    expansions[A][sizes[A]++] = p;
+                }
+
+                BitSet suffix = new BitSet(terminals);
+                boolean empty = true;
+
+                for(int dot = rhs.length; dot >= 0; dot--) {
+                    final int item = items.getItem(p, dot);
+                    suffixFirst[item] = suffix;
+                    suffixNullable[item] = empty;
+
+                    if(dot == 0 || rhs[dot - 1].tokenType().name().equals(Config.LEXER_EMPTY_SYMBOL)) continue;
+
+                    final int X = items.getSymbol(item - 1);
+
+                    if(X >= terminals) {
+                        final BitSet extended = (BitSet) first[X - terminals].clone();
+                        if(nullable[X - terminals]) extended.or(suffix);
+                        else empty = false;
+
+                        suffix = extended;
+                    } else {
+                        suffix = new BitSet(terminals);
+                        if(X != LR0Items.NONE) suffix.set(X);
+
+                        empty = false;
+                    }
+                }
+            }
+
+            for(int A = 0; A < nonterminals; A++) {
+                if(expansions[A] == null) expansions[A] = new int[0];
+            }
+        }
+
+        /**
+         * Builds the states by a worklist. A state is processed again, if its lookaheads grow.
+         */
+        private void build() {
+            final Deque<Integer> worklist = new ArrayDeque<>();
+            final BitSet queued = new BitSet();
+            final int[][] moves = new int[symbols.size()][]; // positions of the items of a state by the symbol after the dot
+            final int[] moveSizes = new int[symbols.size()];
+            final BitSet initial = new BitSet(terminals);
+            if(end >= 0) initial.set(end);
+
+            worklist.add(add(new int[] { items.getItem(0, 0) }, new BitSet[] { initial }));
+            queued.set(0);
+
+            while(!worklist.isEmpty()) {
+                final int s = worklist.poll();
+                queued.clear(s);
+
+                final State state = states.get(s);
+                close(state);
+
+                Arrays.fill(moveSizes, 0);
+
+                for(int k = 0; k < state.items.length; k++) {
+                    final int X = items.getSymbol(state.items[k]);
+                    if(X == LR0Items.NONE) continue;
+
+                    if(moves[X] == null) moves[X] = new int[4];
+                    else if(moves[X].length == moveSizes[X]) moves[X] = Arrays.copyOf(moves[X], moveSizes[X] * 2);
+
+                    moves[X][moveSizes[X]++] = k;
+                }
+
+                for(final int X : order) {
+                    final int size = moveSizes[X];
+                    if(size == 0) continue;
+
+                    final int[] kernel = new int[size];
+                    final BitSet[] lookaheads = new BitSet[size];
+
+                    for(int m = 0; m < size; m++) {
+                        kernel[m] = state.items[moves[X][m]] + 1; // the items of a state are sorted, so the kernel is sorted too
+                        lookaheads[m] = state.lookaheads[moves[X][m]];
+                    }
+
+                    int target = state.gotos[X];
+                    boolean grown;
+
+                    if(target == LR0Items.NONE) {
+                        target = find(kernel, lookaheads);
+
+                        if(target == LR0Items.NONE) {
+                            target = add(kernel, lookaheads);
+                            grown = true;
+                        } else grown = merge(states.get(target), lookaheads);
+
+                        state.gotos[X] = target;
+                    } else grown = merge(states.get(target), lookaheads);
+
+                    if(grown && !queued.get(target)) {
+                        worklist.add(target);
+                        queued.set(target);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Adds a new state.
+         * @param kernel The kernel.
+         * @param lookaheads The lookaheads of the kernel items (copied).
+         * @return The new state.
+         */
+        private int add(final int[] kernel, final BitSet[] lookaheads) {
+            final State state = new State(kernel, symbols.size());
+            for(int k = 0; k < kernel.length; k++) state.kernelLookaheads[k] = (BitSet) lookaheads[k].clone();
+
+            states.add(state);
+            cores.computeIfAbsent(new Core(kernel), k -> new ArrayList<>()).add(states.size() - 1);
+
+            return states.size() - 1;
+        }
+
+        /**
+         * Finds a state of the same core, which is weakly compatible with the lookaheads.
+         * @param kernel The kernel.
+         * @param lookaheads The lookaheads of the kernel items.
+         * @return The first compatible state or {@link LR0Items#NONE}.
+         */
+        private int find(final int[] kernel, final BitSet[] lookaheads) {
+            final List<Integer> candidates = cores.get(new Core(kernel));
+            if(candidates == null) return LR0Items.NONE;
+
+            for(final int candidate : candidates) {
+                if(isCompatible(states.get(candidate).kernelLookaheads, lookaheads)) return candidate;
+            }
+
+            return LR0Items.NONE;
+        }
+
+        /**
+         * Merges lookaheads into the kernel of a state.
+         * @param state The state.
+         * @param lookaheads The lookaheads of the kernel items.
+         * @return True if the lookaheads of the state have grown, false otherwise.
+         */
+        private boolean merge(final State state, final BitSet[] lookaheads) {
+            boolean grown = false;
+
+            for(int k = 0; k < lookaheads.length; k++) {
+                final BitSet current = state.kernelLookaheads[k];
+                final int cardinality = current.cardinality();
+
+                current.or(lookaheads[k]);
+                grown |= current.cardinality() != cardinality;
+            }
+
+            return grown;
+        }
+
+        /**
+         * Computes the closure of a state with the lookaheads: [B -> .g, FIRST(b L)] for every [A -> a.Bb, L] (transitively).
+         * @param state The state.
+         */
+        private void close(final State state) {
+            final BitSet kernel = new BitSet(items.size());
+            for(final int item : state.kernel) kernel.set(item);
+
+            final BitSet closure = items.closure(kernel);
+            final int[] closed = new int[closure.cardinality()];
+            final BitSet[] lookaheads = new BitSet[closed.length];
+
+            for(int item = closure.nextSetBit(0), i = 0; item >= 0; item = closure.nextSetBit(item + 1), i++) {
+                closed[i] = item;
+                lookaheads[i] = new BitSet(terminals);
+            }
+
+            for(int k = 0; k < state.kernel.length; k++) lookaheads[Arrays.binarySearch(closed, state.kernel[k])].or(state.kernelLookaheads[k]);
+
+            final Deque<Integer> worklist = new ArrayDeque<>();
+            final BitSet queued = new BitSet(closed.length);
+
+            for(int i = 0; i < closed.length; i++) {
+                worklist.add(i);
+                queued.set(i);
+            }
+
+            while(!worklist.isEmpty()) {
+                final int i = worklist.poll();
+                queued.clear(i);
+
+                final int X = items.getSymbol(closed[i]);
+                if(X < terminals) continue;
+
+                final BitSet contribution = (BitSet) suffixFirst[closed[i] + 1].clone();
+                if(suffixNullable[closed[i] + 1]) contribution.or(lookaheads[i]);
+
+                for(final int production : expansions[X - terminals]) {
+                    final int j = Arrays.binarySearch(closed, items.getItem(production, 0));
+                    if(j < 0) continue;
+
+                    final int cardinality = lookaheads[j].cardinality();
+                    lookaheads[j].or(contribution);
+
+                    if(lookaheads[j].cardinality() != cardinality && !queued.get(j)) {
+                        worklist.add(j);
+                        queued.set(j);
+                    }
+                }
+            }
+
+            state.items = closed;
+            state.lookaheads = lookaheads;
+        }
+
+        /**
+         * Checks the weak compatibility of Pager.
+         * @param L The lookaheads of the kernel items of the one state.
+         * @param M The lookaheads of the kernel items of the other state.
+         * @return True if the states can be merged, false otherwise.
+         */
+        private static boolean isCompatible(final BitSet[] L, final BitSet[] M) {
+            for(int i = 0; i < L.length; i++) {
+                for(int j = i + 1; j < L.length; j++) {
+                    if(!L[i].intersects(M[j]) && !L[j].intersects(M[i])) continue;
+                    if(L[i].intersects(L[j]) || M[i].intersects(M[j])) continue;
+
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+
+    /**
+     * A state of the collection. The closure is computed, when the state is processed.
+     */
+    private static final class State {
+        private final int[] kernel;
+        private final BitSet[] kernelLookaheads;
+        private final int[] gotos;
+        private int[] items = new int[0];
+        private BitSet[] lookaheads = new BitSet[0];
+
+
+        private State(final int[] kernel, final int symbolCount) {
+            this.kernel = kernel;
+            this.kernelLookaheads = new BitSet[kernel.length];
+            this.gotos = new int[symbolCount];
+
+            Arrays.fill(gotos, LR0Items.NONE);
+        }
+    }
+
+    /**
+     * A sorted kernel without lookaheads, which is used as a hash key.
+     */
+    private static final class Core {
+        private final int[] values;
+        private final int hash;
+
+
+        private Core(final int[] values) {
+            this.values = values;
+            this.hash = Arrays.hashCode(values);
+        }
+
+
+        @Override public boolean equals(final Object obj) {
+            if(obj instanceof Core) return Arrays.equals(values, ((Core) obj).values);
+
+            return false;
+        }
+
+        @Override public int hashCode() {
+            return hash;
+        }
+    }
+}
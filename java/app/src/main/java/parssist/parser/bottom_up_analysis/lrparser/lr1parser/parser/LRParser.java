@@ -3,20 +3,22 @@ package parssist.parser.bottom_up_analysis.lrparser.lr1parser.parser;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
 import javax.annotation.Nullable;
 
 import parssist.Config;
+import parssist.lexer.util.LineIndex;
 import parssist.lexer.util.Token;
+import parssist.lexer.util.TokenMatcher;
 import parssist.lexer.util.TokenType;
 import parssist.parser.Parser;
 import parssist.parser.bottom_up_analysis.lrparser.lr1parser.parser.exception.LRParseException;
 import parssist.parser.util.Grammar;
 import parssist.parser.util.Grammar.Item;
+import parssist.parser.util.InputBuffer;
 import parssist.parser.util.Stack;
+import parssist.parser.util.SymbolTable;
 import parssist.parser.util.tree.ParseTreeNode;
 import parssist.parser.util.tree.visitor.JsonLikeTreeVisitor;
 
@@ -27,7 +29,9 @@ import parssist.parser.util.tree.visitor.JsonLikeTreeVisitor;
 abstract public class LRParser extends Parser {
     protected final Grammar grammar;
 
-    private String w$;
+    private InputBuffer w$;
+    private LineIndex lines;
+    private final TokenMatcher tokenMatcher;
     private Stack<ParseTreeNode> stack;
     private ParseTreeNode root;
 
@@ -38,17 +42,19 @@ abstract public class LRParser extends Parser {
      * @param w The input string.
      * @throws NullPointerException If the grammar or the input string is null.
      */
-    public LRParser(final Grammar grammar, final String w) throws NullPointerException {
+    public LRParser(final Grammar grammar, final CharSequence w) throws NullPointerException {
         this.grammar = grammar;
         grammar.addArgumentProduction(new Token(new TokenType(Config.GRAMMAR_ARGUMENT_SYMBOL, Config.GRAMMAR_ARGUMENT_SYMBOL, 0, false), Config.GRAMMAR_ARGUMENT_SYMBOL));
+        this.tokenMatcher = new TokenMatcher(grammar.getTokentypes().stream().filter(e -> !e.name().equals(Config.LEXER_NONTERMINAL)).toList(), "");
         
         setInputString(w);
         resetStack();
     }
 
 
-    @Override public ParseTreeNode parse(final String w) throws Exception, LRParseException {
+    @Override public ParseTreeNode parse(final CharSequence w) throws Exception, LRParseException {
         final LRParseTable parseTable = createParseTable();
+        final SymbolTable symbols = grammar.getSymbolTable();
 
         setInputString(w);
         resetStack();
@@ -64,18 +70,21 @@ abstract public class LRParser extends Parser {
 
             final Token a = getNextToken(ip);
 
-            if(a == null) throw new LRParseException(Config.BOTTOM_UP_PARSER_ERROR_INVALID_TOKEN + " " + ip + " " + w$);
+            if(a == null) throw new LRParseException(Config.BOTTOM_UP_PARSER_ERROR_INVALID_TOKEN + " " + ip + " (" + lines.format(ip) + ")");
             
             if(a.tokenType().ignore() && ip < w$.length() - 1) { // ignore token (e.g. whitespace, empty symbol except the last one ...) 
                 ip += a.symbol().length();
                 continue;
             }
 
-            final int aIndex = parseTable.getAlphabet().indexOf(a);
+            final int aIndex = symbols.getTerminal(a);
             final Action action = parseTable.getActionTable()[state][aIndex];
 
             if(action.type == Action.Type.SHIFT) {
-                stack.push(new ParseTreeNode(a));
+                final ParseTreeNode leaf = new ParseTreeNode(a);
+                leaf.setPosition(ip, lines);
+
+                stack.push(leaf);
                 stack.push(new ParseTreeNode(action.value));
 
                 ip += a.symbol().length();
@@ -92,13 +101,13 @@ abstract public class LRParser extends Parser {
                 if(stack.peek().hasState()) $state = stack.peek().getState();
 
                 stack.push(newNode);
-                stack.push(new ParseTreeNode(parseTable.getGotoTable()[$state][parseTable.getVocabulary().indexOf(grammar.getProductions().get(action.value).getLhs())]));
+                stack.push(new ParseTreeNode(parseTable.getGotoTable()[$state][symbols.getNonterminal(grammar.getProductions().get(action.value).getLhs())]));
             } else if(action.type == Action.Type.ACCEPT) {
                 if(stack.peek().getToken() == null) stack.pop();
                 root = stack.peek();
                 return stack.pop();
             }
-            else if(action.type == Action.Type.ERROR) throw new LRParseException();
+            else if(action.type == Action.Type.ERROR) throw new LRParseException(Config.BOTTOM_UP_PARSER_ERROR_NO_ACTION + " " + ip + " (" + lines.format(ip) + ")");
 
             it++;
         }
@@ -127,10 +136,12 @@ abstract public class LRParser extends Parser {
      * @param w The input string.
      * @throws NullPointerException If the input string is null.
      */
-    public void setInputString(final String w) throws NullPointerException {
+    public void setInputString(final CharSequence w) throws NullPointerException {
         Objects.requireNonNull(w);
 
-        this.w$ = w + Grammar.EMPTY_SYMBOL;
+        this.w$ = new InputBuffer(w, Grammar.EMPTY_SYMBOL);
+        this.lines = new LineIndex(w$);
+        tokenMatcher.reset(w$);
     }
 
     /**
@@ -158,25 +169,45 @@ abstract public class LRParser extends Parser {
     
 
     /**
-     * Get the next token from the input buffer.
-     * Maybe sort by priority of the token types in the future.
-     * @return The next token from the input buffer or null.
+     * Sets an action of a parse table.
+     * @param actions The action table.
+     * @param state The state.
+     * @param a The column of the terminal.
+     * @param action The action.
+     * @return False if the cell already has another action (shift/reduce or reduce/reduce conflict), true otherwise.
      */
-    private @Nullable Token getNextToken(final int ip) {
-        final String tempW$ = w$.substring(ip);
+    protected static boolean setAction(final Action[][] actions, final int state, final int a, final Action action) {
+        final Action current = actions[state][a];
+
+        if(current != null && (current.type != action.type || current.value != action.value)) return false;
+
+        actions[state][a] = action;
+
+        return true;
+    }
 
-        for(final TokenType tokenType : grammar.getTokentypes()) { 
-            if(tokenType.name().equals(Config.LEXER_NONTERMINAL)) continue;
-            final Pattern pattern = Pattern.compile(Config.LEXER_REGEX_STARTSYMBOL + "(" +  tokenType.regex() + ")");
-            final Matcher matcher = pattern.matcher(tempW$);
+    /**
+     * Sets the empty cells of a parse table to {@link Action.Type#ERROR}.
+     * @param actions The action table.
+     */
+    protected static void fillErrors(final Action[][] actions) {
+        final Action error = new Action(Action.Type.ERROR, 0);
 
-            if(matcher.find()) {
-                final String value = matcher.group();
-                return new Token(tokenType, value);
+        for(int i = 0; i < actions.length; i++) {
+            for(int j = 0; j < actions[i].length; j++) {
+                if(actions[i][j] == null) actions[i][j] = error;
             }
         }
+    }
 
-        return null;
+    /**
+     * Get the next token from the input buffer.
+     * Maybe sort by priority of the token types in the future.
+     * @param ip The input pointer.
+     * @return The next token from the input buffer or null.
+     */
+    private @Nullable Token getNextToken(final int ip) {
+        return tokenMatcher.firstMatch(ip);
     }
 
     /**
@@ -253,12 +284,12 @@ abstract public class LRParser extends Parser {
             this.vocabulary = vocabulary;
             this.startStates = new ArrayList<>();
 
-            for(List<Item> state : states) {
-                for(Item item : state) {
+            for(int i = 0; i < states.size(); i++) {
+                for(Item item : states.get(i)) {
                     if(item.getProduction().getLhs().symbol().equals(Config.GRAMMAR_ARGUMENT_SYMBOL) 
                     && item.getPosition() == 0
                     && grammar.isSymbolNonTerminal(item.getProduction().getRhs().get(0)[0].symbol())) {
-                        startStates.add(states.indexOf(state));
+                        startStates.add(i);
                         break;
                     }
                 }
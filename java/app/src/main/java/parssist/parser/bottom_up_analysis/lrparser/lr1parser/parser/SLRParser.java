@@ -5,10 +5,15 @@ import parssist.lexer.util.Token;
 import parssist.lexer.util.TokenType;
 import parssist.parser.bottom_up_analysis.lrparser.lr1parser.parser.exception.NoSLR1GrammarException;
 import parssist.parser.util.Grammar;
-import parssist.parser.util.Grammar.Item;
+import parssist.parser.util.GrammarAnalysis;
+import parssist.parser.util.LR0Automaton;
+import parssist.parser.util.LR0Items;
+import parssist.parser.util.ParallelRangeRunner;
+import parssist.parser.util.RangeRunner;
+import parssist.parser.util.SymbolTable;
 
-import java.util.List;
-import java.util.Set;
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
 
 
 /**
@@ -20,7 +25,7 @@ public class SLRParser extends LRParser {
      * @param grammar The grammar to parse.
      * @param w The input string.
      */
-    public SLRParser(final Grammar grammar, final String w) {
+    public SLRParser(final Grammar grammar, final CharSequence w) {
         super(grammar, w);
     }
 
@@ -36,129 +41,78 @@ public class SLRParser extends LRParser {
     /**
      * Creates a SLR parse table.
      * Startstate of the parser is the set of items of the augmented grammar with the item [S' -> .S].
+     * The shifts and gotos are read from the goto graph of the canonical collection (see {@link Grammar#getAutomaton()}),
+     * the reductions from the FOLLOW table of the grammar, so every cell is filled once per item.
      * @throws NoSLR1GrammarException if the grammar is not SLR(1). Its not possible to create a SLR(1) parse table for the given grammar.
      */
-    @Override public LRParseTable createParseTable() throws NoSLR1GrammarException {        
-        final List<List<Item>> C = grammar.elements();
-        final Action[][] actions = new Action[C.size()][grammar.getAlphabet().size()];
-        final int[][] gotos = new int[C.size()][grammar.getVocabulary().size()];
-
-        for(int i = 0; i < C.size(); i++) {
-            for(final Item item : C.get(i)) {
-                for(int j = 0; j < C.size(); j++) {
-                    if(isShiftPossible(item, C.get(i), C.get(j))) {
-                        Token token = null;
-
-                        if(item.getPosition() >= item.getProduction().getRhs().get(0).length) token = new Token(new TokenType(Config.LEXER_EMPTY_SYMBOL, "", 0, false), Grammar.EMPTY_SYMBOL);
-                        else token = item.getProduction().getRhs().get(0)[item.getPosition()];
-
-                        final int a = grammar.getAlphabet().indexOf(token);
-                        if(a >= 0) {
-                            if(actions[i][a] != null && actions[i][a].type != Action.Type.ERROR && actions[i][a].type != Action.Type.SHIFT) throw new NoSLR1GrammarException(Config.BOTTOM_UP_PARSER_ERROR_NO_SLR1_GRAMMAR);
-
-                            actions[i][a] = new Action(Action.Type.SHIFT, j);
-                        }
-                    } 
-
-                    for(final Token A : grammar.getVocabulary()) {
-                        final List<Item> $Ij = grammar.goTo(C.get(i), A);
-
-                        boolean equals = true;
-
-                        if($Ij.size() == C.get(j).size()) {
-                            for(final Item $item : C.get(j)) {
-                                if(!$Ij.contains($item)) {
-                                    equals = false;
-                                    break;
-                                }
-                            }
-                        } else equals = false;
-
-                        if(equals) gotos[i][grammar.getVocabulary().indexOf(A)] = j;
-                    }
-                }
-                if(isReductionPossible(item, C.get(i))) {
-                    final Set<Token> follow = grammar.follow(item.getProduction().getLhs().symbol(), item.getProduction().getLhs().symbol());
-
-                    for(final Token token : follow) {
-                        final int a = grammar.getAlphabet().indexOf(token);
-
-                        if(a >= 0) {
-                            if(actions[i][a] != null && actions[i][a].type != Action.Type.ERROR && actions[i][a].type != Action.Type.REDUCE) throw new NoSLR1GrammarException(Config.BOTTOM_UP_PARSER_ERROR_NO_SLR1_GRAMMAR);
-                            actions[i][a] = new Action(Action.Type.REDUCE, grammar.getProductions().indexOf(item.getProduction()));
-                        }
-                    }
-                } else if(isAcceptPossible(item, C.get(i))) {
-                    final int a = grammar.getAlphabet().indexOf(new Token(new TokenType(Config.LEXER_EMPTY_SYMBOL, "", 0, false), Grammar.EMPTY_SYMBOL));
-
-                    if(a >= 0) {
-                        if(actions[i][a] != null && actions[i][a].type != Action.Type.ERROR && actions[i][a].type != Action.Type.ACCEPT) throw new NoSLR1GrammarException(Config.BOTTOM_UP_PARSER_ERROR_NO_SLR1_GRAMMAR);
-
-                        actions[i][a] = new Action(Action.Type.ACCEPT, 0);
-                    }
-                }
-            }
-        }
-
-        for(int i = 0; i < actions.length; i++) {
-            for(int j = 0; j < actions[i].length; j++) {
-                if(actions[i][j] == null) actions[i][j] = new Action(Action.Type.ERROR, 0);
-            }
-        }
+    @Override public LRParseTable createParseTable() throws NoSLR1GrammarException {
+        return createParseTable(RangeRunner.SEQUENTIAL);
+    }
 
-        return new LRParseTable(grammar, actions, gotos, C, grammar.getAlphabet(), grammar.getVocabulary());
+    /**
+     * Creates a SLR parse table in parallel: the frontiers of the canonical collection are expanded and the rows are filled on a pool.
+     * The table is identical to the one of {@link SLRParser#createParseTable()}.
+     * @param pool The pool.
+     * @return The parse table.
+     * @throws NoSLR1GrammarException if the grammar is not SLR(1).
+     */
+    public LRParseTable createParseTableParallel(final ForkJoinPool pool) throws NoSLR1GrammarException {
+        return createParseTable(new ParallelRangeRunner(pool));
     }
 
 
     /**
-     * Check if shift is possible.
-     * @param item The current item.
-     * @param Ii The current set of items.
-     * @param Ij The next set of items.
-     * @return True if shift is possible, false otherwise.
+     * Creates a SLR parse table, the frontiers of the canonical collection are expanded and the rows are filled by a runner.
+     * Every row only reads the automaton and FOLLOW of the analysis and only writes its own cells, so the rows are independent.
+     * @param runner The runner.
+     * @return The parse table.
+     * @throws NoSLR1GrammarException if the grammar is not SLR(1).
      */
-    private boolean isShiftPossible(final Item item, final List<Item> Ii, final List<Item> Ij) {
-        Token a = null;
-        boolean jumpState = true;
+    private LRParseTable createParseTable(final RangeRunner runner) throws NoSLR1GrammarException {
+        final LR0Automaton automaton = grammar.getAutomaton(runner);
+        final LR0Items items = automaton.getItemTable();
+        final SymbolTable symbols = automaton.getSymbolTable();
+        final GrammarAnalysis analysis = grammar.getAnalysis();
+        final int terminals = symbols.getTerminalCount();
+        final int end = symbols.getTerminal(new Token(new TokenType(Config.LEXER_EMPTY_SYMBOL, "", 0, false), Grammar.EMPTY_SYMBOL));
+        final Action[][] actions = new Action[automaton.getStateCount()][terminals];
+        final int[][] gotos = new int[automaton.getStateCount()][symbols.getNonterminalCount()];
+        final boolean[] conflicts = new boolean[actions.length];
+
+        runner.run(0, actions.length, i -> {
+            for(int a = 0; a < terminals; a++) {
+                final int j = automaton.getGoto(i, a);
+                if(j != LR0Automaton.NONE) actions[i][a] = new Action(Action.Type.SHIFT, j);
+            }
 
-        if(item.getPosition() >= item.getProduction().getRhs().get(0).length) a = new Token(new TokenType(Config.LEXER_EMPTY_SYMBOL, "", 0, false), Grammar.EMPTY_SYMBOL);
-        else a = item.getProduction().getRhs().get(0)[item.getPosition()];
+            for(int A = 0; A < gotos[i].length; A++) {
+                final int j = automaton.getGoto(i, terminals + A);
+                if(j != LR0Automaton.NONE) gotos[i][A] = j;
+            }
+
+            for(final int item : automaton.getItems(i)) {
+                if(!items.isComplete(item)) continue;
 
-        if(!grammar.isSymbolTerminal(a.symbol())) return false;
+                final int production = items.getProduction(item);
+                final Token lhs = items.getProductions().get(production).getLhs();
 
-        final List<Item> goto_Ii = grammar.goTo(Ii, a);
+                if(!lhs.equals(grammar.getStartsymbol())) {
+                    final BitSet columns = analysis.getFollow(symbols.getNonterminal(lhs.symbol()));
+                    final Action reduce = new Action(Action.Type.REDUCE, production);
 
-        if(Ij.size() == goto_Ii.size()) {
-            for(final Item $item : Ij) {
-                if(!goto_Ii.contains($item)) {
-                    jumpState = false;
-                    break;
+                    for(int a = columns.nextSetBit(0); a >= 0 && a < terminals; a = columns.nextSetBit(a + 1)) conflicts[i] |= !setAction(actions, i, a, reduce);
+                } else if(items.getDot(item) == items.getRhs(production).length && end >= 0) {
+                    conflicts[i] |= !setAction(actions, i, end, new Action(Action.Type.ACCEPT, 0));
                 }
             }
-        } else jumpState = false;
+        });
 
-        return Ii.contains(item) && jumpState;
-    }
+        for(final boolean conflict : conflicts) {
+            if(conflict) throw new NoSLR1GrammarException(Config.BOTTOM_UP_PARSER_ERROR_NO_SLR1_GRAMMAR);
+        }
 
-    /**
-     * Check if reduction is possible.
-     * @param item The current item.
-     * @param Ii The current set of items.
-     * @return True if reduction is possible, false otherwise.
-     */
-    private boolean isReductionPossible(final Item item, final List<Item> Ii) {
-        final Token lhs = item.getProduction().getLhs();
-        
-        return Ii.contains(item) && !lhs.equals(grammar.getStartsymbol()) && (item.getPosition() == item.getProduction().getRhs().get(0).length || item.getProduction().getRhs().get(0)[item.getPosition()].symbol().equals(Grammar.EMPTY_SYMBOL));
-    }
+        fillErrors(actions);
 
-    /**
-     * Check if accept is possible.
-     * @param item The current item.
-     * @param Ii The current set of items.
-     * @return True if accept is possible, false otherwise.
-     */
-    private boolean isAcceptPossible(final Item item, final List<Item> Ii) {
-        return Ii.contains(item) && item.getProduction().getLhs().equals(grammar.getStartsymbol()) && item.getPosition() == item.getProduction().getRhs().get(0).length;
+        return new LRParseTable(grammar, actions, gotos, automaton.toItemSets(), grammar.getAlphabet(), grammar.getVocabulary());
     }
 }
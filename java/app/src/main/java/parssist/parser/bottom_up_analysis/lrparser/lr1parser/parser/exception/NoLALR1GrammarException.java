@@ -0,0 +1,15 @@
+package parssist.parser.bottom_up_analysis.lrparser.lr1parser.parser.exception;
+
+
+/**
+ * Exception for no LALR(1) grammar.
+ */
+public class NoLALR1GrammarException extends Exception {
+   public NoLALR1GrammarException() {
+       super();
+   }
+
+   public NoLALR1GrammarException(String message) {
+       super(message);
+   }
+}
\ No newline at end of file
@@ -0,0 +1,15 @@
+package parssist.parser.bottom_up_analysis.lrparser.lr1parser.parser.exception;
+
+
+/**
+ * Exception for no LR(1) grammar.
+ */
+public class NoLR1GrammarException extends Exception {
+   public NoLR1GrammarException() {
+       super();
+   }
+
+   public NoLR1GrammarException(String message) {
+       super(message);
+   }
+}
\ No newline at end of file
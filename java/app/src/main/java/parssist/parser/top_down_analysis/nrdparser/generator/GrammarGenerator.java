@@ -4,16 +4,16 @@ import java.io.IOException;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import javax.annotation.Nullable;
 
 import parssist.Config;
 import parssist.lexer.Lexer;
+import parssist.lexer.LexerSpec;
 import parssist.lexer.exception.InvalidLexFormatException;
 import parssist.lexer.exception.InvalidTokenException;
 import parssist.lexer.util.Token;
+import parssist.lexer.util.TokenMatcher;
 import parssist.lexer.util.TokenType;
 import parssist.parser.top_down_analysis.nrdparser.generator.exception.ParseException;
 import parssist.parser.util.Grammar;
@@ -24,10 +24,13 @@ import parssist.parser.util.Production;
  * Class to generate the {@link parssist.parser.util.Grammar grammar}.
  */
 public class GrammarGenerator {
+    private static LexerSpec defaultSpec;
+
     private String lex;
-    private String grammar;
+    private CharSequence grammar;
     private List<TokenType> userTokenTypes;
     private boolean preproc;
+    private int cursor;
 
     private List<Token> vocabulary;
     private List<Token> alphabet;
@@ -43,7 +46,7 @@ public class GrammarGenerator {
      * @param preproc If the grammar should be preprocessed.
      * @throws IOException If the grammar lex couldn't be read.
      */
-    public GrammarGenerator(final String grammar, final List<TokenType> userTokenTypes, final boolean preproc) throws IOException {
+    public GrammarGenerator(final CharSequence grammar, final List<TokenType> userTokenTypes, final boolean preproc) throws IOException {
         this.grammar = grammar;
         this.userTokenTypes = userTokenTypes;
         this.preproc = preproc;
@@ -58,7 +61,7 @@ public class GrammarGenerator {
      * @param userTokenTypes The user defined token types.
      * @throws IOException If the grammar lex couldn't be read.
      */
-    public GrammarGenerator(final String grammar, final List<TokenType> userTokenTypes) throws IOException {
+    public GrammarGenerator(final CharSequence grammar, final List<TokenType> userTokenTypes) throws IOException {
         this(grammar, userTokenTypes, true);
     }
   
@@ -67,7 +70,7 @@ public class GrammarGenerator {
         return lex;
     }
 
-    public String getGrammar() {
+    public CharSequence getGrammar() {
         return grammar;
     }
 
@@ -83,7 +86,7 @@ public class GrammarGenerator {
         this.lex = lex;
     }
 
-    public void setGrammar(final String grammar) {
+    public void setGrammar(final CharSequence grammar) {
         this.grammar = grammar;
     }
 
@@ -105,10 +108,9 @@ public class GrammarGenerator {
      * @throws ParseException If the grammar couldn't be parsed.
      */
     public Grammar generate() throws IOException, InvalidLexFormatException, InvalidTokenException, ParseException {
-        final Lexer lexer = new Lexer(lex);
+        final Lexer lexer = new Lexer(compileLex());
 
         lexer.setCode(grammar);
-        lexer.parseTokens(lex);
 
         final List<Token> tokens = lexer.tokenize();
         final List<TokenType> tokenTypes = lexer.getTokenTypes();
@@ -120,6 +122,21 @@ public class GrammarGenerator {
     }
 
 
+    /**
+     * Compile the grammar lex. The spec of the default grammar lex is compiled only once and shared by all generators.
+     * @return The compiled grammar lex.
+     * @throws InvalidLexFormatException If the lex is invalid.
+     */
+    private LexerSpec compileLex() throws InvalidLexFormatException {
+        if(!lex.equals(Config.NONREC_PARSER_GRAMMARGENERATOR_INIT_INPUT_LEX)) return LexerSpec.compile(lex);
+
+        synchronized(GrammarGenerator.class) {
+            if(defaultSpec == null) defaultSpec = LexerSpec.compile(lex);
+
+            return defaultSpec;
+        }
+    }
+
     /**
      * Handcoded parser. In the future this could also be done by inventing a grammar and put it in the created parsergenerator.
      * Parse the grammar and puts the result into the fields.
@@ -128,6 +145,8 @@ public class GrammarGenerator {
      * @throws ParseException If the grammar couldn't be parsed.
      */
     private void parseGrammar(final List<Token> tokens, final List<TokenType> tokenTypes) throws ParseException {
+        final TokenMatcher grammarMatcher = new TokenMatcher(tokenTypes, grammar);
+        final TokenMatcher ruleMatcher = new TokenMatcher(userTokenTypes, "");
         Token currentToken = null;
         Token nonTerminalToken = null;
         int priority = 0;
@@ -135,16 +154,17 @@ public class GrammarGenerator {
         vocabulary = new ArrayList<>();
         alphabet = new ArrayList<>();
         productions = new ArrayList<>();
+        cursor = 0;
 
-        while(!grammar.isEmpty() && (currentToken = eat(tokenTypes)) != null) {
+        while(cursor < grammar.length() && (currentToken = eat(grammarMatcher)) != null) {
             if(currentToken.tokenType().ignore()) continue;
 
             if(currentToken.tokenType().name().equals(Config.GRAMMAR_TOKEN_NONTERMINAL)) nonTerminalToken = currentToken;  
             else if(currentToken.tokenType().name().equals(Config.GRAMMAR_TOKEN_PRODUCTION_RULE) && nonTerminalToken != null) {
                 do {
-                    parseProduction(nonTerminalToken, currentToken, priority);
-                } while(!grammar.isEmpty() 
-                    && (currentToken = eat(tokenTypes)) != null 
+                    parseProduction(nonTerminalToken, currentToken, priority, ruleMatcher);
+                } while(cursor < grammar.length() 
+                    && (currentToken = eat(grammarMatcher)) != null 
                     && currentToken.tokenType().name().equals(Config.GRAMMAR_TOKEN_PRODUCTION_RULE)
                 );
 
@@ -177,9 +197,10 @@ public class GrammarGenerator {
      * @param nonterminal The nonterminal of the lhs.
      * @param rule The rule of the rhs.
      * @param priority The priority of the production.
+     * @param ruleMatcher The matcher of the user defined token types.
      * @throws ParseException If the production couldn't be parsed.
      */
-    private void parseProduction(final Token nonterminal, final Token rule, final int priority) throws ParseException {
+    private void parseProduction(final Token nonterminal, final Token rule, final int priority, final TokenMatcher ruleMatcher) throws ParseException {
         if(!rule.tokenType().name().equals(Config.GRAMMAR_TOKEN_PRODUCTION_RULE)) throw new ParseException(Config.GRAMMAR_TOKEN_ERROR_PRODUCTION_RULE);
         
         final List<Token> catchedTokens = new ArrayList<>();
@@ -187,8 +208,10 @@ public class GrammarGenerator {
         
         int ip = 0;
 
+        ruleMatcher.reset(ruleString);
+
         while(ip < ruleString.length()) {
-            final Token token = getNextToken(ip, ruleString, userTokenTypes);
+            final Token token = ruleMatcher.longestMatch(ip);
 
             if(token == null) throw new ParseException(Config.GRAMMAR_TOKEN_ERROR_PRODUCTION_RULE);
 
@@ -212,51 +235,16 @@ public class GrammarGenerator {
     }
 
     /**
-     * Matches {@link grammar}.
-     * @param tokenTypes The token types to match.
+     * Matches {@link grammar} at {@link cursor} and moves the cursor behind the token.
+     * @param grammarMatcher The matcher of the token types on {@link grammar}.
      * @return The next token from {@link grammar} or null if there is no next or unknown token.
      */
-    private @Nullable Token eat(final List<TokenType> tokenTypes) {
-        for(final TokenType tokenType : tokenTypes) {
-            final Pattern pattern = Pattern.compile(Config.LEXER_REGEX_STARTSYMBOL + tokenType.regex());
-            final Matcher matcher = pattern.matcher(this.grammar);
-
-            if(matcher.find()) {
-                final String value = matcher.group();
-                this.grammar = this.grammar.substring(value.length());
-                return new Token(tokenType, value);
-            }
-        }
-
-        return null;
-    }
-
-    /**
-     * Get the next token from a input string.
-     * Maybe sort by priority of the token types in the future.
-     * It differs from the {@link GrammarGenerator#eat(List)} function, because it doesn't consume the input string.
-     * @param ip The input position.
-     * @param w$ The input string.
-     * @param tokenTypes The token types to match.
-     * @return The next token from the input buffer or null.
-     */
-    private @Nullable Token getNextToken(final int ip, final String w$, final List<TokenType> tokenTypes) {
-        final String tempW$ = w$.substring(ip);
-        Token tempToken = null;
-
-        for(final TokenType tokenType : tokenTypes) { 
-            final Pattern pattern = Pattern.compile(Config.LEXER_REGEX_STARTSYMBOL + "(" +  tokenType.regex() + ")");
-            final Matcher matcher = pattern.matcher(tempW$);
-
-            if(matcher.find()) {
-                final String value = matcher.group();
-                final Token token = new Token(tokenType, value);
+    private @Nullable Token eat(final TokenMatcher grammarMatcher) {
+        final Token token = grammarMatcher.firstMatch(cursor);
 
-                if((tempToken != null && token.symbol().length() > tempToken.symbol().length()) || tempToken == null) tempToken = token;
-            }
-        }
+        if(token != null) cursor += token.symbol().length();
 
-        return tempToken;
+        return token;
     }
 
     /**
@@ -1,24 +1,30 @@
 package parssist.parser.top_down_analysis.nrdparser.parser;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ForkJoinPool;
 import java.util.regex.PatternSyntaxException;
 
 import javax.annotation.Nullable;
 
 import parssist.Config;
+import parssist.lexer.util.LineIndex;
 import parssist.lexer.util.Token;
+import parssist.lexer.util.TokenMatcher;
 import parssist.lexer.util.TokenType;
 import parssist.parser.Parser;
 import parssist.parser.top_down_analysis.nrdparser.parser.exception.NoLL1GrammarException;
 import parssist.parser.top_down_analysis.nrdparser.parser.exception.NonRecursivePredictiveParseException;
 import parssist.parser.util.Grammar;
+import parssist.parser.util.InputBuffer;
+import parssist.parser.util.ParallelRangeRunner;
 import parssist.parser.util.Production;
+import parssist.parser.util.RangeRunner;
 import parssist.parser.util.Stack;
+import parssist.parser.util.SymbolTable;
 import parssist.parser.util.tree.ParseTreeNode;
 import parssist.parser.util.tree.visitor.JsonLikeTreeVisitor;
 
@@ -34,7 +40,9 @@ public class TabledrivenPredictiveParser extends Parser {
     private final List<Production>[][] parseTable;
 
     private Stack<ParseTreeNode> stack;
-    private String w$;
+    private InputBuffer w$;
+    private LineIndex lines;
+    private final TokenMatcher tokenMatcher;
     private ParseTreeNode root;
 
 
@@ -48,11 +56,41 @@ public class TabledrivenPredictiveParser extends Parser {
      * @throws PatternSyntaxException If there was a stack overflow exception during compilation.
      * @throws StackOverflowError If there was a stack overflow exception.
      */
-    public TabledrivenPredictiveParser(final Grammar grammar, final String w) throws IllegalArgumentException, IndexOutOfBoundsException, PatternSyntaxException, StackOverflowError {
+    public TabledrivenPredictiveParser(final Grammar grammar, final CharSequence w) throws IllegalArgumentException, IndexOutOfBoundsException, PatternSyntaxException, StackOverflowError {
+        this(grammar, w, RangeRunner.SEQUENTIAL);
+    }
+
+    /**
+     * Create a new non-recursive predictive parser, whose parse table rows are filled in parallel on a pool.
+     * The parse table is identical to the one of {@link TabledrivenPredictiveParser#TabledrivenPredictiveParser(Grammar, CharSequence)}.
+     * @param grammar The grammar, which the parser is working.
+     * @param w The input string.
+     * @param pool The pool.
+     * @throws IllegalArgumentException If the grammar is not preprocessed.
+     * @throws IndexOutOfBoundsException If the index is out of bounds.
+     * @throws PatternSyntaxException If there was a stack overflow exception during compilation.
+     * @throws StackOverflowError If there was a stack overflow exception.
+     */
+    public TabledrivenPredictiveParser(final Grammar grammar, final CharSequence w, final ForkJoinPool pool) throws IllegalArgumentException, IndexOutOfBoundsException, PatternSyntaxException, StackOverflowError {
+        this(grammar, w, new ParallelRangeRunner(pool));
+    }
+
+    /**
+     * Create a new non-recursive predictive parser, whose parse table rows are filled by a runner.
+     * @param grammar The grammar, which the parser is working.
+     * @param w The input string.
+     * @param runner The runner.
+     * @throws IllegalArgumentException If the grammar is not preprocessed.
+     * @throws IndexOutOfBoundsException If the index is out of bounds.
+     * @throws PatternSyntaxException If there was a stack overflow exception during compilation.
+     * @throws StackOverflowError If there was a stack overflow exception.
+     */
+    private TabledrivenPredictiveParser(final Grammar grammar, final CharSequence w, final RangeRunner runner) throws IllegalArgumentException, IndexOutOfBoundsException, PatternSyntaxException, StackOverflowError {
         this.grammar = grammar;
 
-        this.parseTable = createParseTable(grammar);
+        this.parseTable = createParseTable(grammar, runner);
         this.root = new ParseTreeNode(grammar.getStartsymbol());
+        this.tokenMatcher = new TokenMatcher(grammar.getTokentypes().stream().filter(e -> !e.name().equals(Config.LEXER_NONTERMINAL)).toList(), "");
 
         setInputString(w);
         resetStack();
@@ -71,7 +109,7 @@ public class TabledrivenPredictiveParser extends Parser {
     }  
 
 
-    @Override public ParseTreeNode parse(final String w) throws NonRecursivePredictiveParseException, NoLL1GrammarException, IndexOutOfBoundsException {
+    @Override public ParseTreeNode parse(final CharSequence w) throws NonRecursivePredictiveParseException, NoLL1GrammarException, IndexOutOfBoundsException {
         setInputString(w);
         resetStack();
         computeSystemAnalysis();
@@ -85,7 +123,7 @@ public class TabledrivenPredictiveParser extends Parser {
      * @return The input string.
      */ 
     public String getInputString() {
-        return w$.substring(0, w$.length() - 1);
+        return w$.subSequence(0, w$.length() - 1).toString();
     }
 
     /**
@@ -93,10 +131,12 @@ public class TabledrivenPredictiveParser extends Parser {
      * @param w The input string.
      * @throws NullPointerException If the input string is null.
      */
-    public void setInputString(final String w) throws NullPointerException {
+    public void setInputString(final CharSequence w) throws NullPointerException {
         Objects.requireNonNull(w);
 
-        this.w$ = w + Grammar.EMPTY_SYMBOL + Grammar.EMPTY_SYMBOL;
+        this.w$ = new InputBuffer(w, Grammar.EMPTY_SYMBOL + Grammar.EMPTY_SYMBOL);
+        this.lines = new LineIndex(w$);
+        tokenMatcher.reset(w$);
     }
 
     public ParseTreeNode getRoot() {
@@ -158,6 +198,8 @@ public class TabledrivenPredictiveParser extends Parser {
     public boolean computeSystemAnalysis() throws NonRecursivePredictiveParseException, NoLL1GrammarException, IndexOutOfBoundsException {
         if(!isLL1(parseTable)) throw new NoLL1GrammarException(Config.NONREC_PARSER_ERROR_NO_LL1_GRAMMAR);
 
+        final SymbolTable symbols = grammar.getSymbolTable();
+
         root.cleanChildren();
 
         int ip = 0; // first symbol of w$
@@ -169,14 +211,15 @@ public class TabledrivenPredictiveParser extends Parser {
             a = new ParseTreeNode(getNextToken(ip));
             cursor = X;
             
-            if(a.getToken() == null) throw new NonRecursivePredictiveParseException(Config.NONREC_PARSER_ERROR_INVALID_TOKEN + " " + ip + " " + w$);
+            if(a.getToken() == null) throw new NonRecursivePredictiveParseException(Config.NONREC_PARSER_ERROR_INVALID_TOKEN + " " + ip + " (" + lines.format(ip) + ")");
+            a.setPosition(ip, lines);
 
             if(a.getToken().tokenType().ignore() && ip < w$.length() - 1) { // ignore token (e.g. whitespace, empty symbol except the last one ...) 
                 ip += a.getToken().symbol().length();
                 continue;
             }
 
-            if(grammar.isSymbolTerminal(X.getToken().symbol()) || X.getToken().symbol().equals(Grammar.EMPTY_SYMBOL)) {
+            if(symbols.isTerminal(X.getToken().symbol()) || X.getToken().symbol().equals(Grammar.EMPTY_SYMBOL)) {
                 if(X.equals(a)) {
                     stack.pop();
 
@@ -186,7 +229,7 @@ public class TabledrivenPredictiveParser extends Parser {
                 } else throw new NonRecursivePredictiveParseException(Config.NONREC_PARSER_ERROR_EMPTY_SYMBOL + stack + " " + a.getToken().symbol() + " " + ip);
             } else { 
                 try {
-                    final Production production = parseTable[grammar.getVocabulary().indexOf(X.getToken())][grammar.getAlphabet().indexOf(a.getToken())].get(0);
+                    final Production production = parseTable[symbols.getNonterminal(X.getToken())][symbols.getTerminal(a.getToken())].get(0);
 
                     if(production == null) throw new NonRecursivePredictiveParseException(Config.NONREC_PARSER_ERROR_NO_PRODUCTION);
 
@@ -245,8 +288,24 @@ public class TabledrivenPredictiveParser extends Parser {
      * @throws PatternSyntaxException If there was a stack overflow exception during compilation.
      * @throws StackOverflowError If there was a stack overflow exception.
      */
-    @SuppressWarnings("unchecked") 
     List<Production>[][] createParseTable(final Grammar grammar) throws IllegalArgumentException, IndexOutOfBoundsException, PatternSyntaxException, StackOverflowError {
+        return createParseTable(grammar, RangeRunner.SEQUENTIAL);
+    }
+
+    /**
+     * Creates a LL(1) parse table, whose rows are filled by a runner (see {@link TabledrivenPredictiveParser#createParseTable(Grammar)}).
+     * FIRST and FOLLOW of all nonterminals are looked up before, so a row only reads them and writes its own cells.
+     * If a nonterminal is in the vocabulary more than once, its row is filled by the task of its first occurrence (in the order of the vocabulary).
+     * @param grammar The grammar.
+     * @param runner The runner.
+     * @return The parse table.
+     * @throws IllegalArgumentException If the grammar is not preprocessed.
+     * @throws IndexOutOfBoundsException If the index is out of bounds.
+     * @throws PatternSyntaxException If there was a stack overflow exception during compilation.
+     * @throws StackOverflowError If there was a stack overflow exception.
+     */
+    @SuppressWarnings("unchecked") 
+    List<Production>[][] createParseTable(final Grammar grammar, final RangeRunner runner) throws IllegalArgumentException, IndexOutOfBoundsException, PatternSyntaxException, StackOverflowError {
         if(!grammar.isPreproc()) throw new IllegalArgumentException(Config.NONREC_PARSER_ERROR_PREPROCESSED);
 
         final List<Production>[][] parseTable = new ArrayList[grammar.getVocabulary().size()][grammar.getAlphabet().size()];
@@ -257,42 +316,74 @@ public class TabledrivenPredictiveParser extends Parser {
             }
         }
 
-        for(final Token nonTerminal : grammar.getVocabulary()) {
-            Set<Token> first = grammar.first(nonTerminal.symbol());
-            Set<Token> follow = grammar.follow(nonTerminal.symbol(), nonTerminal.symbol());
-
-            for(final Production production : grammar.getProductions()) {
-                if(production.getLhs().equals(nonTerminal)) { // Gets all productions of a certain non terminal
-                    for(final Token terminal : first) {
-                        if(!production.hasEmptySymbol() && !terminal.equals(new Token(new TokenType(Config.LEXER_EMPTY_SYMBOL, Grammar.EMPTY_SYMBOL, 0, false), Grammar.EMPTY_SYMBOL))) {
-                            ArrayList<Production> productions = (ArrayList<Production>) parseTable[grammar.getVocabulary().indexOf(nonTerminal)][grammar.getAlphabet().indexOf(terminal)];
-                            
-                            if(checkProductionNotInList(productions, production) && (production.getRhs().get(0)[0].tokenType().name().equals(Config.LEXER_TERMINAL) ? terminal.equals(production.getRhs().get(0)[0]) : true)){
-                                productions.add(production);
-                            }
-                        } 
-                    }
+        final SymbolTable symbols = grammar.getSymbolTable();
+        final List<Token> vocabulary = grammar.getVocabulary();
+        final List<Set<Token>> first = new ArrayList<>(vocabulary.size());
+        final List<Set<Token>> follow = new ArrayList<>(vocabulary.size());
+        final int[] rows = new int[vocabulary.size()];
+        final int[] next = new int[vocabulary.size()]; // next occurrence of the same nonterminal or -1
+        final int[] last = new int[vocabulary.size()];
+
+        Arrays.fill(next, -1);
+        Arrays.fill(last, -1);
 
-                    if(hasSetEmptySymbol(first)) {
-                        for(final Token terminal : follow) {
-                            ArrayList<Production> productions = (ArrayList<Production>)parseTable[grammar.getVocabulary().indexOf(nonTerminal)][grammar.getAlphabet().indexOf(terminal)];
+        for(int n = 0; n < vocabulary.size(); n++) {
+            first.add(grammar.first(vocabulary.get(n).symbol()));
+            follow.add(grammar.follow(vocabulary.get(n).symbol()));
+            rows[n] = symbols.getNonterminal(vocabulary.get(n));
+
+            if(last[rows[n]] >= 0) next[last[rows[n]]] = n;
+            last[rows[n]] = n;
+        }
 
-                            if(checkProductionNotInList(productions, production)) {
-                                Token[] tokens = new Token[]{new Token(new TokenType(Config.LEXER_EMPTY_SYMBOL, Grammar.EMPTY_SYMBOL, 0, false),  Grammar.EMPTY_SYMBOL)};
-                                List<Token[]> rhs = new ArrayList<>();
-                                rhs.add(tokens);
-                                productions.add(new Production(production.getLhs(), rhs));
-                            }
+        runner.run(0, vocabulary.size(), n -> {
+            if(rows[n] != n) return;
+
+            for(int m = n; m >= 0; m = next[m]) fillRow(grammar, parseTable[n], vocabulary.get(m), first.get(m), follow.get(m), symbols);
+        });
+
+        return parseTable;
+    }
+
+
+    /**
+     * Fills the row of a nonterminal of a LL(1) parse table.
+     * @param grammar The grammar.
+     * @param row The row.
+     * @param nonTerminal The nonterminal.
+     * @param first FIRST of the nonterminal.
+     * @param follow FOLLOW of the nonterminal.
+     * @param symbols The symbol table of the grammar.
+     */
+    private void fillRow(final Grammar grammar, final List<Production>[] row, final Token nonTerminal, final Set<Token> first, final Set<Token> follow, final SymbolTable symbols) {
+        for(final Production production : grammar.getProductions()) {
+            if(production.getLhs().equals(nonTerminal)) { // Gets all productions of a certain non terminal
+                for(final Token terminal : first) {
+                    if(!production.hasEmptySymbol() && !terminal.equals(new Token(new TokenType(Config.LEXER_EMPTY_SYMBOL, Grammar.EMPTY_SYMBOL, 0, false), Grammar.EMPTY_SYMBOL))) {
+                        ArrayList<Production> productions = (ArrayList<Production>) row[symbols.getTerminal(terminal)];
+                        
+                        if(checkProductionNotInList(productions, production) && (production.getRhs().get(0)[0].tokenType().name().equals(Config.LEXER_TERMINAL) ? terminal.equals(production.getRhs().get(0)[0]) : true)){
+                            productions.add(production);
+                        }
+                    } 
+                }
+
+                if(hasSetEmptySymbol(first)) {
+                    for(final Token terminal : follow) {
+                        ArrayList<Production> productions = (ArrayList<Production>) row[symbols.getTerminal(terminal)];
+
+                        if(checkProductionNotInList(productions, production)) {
+                            Token[] tokens = new Token[]{new Token(new TokenType(Config.LEXER_EMPTY_SYMBOL, Grammar.EMPTY_SYMBOL, 0, false),  Grammar.EMPTY_SYMBOL)};
+                            List<Token[]> rhs = new ArrayList<>();
+                            rhs.add(tokens);
+                            productions.add(new Production(production.getLhs(), rhs));
                         }
                     }
                 }
             }
         }
-
-        return parseTable;
     }
 
-
     /**
      * Update the tree.
      * @param root The root of the partition.
@@ -333,22 +424,10 @@ public class TabledrivenPredictiveParser extends Parser {
     /**
      * Get the next token from the input buffer.
      * Maybe sort by priority of the token types in the future.
+     * @param ip The input pointer.
      * @return The next token from the input buffer or null.
      */
     private @Nullable Token getNextToken(final int ip) {
-        final String tempW$ = w$.substring(ip);
-
-        for(final TokenType tokenType : grammar.getTokentypes()) { 
-            if(tokenType.name().equals(Config.LEXER_NONTERMINAL)) continue;
-            final Pattern pattern = Pattern.compile(Config.LEXER_REGEX_STARTSYMBOL + "(" +  tokenType.regex() + ")");
-            final Matcher matcher = pattern.matcher(tempW$);
-
-            if(matcher.find()) {
-                final String value = matcher.group();
-                return new Token(tokenType, value);
-            }
-        }
-
-        return null;
+        return tokenMatcher.firstMatch(ip);
     }
 }
\ No newline at end of file
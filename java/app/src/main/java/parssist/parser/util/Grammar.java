@@ -1,9 +1,14 @@
 package parssist.parser.util;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
@@ -32,6 +37,12 @@ public class Grammar {
 
     private Token startsymbol;
     private boolean extended;
+    private SymbolTable symbols;
+    private GrammarAnalysis analysis;
+    private LR0Items items;
+    private LR0Automaton automaton;
+    private Map<Integer, Set<Token>> firstSets;
+    private Map<Integer, Set<Token>> followSets;
 
 
     /**
@@ -111,87 +122,75 @@ public class Grammar {
     }
 
 
+    /**
+     * Get the symbol table of the grammar. It is created on the first call and renewed, when the grammar is extended.
+     * @return The symbol table.
+     */
+    public SymbolTable getSymbolTable() {
+        if(symbols == null) symbols = new SymbolTable(alphabet, vocabulary, productions);
+
+        return symbols;
+    }
+
+    /**
+     * Get the analysis of the grammar (NULLABLE, FIRST and FOLLOW). It is computed on the first call and renewed, when the grammar is extended.
+     * @return The analysis.
+     * @throws IllegalArgumentException If a symbol of a production is neither a terminal nor a non-terminal.
+     */
+    public GrammarAnalysis getAnalysis() throws IllegalArgumentException {
+        if(analysis == null) {
+            analysis = new GrammarAnalysis(this);
+            firstSets = new HashMap<>();
+            followSets = new HashMap<>();
+        }
+
+        return analysis;
+    }
+
     /**
      * FIRST(a) is the set of all terminal definitions with which a string derived from a can begin.
+     * The sets are looked up in the {@link GrammarAnalysis} of the grammar.
      * @param a The string (any sequence of grammatical symbols), which is used to get the first set.
-     * @return The first set of the given string.
+     * @return The first set of the given string (unmodifiable).
      * @throws IllegalArgumentException If the given string is not a symbol.
      */
     public Set<Token> first(final String a) throws IllegalArgumentException {
-        Set<Token> result = new HashSet<>();
-
         if(isSymbolTerminal(a)) return Set.of(new Token(new TokenType(Config.LEXER_TERMINAL, a, 0, false), a));
-        else if(isSymbolNonTerminal(a)) {
-            for(Production production : productions) {
-                if(production.getLhs().symbol().equals(a)) {
-                    List<Token[]> rhs = production.getRhs();
-
-                    for(Token[] rules : rhs) {
-                        if(rules.length == 0) continue;
-                        if(rules.length == 1 && rules[0].symbol().equals(Grammar.EMPTY_SYMBOL)) {
-                            result.add(new Token(new TokenType(Config.LEXER_EMPTY_SYMBOL, Grammar.EMPTY_SYMBOL, 0, false), Grammar.EMPTY_SYMBOL));
-                            continue;
-                        }
-                        
-                        result.addAll(first(rules[0].symbol()));
-                    }
-                }
-            }
-        } else throw new IllegalArgumentException(Config.GRAMMAR_ERROR_INVALID_SYMBOL + a);
-        
-        return result;
+
+        final GrammarAnalysis analysis = getAnalysis();
+        final int id = getSymbolTable().getNonterminal(a);
+
+        if(id < 0) throw new IllegalArgumentException(Config.GRAMMAR_ERROR_INVALID_SYMBOL + a);
+
+        return firstSets.computeIfAbsent(id, k -> Collections.unmodifiableSet(toTokens(analysis.getFirst(k), new HashSet<>())));
     }
 
     /**
      * FOLLOW(A) is the set of all terminal definitions that can follow directly after A.
      * Startsymbol S always has {@link Grammar#EMPTY_SYMBOL} in FOLLOW(S), because {@link Grammar#EMPTY_SYMBOL} is the end of the input string.
+     * The sets are looked up in the {@link GrammarAnalysis} of the grammar.
+     * @param a The symbol, which is used to get the follow set.
+     * @return The follow set of the given symbol (unmodifiable and sorted by the symbols).
+     * @throws IllegalArgumentException If the given symbol is not a non terminal symbol.
+     */
+    public Set<Token> follow(final String a) throws IllegalArgumentException {
+        final GrammarAnalysis analysis = getAnalysis();
+        final int id = getSymbolTable().getNonterminal(a);
+
+        if(id < 0) throw new IllegalArgumentException(Config.GRAMMAR_ERROR_INVALID_SYMBOL + a);
+
+        return followSets.computeIfAbsent(id, k -> Collections.unmodifiableSet(toTokens(analysis.getFollow(k), new TreeSet<>(Comparator.comparing(Token::symbol).thenComparing(e -> e.tokenType().name())))));
+    }
+
+    /**
+     * FOLLOW(A) is the set of all terminal definitions that can follow directly after A (see {@link Grammar#follow(String)}).
      * @param a The symbol, which is used to get the follow set.
-     * @param a_ The symbol, which is used to get the follow set. This is needed to prevent left recursion.
+     * @param a_ Not needed anymore, because the analysis doesn't recurse.
      * @return The follow set of the given symbol.
      * @throws IllegalArgumentException If the given symbol is not a non terminal symbol.
      */
     public Set<Token> follow(final String a, final String a_) throws IllegalArgumentException {
-        Comparator<Token> tokenComparator = Comparator
-                .comparing(Token::symbol)
-                .thenComparing(e -> e.tokenType().name());
-        Set<Token> result = new TreeSet<>(tokenComparator);
-        
-        if(a.equals(startsymbol.symbol())) result.add(new Token(new TokenType(Config.LEXER_EMPTY_SYMBOL, Grammar.EMPTY_SYMBOL, 0, false), Grammar.EMPTY_SYMBOL));
-
-        if(isSymbolNonTerminal(a)) {
-            for(Production production : productions) {
-                List<Token[]> rhs = production.getRhs();
-                
-                for(Token[] rules : rhs) {
-                    if(rules.length == 1 && rules[0].symbol().equals(Grammar.EMPTY_SYMBOL)) continue;
-                    
-                    for(int i = 0; i < rules.length; i++) {
-                        if(rules[i].symbol().equals(a)) {
-                            if(i == rules.length - 1) { // There isnt anything to follow => check if lhs != rhs
-                                if(!production.getLhs().symbol().equals(a) && !production.getLhs().symbol().equals(a_)) result.addAll(follow(production.getLhs().symbol(), a_));
-                            } 
-                            else {
-                                if(isSymbolNonTerminal(rules[i + 1].symbol())) {
-                                    final Set<Token> first = first(rules[i + 1].symbol());
-
-                                    for(Token token : first) {
-                                        if(token.symbol().equals(Grammar.EMPTY_SYMBOL)) {
-                                            if(i + 2 < rules.length) result.addAll(follow(rules[i + 2].symbol(), a_));
-                                            else if(!production.getLhs().symbol().equals(a)) result.addAll(follow(production.getLhs().symbol(), a_));
-                                        } else result.add(token);
-                                    }
-                                }
-                                else if(isSymbolTerminal(rules[i + 1].symbol())) {
-                                    result.add(new Token(new TokenType(Config.LEXER_TERMINAL, rules[i + 1].symbol(), 0, false), rules[i + 1].symbol()));
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-        } else throw new IllegalArgumentException(Config.GRAMMAR_ERROR_INVALID_SYMBOL + a);
-
-        return result;
+        return follow(a);
     }
 
     /**
@@ -200,12 +199,7 @@ public class Grammar {
      * @return True if the symbol is a terminal, false otherwise.
      */
     public boolean isSymbolTerminal(final String symbol) {
-        return alphabet.stream()
-                        .map(e -> e.symbol())
-                        .anyMatch(e -> e.equals(symbol))
-            || alphabet.stream()
-                        .map(e -> e.tokenType().regex())
-                        .anyMatch(e -> symbol.matches(Config.LEXER_REGEX_STARTSYMBOL + e + Config.LEXER_REGEX_ENDSYMBOL));
+        return getSymbolTable().isTerminal(symbol);
     }
 
     /**
@@ -214,53 +208,39 @@ public class Grammar {
      * @return True if the symbol is a non-terminal, false otherwise.
      */
     public boolean isSymbolNonTerminal(final String symbol) {
-        return vocabulary.stream()
-                        .map(e -> e.symbol())
-                        .anyMatch(e -> e.equals(symbol))
-            || vocabulary.stream()
-                        .map(e -> e.tokenType().regex())
-                        .anyMatch(e -> symbol.matches(Config.LEXER_REGEX_STARTSYMBOL + e + Config.LEXER_REGEX_ENDSYMBOL));
+        return getSymbolTable().isNonterminal(symbol);
+    }
+
+    /**
+     * Get the packed LR(0) items of the grammar. They are encoded on the first call and renewed, when the grammar is extended.
+     * @return The items.
+     * @throws IllegalArgumentException If the grammar is not preprocessed.
+     */
+    public LR0Items getItems() throws IllegalArgumentException {
+        if(items == null) items = new LR0Items(this);
+
+        return items;
     }
 
     /**
      * Calculates CLOSURE(I) for the given itemset I.
      * It is the set of all items J such that (A -> a.Bb) is in J whenever (A -> a.Bb) is in I and b is in FIRST(b) and B -> .b is in I.
      * A item is represented as a 2 field object, where the first field is the production and the second field is the dot position in the rhs.
+     * The closure is computed on the packed items (see {@link LR0Items#orderedClosure(int[])}).
      * @param itemset The itemset for which the cover should be calculated.
-     * @return The cover of the given itemset.
-     * @throws IllegalArgumentException If the grammar is not preprocessed.
+     * @return The cover of the given itemset (the given items first, see {@link LR0Items#orderedClosure(int[])}).
+     * @throws IllegalArgumentException If the grammar is not preprocessed or an item isn't an item of the grammar.
      */
-    public List<Item> closure(final List<Item> I) {
-        if(!isPreproc()) throw new IllegalArgumentException(Config.NONREC_PARSER_ERROR_PREPROCESSED);
-
-        List<Item> J = new ArrayList<>();
-        boolean changed = true;
-        J.addAll(I);
-    
-        while(changed) {
-            final List<Item> toAdd = new ArrayList<>();
-
-            for(Item item : J) {
-                Token $B = null;
-
-                if(item.getPosition() >= item.getProduction().getRhs().get(0).length) $B = new Token(new TokenType(Config.LEXER_EMPTY_SYMBOL, Grammar.EMPTY_SYMBOL, 0, false), Grammar.EMPTY_SYMBOL);
-                else $B = item.getProduction().getRhs().get(0)[item.getPosition()];
-    
-                if(isSymbolNonTerminal($B.symbol())) {
-                    for(Production production : productions) {
-                        final Item newItem = new Item(production, 0);
-    
-                        if(production.getLhs().symbol().equals($B.symbol())
-                        && !J.contains(newItem)) toAdd.add(newItem);
-                    }
-                }
-            }
+    public List<Item> closure(final List<Item> I) throws IllegalArgumentException {
+        final LR0Items items = getItems();
+        final int[] kernel = new int[I.size()];
 
-            if(toAdd.size() < 1) changed = false;
-            else J.addAll(toAdd);
+        for(int i = 0; i < kernel.length; i++) {
+            kernel[i] = items.toId(I.get(i));
+            if(kernel[i] == LR0Items.NONE) throw new IllegalArgumentException(Config.GRAMMAR_ERROR_INVALID_ITEM + I.get(i));
         }
 
-        return J;
+        return items.toItems(items.orderedClosure(kernel));
     }
 
     /**
@@ -269,62 +249,58 @@ public class Grammar {
      * @param I The itemset.
      * @param X The symbol.
      * @return The goto of the given itemset and symbol.
-     * @throws IllegalArgumentException If the grammar is not preprocessed.
+     * @throws IllegalArgumentException If the grammar is not preprocessed or an item isn't an item of the grammar.
      */
-    public List<Item> goTo(final List<Item> I, final Token X) {
-        if(!isPreproc()) throw new IllegalArgumentException(Config.NONREC_PARSER_ERROR_PREPROCESSED);
+    public List<Item> goTo(final List<Item> I, final Token X) throws IllegalArgumentException {
+        final LR0Items items = getItems();
+        final int[] kernel = new int[I.size()];
+        int size = 0;
 
-        List<Item> J = new ArrayList<>();
-
-        for(Item item : I) {
+        for(final Item item : I) {
             final Token[] rhs = item.getProduction().getRhs().get(0);
             final int position = item.getPosition();
 
             if(position < rhs.length && rhs[position].equals(X)) {
-                J.add(new Item(item.getProduction(), position + 1));
+                final int id = items.toId(item);
+                if(id == LR0Items.NONE) throw new IllegalArgumentException(Config.GRAMMAR_ERROR_INVALID_ITEM + item);
+
+                kernel[size++] = id + 1;
             }
         }
 
-        return closure(J);
+        return items.toItems(items.orderedClosure(Arrays.copyOf(kernel, size)));
     }
 
     /**
-     * Calculates the canonical collection of LR(0) items for the grammar (it should be extended).
-     * @return The canonical collection of LR(0) items.
+     * Get the canonical collection of LR(0) items and its goto graph. It is built on the first call and renewed, when the grammar is extended.
+     * @return The automaton.
      * @throws IllegalArgumentException If the grammar is not preprocessed or extended (= argument grammar).
      */
-    public List<List<Item>> elements() {
-        if(!isPreproc()) throw new IllegalArgumentException(Config.NONREC_PARSER_ERROR_PREPROCESSED);
-        if(!isExtended()) throw new IllegalArgumentException(Config.NONREC_PARSER_ERROR_EXTENDED);
-
-        final List<List<Item>> C = new ArrayList<>();
-        final List<Item> I0 = closure(List.of(new Item(productions.get(0), 0)));
-
-        C.add(I0);
-
-        final List<Token> grammarSymbols = new ArrayList<>();
-        grammarSymbols.addAll(vocabulary);
-        grammarSymbols.addAll(alphabet);
-
-        boolean changed = true;
-        while(changed) {
-            final List<List<Item>> C$ = new ArrayList<>();
-
-            for(List<Item> I : C) {
-                for(Token X : grammarSymbols) {
-                    final List<Item> J = goTo(I, X);
+    public LR0Automaton getAutomaton() throws IllegalArgumentException {
+        return getAutomaton(RangeRunner.SEQUENTIAL);
+    }
 
-                    if(J.size() > 0 && !C.contains(J) && !X.tokenType().name().equals(Config.LEXER_EMPTY_SYMBOL)) {
-                        C$.add(J);
-                    }
-                }
-            }
+    /**
+     * Get the canonical collection of LR(0) items and its goto graph (see {@link Grammar#getAutomaton()}).
+     * If it isn't built yet, the frontiers are expanded by the runner. The automaton is the same with every runner.
+     * @param runner The runner (e.g. a {@link ParallelRangeRunner}).
+     * @return The automaton.
+     * @throws IllegalArgumentException If the grammar is not preprocessed or extended (= argument grammar).
+     */
+    public LR0Automaton getAutomaton(final RangeRunner runner) throws IllegalArgumentException {
+        if(automaton == null) automaton = new LR0Automaton(this, runner);
 
-            if(C$.size() > 0) C.addAll(C$);
-            else changed = false;
-        }
+        return automaton;
+    }
 
-        return C;
+    /**
+     * Calculates the canonical collection of LR(0) items for the grammar (it should be extended).
+     * The states are the ones of {@link Grammar#getAutomaton()}.
+     * @return The canonical collection of LR(0) items.
+     * @throws IllegalArgumentException If the grammar is not preprocessed or extended (= argument grammar).
+     */
+    public List<List<Item>> elements() throws IllegalArgumentException {
+        return getAutomaton().toItemSets();
     }
 
     /**
@@ -345,9 +321,32 @@ public class Grammar {
 
         startsymbol = lhs;
         extended = true;
+        symbols = null;
+        analysis = null;
+        items = null;
+        automaton = null;
     }
 
     
+    /**
+     * Converts a set of terminal ids of the analysis into tokens.
+     * The empty symbol is a token of the type {@link Config#LEXER_EMPTY_SYMBOL}, every other terminal a token of the type {@link Config#LEXER_TERMINAL}.
+     * @param ids The terminal ids.
+     * @param result The set, which the tokens are added to.
+     * @return The result set.
+     */
+    private Set<Token> toTokens(final BitSet ids, final Set<Token> result) {
+        for(int t = ids.nextSetBit(0); t >= 0; t = ids.nextSetBit(t + 1)) {
+            if(t == analysis.getEmpty()) result.add(new Token(new TokenType(Config.LEXER_EMPTY_SYMBOL, Grammar.EMPTY_SYMBOL, 0, false), Grammar.EMPTY_SYMBOL));
+            else {
+                final String symbol = analysis.getTerminalSymbol(t);
+                result.add(new Token(new TokenType(Config.LEXER_TERMINAL, symbol, 0, false), symbol));
+            }
+        }
+
+        return result;
+    }
+
     /**
      * Splits the given productions into a list of productions, where the rhs has only one symbol.
      * @param productions The productions which should be splitted.
@@ -399,6 +398,10 @@ public class Grammar {
             return position == item.position && production.equals(item.production);
         }
 
+        @Override public int hashCode() {
+            return 31 * production.hashCode() + position;
+        }
+
         @Override public String toString() {
             String rhs = "";
             for(int i = 0; i < production.getRhs().get(0).length; i++) {
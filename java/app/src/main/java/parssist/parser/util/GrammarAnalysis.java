@@ -0,0 +1,281 @@
+package parssist.parser.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import parssist.Config;
+import parssist.lexer.util.Token;
+import parssist.lexer.util.TokenType;
+
+
+/**
+ * NULLABLE, FIRST and FOLLOW of all nonterminals of a {@link Grammar}, computed together in one analysis by worklist fixpoint iterations over bit sets.
+ * The ids are the ones of the {@link SymbolTable} of the grammar: a nonterminal is its index in the vocabulary and a terminal its index in the alphabet,
+ * so FIRST and FOLLOW are already sets of columns of a parse table. Terminals of the productions, which aren't a terminal token of the alphabet, get ids behind the columns.
+ * The empty symbol (see {@link GrammarAnalysis#getEmpty()}) in a FIRST set means, that the nonterminal is nullable
+ * and in a FOLLOW set, that the end of the input can follow. The sets are computed once, so every lookup takes constant time.
+ */
+public final class GrammarAnalysis {
+    private final SymbolTable symbolTable;
+    private final int empty;
+    private final Map<String, Integer> otherTerminals = new HashMap<>(); // terminals of the productions, which aren't in the alphabet
+    private final List<String> otherSymbols = new ArrayList<>();
+    private final BitSet[] first;
+    private final BitSet[] follow;
+
+
+    /**
+     * Analyze a grammar.
+     * @param grammar The grammar.
+     * @throws IllegalArgumentException If a symbol of a production is neither a terminal nor a non-terminal.
+     */
+    public GrammarAnalysis(final Grammar grammar) throws IllegalArgumentException {
+        final List<Integer> lhs = new ArrayList<>();
+        final List<int[]> rhs = new ArrayList<>(); // nonterminal ids and complemented terminal ids, without the empty symbol
+
+        this.symbolTable = grammar.getSymbolTable();
+
+        final int end = symbolTable.getTerminal(new Token(new TokenType(Config.LEXER_EMPTY_SYMBOL, Grammar.EMPTY_SYMBOL, 0, false), Grammar.EMPTY_SYMBOL));
+        this.empty = end >= 0 ? end : symbolTable.getTerminalCount();
+
+        for(final Production production : grammar.getProductions()) {
+            final int A = symbolTable.getNonterminal(production.getLhs().symbol());
+            if(A < 0) throw new IllegalArgumentException(Config.GRAMMAR_ERROR_INVALID_SYMBOL + production.getLhs().symbol());
+
+            for(final Token[] rules : production.getRhs()) {
+                final int[] symbolIds = new int[rules.length];
+                int length = 0;
+
+                for(final Token token : rules) {
+                    final int symbol = encode(token.symbol());
+                    if(symbol != ~empty) symbolIds[length++] = symbol;
+                }
+
+                lhs.add(A);
+                rhs.add(length == symbolIds.length ? symbolIds : Arrays.copyOf(symbolIds, length));
+            }
+        }
+
+        this.first = new BitSet[symbolTable.getNonterminalCount()];
+        this.follow = new BitSet[symbolTable.getNonterminalCount()];
+        for(int A = 0; A < first.length; A++) {
+            first[A] = new BitSet();
+            follow[A] = new BitSet();
+        }
+
+        computeFirst(lhs, rhs);
+        computeFollow(lhs, rhs, symbolTable.getNonterminal(grammar.getStartsymbol().symbol()));
+    }
+
+
+    public int getNonterminalCount() {
+        return first.length;
+    }
+
+    /**
+     * Get the number of terminal ids. The ids of the alphabet come first, then the empty symbol (if it isn't in the alphabet) and the other terminals.
+     * @return The number of terminal ids.
+     */
+    public int getTerminalCount() {
+        return symbolTable.getTerminalCount() + 1 + otherSymbols.size();
+    }
+
+    /**
+     * Get the id of the empty symbol. It's the column of the empty symbol of the alphabet (the end of the input)
+     * or the first id behind the alphabet, if the alphabet doesn't contain it.
+     * @return The terminal id.
+     */
+    public int getEmpty() {
+        return empty;
+    }
+
+    /**
+     * Get the symbol of a terminal.
+     * @param id The terminal id.
+     * @return The symbol.
+     */
+    public String getTerminalSymbol(final int id) {
+        if(id == empty) return Grammar.EMPTY_SYMBOL;
+        if(id < symbolTable.getTerminalCount()) return symbolTable.getToken(id).symbol();
+
+        return otherSymbols.get(id - symbolTable.getTerminalCount() - 1);
+    }
+
+    /**
+     * Check if the empty string can be derived from a nonterminal.
+     * @param id The id of the nonterminal.
+     * @return True if it's nullable, false otherwise.
+     */
+    public boolean isNullable(final int id) {
+        return first[id].get(empty);
+    }
+
+    /**
+     * Get FIRST of a nonterminal.
+     * @param id The id of the nonterminal.
+     * @return The terminal ids (including {@link GrammarAnalysis#getEmpty()}, if it's nullable). The set must not be modified.
+     */
+    public BitSet getFirst(final int id) {
+        return first[id];
+    }
+
+    /**
+     * Get FOLLOW of a nonterminal.
+     * @param id The id of the nonterminal.
+     * @return The terminal ids (including {@link GrammarAnalysis#getEmpty()} for the end of the input). The set must not be modified.
+     */
+    public BitSet getFollow(final int id) {
+        return follow[id];
+    }
+
+
+    /**
+     * Encode a symbol of a production. Terminals win over nonterminals (like in {@link SymbolTable#getId(String)}). A terminal is its column, if it is a {@link Config#LEXER_TERMINAL} of the alphabet.
+     * @param symbol The symbol.
+     * @return The nonterminal id or the complemented terminal id.
+     * @throws IllegalArgumentException If the symbol is neither a terminal nor a non-terminal.
+     */
+    private int encode(final String symbol) throws IllegalArgumentException {
+        if(symbol.equals(Grammar.EMPTY_SYMBOL)) return ~empty;
+
+        if(!symbolTable.isTerminal(symbol)) {
+            final int nonterminal = symbolTable.getNonterminal(symbol);
+            if(nonterminal < 0) throw new IllegalArgumentException(Config.GRAMMAR_ERROR_INVALID_SYMBOL + symbol);
+
+            return nonterminal;
+        }
+
+        final int column = symbolTable.getTerminal(new Token(new TokenType(Config.LEXER_TERMINAL, symbol, 0, false), symbol));
+        if(column >= 0) return ~column;
+
+        return ~otherTerminals.computeIfAbsent(symbol, k -> {
+            otherSymbols.add(k);
+            return symbolTable.getTerminalCount() + otherSymbols.size();
+        });
+    }
+
+    /**
+     * Computes NULLABLE and FIRST: a production is evaluated again, whenever FIRST of a nonterminal of its rhs grows.
+     * @param lhs The lhs of every production.
+     * @param rhs The encoded rhs of every production.
+     */
+    private void computeFirst(final List<Integer> lhs, final List<int[]> rhs) {
+        final List<List<Integer>> usedIn = new ArrayList<>();
+        for(int A = 0; A < first.length; A++) usedIn.add(new ArrayList<>());
+
+        for(int p = 0; p < rhs.size(); p++) {
+            for(final int symbol : rhs.get(p)) {
+                if(symbol >= 0) usedIn.get(symbol).add(p);
+            }
+        }
+
+        final Deque<Integer> worklist = new ArrayDeque<>();
+        final boolean[] queued = new boolean[rhs.size()];
+        for(int p = 0; p < rhs.size(); p++) {
+            worklist.add(p);
+            queued[p] = true;
+        }
+
+        final BitSet contribution = new BitSet();
+
+        while(!worklist.isEmpty()) {
+            final int p = worklist.poll();
+            final BitSet target = first[lhs.get(p)];
+            queued[p] = false;
+
+            contribution.clear();
+            if(addFirst(rhs.get(p), 0, contribution)) contribution.set(empty);
+
+            final int before = target.cardinality();
+            target.or(contribution);
+
+            if(target.cardinality() == before) continue;
+
+            for(final int q : usedIn.get(lhs.get(p))) {
+                if(queued[q]) continue;
+
+                worklist.add(q);
+                queued[q] = true;
+            }
+        }
+    }
+
+    /**
+     * Computes FOLLOW: first the terminals, which directly follow a nonterminal, then FOLLOW of a lhs is propagated to the nonterminals at the end of its rhs.
+     * @param lhs The lhs of every production.
+     * @param rhs The encoded rhs of every production.
+     * @param start The start symbol or -1.
+     */
+    private void computeFollow(final List<Integer> lhs, final List<int[]> rhs, final int start) {
+        final List<BitSet> successors = new ArrayList<>(); // A -> B, if FOLLOW(A) is in FOLLOW(B)
+        for(int a = 0; a < follow.length; a++) successors.add(new BitSet());
+
+        if(start >= 0) follow[start].set(empty);
+
+        for(int p = 0; p < rhs.size(); p++) {
+            final int[] symbols = rhs.get(p);
+
+            for(int i = 0; i < symbols.length; i++) {
+                if(symbols[i] < 0) continue;
+
+                final BitSet rest = new BitSet();
+                final boolean nullable = addFirst(symbols, i + 1, rest);
+
+                follow[symbols[i]].or(rest);
+
+                if(nullable && lhs.get(p) != symbols[i]) successors.get(lhs.get(p)).set(symbols[i]);
+            }
+        }
+
+        final Deque<Integer> worklist = new ArrayDeque<>();
+        final boolean[] queued = new boolean[follow.length];
+        for(int a = 0; a < follow.length; a++) {
+            worklist.add(a);
+            queued[a] = true;
+        }
+
+        while(!worklist.isEmpty()) {
+            final int a = worklist.poll();
+            queued[a] = false;
+
+            for(int b = successors.get(a).nextSetBit(0); b >= 0; b = successors.get(a).nextSetBit(b + 1)) {
+                final int before = follow[b].cardinality();
+                follow[b].or(follow[a]);
+
+                if(follow[b].cardinality() != before && !queued[b]) {
+                    worklist.add(b);
+                    queued[b] = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds FIRST of a suffix of a rhs (without the empty symbol) to a set.
+     * @param symbols The encoded rhs.
+     * @param from The start of the suffix.
+     * @param result The set, which FIRST is added to.
+     * @return True if the suffix is nullable, false otherwise.
+     */
+    private boolean addFirst(final int[] symbols, final int from, final BitSet result) {
+        for(int i = from; i < symbols.length; i++) {
+            if(symbols[i] < 0) {
+                result.set(~symbols[i]);
+                return false;
+            }
+
+            result.or(first[symbols[i]]);
+            result.clear(empty);
+
+            if(!first[symbols[i]].get(empty)) return false;
+        }
+
+        return true;
+    }
+}
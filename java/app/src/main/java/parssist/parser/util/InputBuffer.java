@@ -0,0 +1,52 @@
+package parssist.parser.util;
+
+import java.util.Objects;
+
+
+/**
+ * The input buffer of a parser: the input string followed by the end marker.
+ * It's a view on the input, so the input isn't copied for appending the end marker.
+ */
+public class InputBuffer implements CharSequence {
+    private final CharSequence input;
+    private final String endmarker;
+
+
+    /**
+     * Create a new input buffer.
+     * @param input The input string.
+     * @param endmarker The end marker, which follows the input.
+     * @throws NullPointerException If the input or the end marker is null.
+     */
+    public InputBuffer(final CharSequence input, final String endmarker) throws NullPointerException {
+        this.input = Objects.requireNonNull(input);
+        this.endmarker = Objects.requireNonNull(endmarker);
+    }
+
+
+    public CharSequence getInput() {
+        return input;
+    }
+
+
+    @Override public int length() {
+        return input.length() + endmarker.length();
+    }
+
+    @Override public char charAt(final int index) {
+        if(index < input.length()) return input.charAt(index);
+
+        return endmarker.charAt(index - input.length());
+    }
+
+    @Override public CharSequence subSequence(final int start, final int end) {
+        if(end <= input.length()) return input.subSequence(start, end);
+        if(start >= input.length()) return endmarker.subSequence(start - input.length(), end - input.length());
+
+        return new StringBuilder(end - start).append(input, start, input.length()).append(endmarker, 0, end - input.length());
+    }
+
+    @Override public String toString() {
+        return new StringBuilder(length()).append(input).append(endmarker).toString();
+    }
+}
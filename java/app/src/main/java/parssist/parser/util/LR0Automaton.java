@@ -0,0 +1,272 @@
+package parssist.parser.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import parssist.Config;
+import parssist.parser.util.Grammar.Item;
+
+
+/**
+ * Canonical collection of LR(0) item sets of an extended grammar and the goto graph between them.
+ * A state is identified by its kernel, a sorted array of packed items (see {@link LR0Items}).
+ * The states are built frontier by frontier (the states discovered by the previous frontier), every state is processed exactly once:
+ * its closure is computed and the kernels of its successors are collected in one scan. This expansion only reads the items,
+ * so the states of a frontier can be expanded in parallel (see {@link RangeRunner}). Then the successor kernels are looked up in a hash map
+ * in the order of the states, so the states are numbered in the order of discovery, the successors in the order of the vocabulary and then the alphabet,
+ * which is the same numbering as the one of the former fixpoint iteration, no matter how the frontier was expanded.
+ * The symbols of the goto graph are the ids of the {@link SymbolTable}.
+ */
+public final class LR0Automaton {
+    public static final int NONE = -1;
+
+    private final LR0Items items;
+    private final SymbolTable symbols;
+    private final List<int[]> kernels = new ArrayList<>();
+    private final List<int[]> states = new ArrayList<>();
+    private int[] gotos; // state * symbol count + symbol
+
+
+    /**
+     * Builds the canonical collection of a grammar. The start state is the closure of the item of the first production with the dot at 0.
+     * @param grammar The grammar.
+     * @throws IllegalArgumentException If the grammar is not preprocessed or extended (= argument grammar).
+     */
+    public LR0Automaton(final Grammar grammar) throws IllegalArgumentException {
+        this(grammar, RangeRunner.SEQUENTIAL);
+    }
+
+    /**
+     * Builds the canonical collection of a grammar, the states of every frontier are expanded by a runner.
+     * The collection is identical to the one of {@link LR0Automaton#LR0Automaton(Grammar)}.
+     * @param grammar The grammar.
+     * @param runner The runner (e.g. a {@link ParallelRangeRunner}).
+     * @throws IllegalArgumentException If the grammar is not preprocessed or extended (= argument grammar).
+     */
+    public LR0Automaton(final Grammar grammar, final RangeRunner runner) throws IllegalArgumentException {
+        if(!grammar.isPreproc()) throw new IllegalArgumentException(Config.NONREC_PARSER_ERROR_PREPROCESSED);
+        if(!grammar.isExtended()) throw new IllegalArgumentException(Config.NONREC_PARSER_ERROR_EXTENDED);
+
+        this.items = grammar.getItems();
+        this.symbols = items.getSymbolTable();
+
+        build(runner);
+    }
+
+
+    public LR0Items getItemTable() {
+        return items;
+    }
+
+    public SymbolTable getSymbolTable() {
+        return symbols;
+    }
+
+    public int getStateCount() {
+        return states.size();
+    }
+
+    /**
+     * Get the kernel of a state.
+     * @param state The state.
+     * @return The sorted item ids. The array must not be modified.
+     */
+    public int[] getKernel(final int state) {
+        return kernels.get(state);
+    }
+
+    /**
+     * Get the items of a state (the closure of its kernel).
+     * @param state The state.
+     * @return The sorted item ids. The array must not be modified.
+     */
+    public int[] getItems(final int state) {
+        return states.get(state);
+    }
+
+    /**
+     * Get the successor of a state in the goto graph.
+     * @param state The state.
+     * @param symbol The symbol id (see {@link SymbolTable#getId(String)}).
+     * @return The successor or {@link LR0Automaton#NONE}.
+     */
+    public int getGoto(final int state, final int symbol) {
+        return gotos[state * symbols.size() + symbol];
+    }
+
+    /**
+     * Get the states as lists of items in the order of the former CLOSURE and GOTO, so the item sets of generated parsers stay the same:
+     * the kernel of a state is in the order of its items in the state, which discovered it, followed by the rest of the closure (see {@link LR0Items#orderedClosure(int[])}).
+     * @return The states.
+     */
+    public List<List<Item>> toItemSets() {
+        final List<List<Item>> C = new ArrayList<>();
+        final int[][] orders = new int[states.size()][]; // ordered kernels
+        final int[] sizes = new int[states.size()];
+
+        orders[0] = kernels.get(0);
+        sizes[0] = orders[0].length;
+
+        for(int s = 0; s < states.size(); s++) {
+            final int[] state = items.orderedClosure(orders[s]);
+
+            for(final int item : state) {
+                final int X = items.getSymbol(item);
+                final int t = X == LR0Items.NONE ? NONE : getGoto(s, X);
+
+                if(t == NONE) continue;
+                if(orders[t] == null) orders[t] = new int[kernels.get(t).length];
+                if(sizes[t] < orders[t].length) orders[t][sizes[t]++] = item + 1; // only the first state, which reaches t, fills its kernel
+            }
+
+            C.add(items.toItems(state));
+        }
+
+        return C;
+    }
+
+
+    /**
+     * Builds the states and the goto graph frontier by frontier.
+     * The map of the kernels is only written between the expansions of the frontiers, so the expansions can read the collection concurrently.
+     * @param runner The runner, which expands the states of a frontier.
+     */
+    private void build(final RangeRunner runner) {
+        final int symbolCount = symbols.size();
+        final Map<Key, Integer> ids = new HashMap<>();
+
+        final Key initial = new Key(new int[] { items.getItem(0, 0) });
+        ids.put(initial, 0);
+        kernels.add(initial.values);
+
+        gotos = new int[symbolCount * 16];
+
+        for(int from = 0; from < kernels.size();) {
+            final int first = from;
+            final int to = kernels.size();
+            final Expansion[] expansions = new Expansion[to - from];
+
+            runner.run(from, to, s -> expansions[s - first] = expand(kernels.get(s)));
+
+            if(gotos.length < to * symbolCount) gotos = Arrays.copyOf(gotos, Math.max(gotos.length * 2, to * symbolCount));
+
+            for(int s = from; s < to; s++) {
+                final Expansion expansion = expansions[s - from];
+
+                states.add(expansion.state);
+                Arrays.fill(gotos, s * symbolCount, (s + 1) * symbolCount, NONE);
+
+                for(int m = 0; m < expansion.symbols.length; m++) {
+                    final Key target = expansion.targets[m];
+                    Integer id = ids.get(target);
+
+                    if(id == null) {
+                        id = kernels.size();
+                        ids.put(target, id);
+                        kernels.add(target.values);
+                    }
+
+                    gotos[s * symbolCount + expansion.symbols[m]] = id;
+                }
+            }
+
+            from = to;
+        }
+
+        gotos = Arrays.copyOf(gotos, states.size() * symbolCount);
+    }
+
+    /**
+     * Expands a state: computes the closure of its kernel and the kernels of its successors.
+     * Only reads the items, so states can be expanded concurrently.
+     * @param kernel The kernel of the state.
+     * @return The expansion.
+     */
+    private Expansion expand(final int[] kernel) {
+        final int symbolCount = symbols.size();
+        final BitSet set = new BitSet(items.size());
+        for(final int item : kernel) set.set(item);
+
+        final BitSet closure = items.closure(set);
+        final int[] state = new int[closure.cardinality()];
+        final long[] moves = new long[state.length]; // rank of the symbol (vocabulary, then alphabet) and the moved item
+        int size = 0;
+
+        for(int item = closure.nextSetBit(0), i = 0; item >= 0; item = closure.nextSetBit(item + 1)) {
+            state[i++] = item;
+
+            final int X = items.getSymbol(item);
+            if(X != NONE) moves[size++] = (long) ((X - symbols.getTerminalCount() + symbolCount) % symbolCount) << 32 | (item + 1);
+        }
+
+        Arrays.sort(moves, 0, size); // the kernel of a successor is sorted too
+
+        int count = 0;
+        for(int m = 0; m < size; m++) {
+            if(m == 0 || moves[m] >>> 32 != moves[m - 1] >>> 32) count++;
+        }
+
+        final int[] successors = new int[count];
+        final Key[] targets = new Key[count];
+
+        for(int m = 0, k = 0; m < size; k++) {
+            final long rank = moves[m] >>> 32;
+            int end = m;
+            while(end < size && moves[end] >>> 32 == rank) end++;
+
+            final int[] values = new int[end - m];
+            for(int i = m; i < end; i++) values[i - m] = (int) moves[i];
+
+            successors[k] = (int) ((rank + symbols.getTerminalCount()) % symbolCount);
+            targets[k] = new Key(values);
+            m = end;
+        }
+
+        return new Expansion(state, successors, targets);
+    }
+
+    /**
+     * The closure of a state and the kernels of its successors (in the order of the vocabulary, then the alphabet).
+     */
+    private static final class Expansion {
+        private final int[] state;
+        private final int[] symbols;
+        private final Key[] targets;
+
+
+        private Expansion(final int[] state, final int[] symbols, final Key[] targets) {
+            this.state = state;
+            this.symbols = symbols;
+            this.targets = targets;
+        }
+    }
+
+    /**
+     * A sorted kernel, which is used as a hash key.
+     */
+    private static final class Key {
+        private final int[] values;
+        private final int hash;
+
+
+        private Key(final int[] values) {
+            this.values = values;
+            this.hash = Arrays.hashCode(values);
+        }
+
+
+        @Override public boolean equals(final Object obj) {
+            if(obj instanceof Key) return Arrays.equals(values, ((Key) obj).values);
+
+            return false;
+        }
+
+        @Override public int hashCode() {
+            return hash;
+        }
+    }
+}
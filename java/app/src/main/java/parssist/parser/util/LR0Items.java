@@ -0,0 +1,282 @@
+package parssist.parser.util;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import parssist.Config;
+import parssist.lexer.util.Token;
+import parssist.parser.util.Grammar.Item;
+
+
+/**
+ * The LR(0) items of a preprocessed grammar, packed into ints: the item of production p with the dot at d is offset(p) + d,
+ * so all items are numbered densely and an item set is a {@link BitSet}.
+ * The closure of every nonterminal (the items with the dot at 0, which it adds transitively) is computed once,
+ * so the closure of an item set is the item set OR-ed with the closures of the nonterminals after its dots.
+ */
+public final class LR0Items {
+    public static final int NONE = -1;
+
+    private final SymbolTable symbols;
+    private final List<Production> productions;
+    private final Map<Production, Integer> productionIds = new HashMap<>();
+    private final int[] offsets; // first item (dot 0) of every production
+    private final int[] itemProductions;
+    private final int[] itemSymbols; // symbol after the dot or NONE
+    private final int[] itemExpansions; // nonterminal after the dot (index of its closure) or NONE
+    private final List<BitSet> direct = new ArrayList<>(); // items with the dot at 0 of every expanded nonterminal
+    private final List<BitSet> closures = new ArrayList<>();
+
+
+    /**
+     * Encodes the items of a grammar.
+     * The transitions use the equality of the tokens (like the former GOTO), the expansions the symbols (like the former CLOSURE).
+     * @param grammar The grammar.
+     * @throws IllegalArgumentException If the grammar is not preprocessed.
+     */
+    public LR0Items(final Grammar grammar) throws IllegalArgumentException {
+        if(!grammar.isPreproc()) throw new IllegalArgumentException(Config.NONREC_PARSER_ERROR_PREPROCESSED);
+
+        this.symbols = grammar.getSymbolTable();
+        this.productions = List.copyOf(grammar.getProductions());
+        this.offsets = new int[productions.size() + 1];
+
+        for(int p = 0; p < productions.size(); p++) {
+            offsets[p + 1] = offsets[p] + getRhs(p).length + 1;
+            productionIds.putIfAbsent(productions.get(p), p);
+        }
+
+        this.itemProductions = new int[offsets[productions.size()]];
+        this.itemSymbols = new int[itemProductions.length];
+        this.itemExpansions = new int[itemProductions.length];
+
+        final Map<String, Integer> expansions = new HashMap<>();
+
+        for(int p = 0; p < productions.size(); p++) {
+            final Token[] rhs = getRhs(p);
+
+            for(int dot = 0; dot <= rhs.length; dot++) {
+                final int item = offsets[p] + dot;
+                itemProductions[item] = p;
+                itemSymbols[item] = NONE;
+                itemExpansions[item] = NONE;
+
+                if(dot == rhs.length) continue;
+
+                final Token X = rhs[dot];
+
+                if(!X.tokenType().name().equals(Config.LEXER_EMPTY_SYMBOL)) {
+                    final int terminal = symbols.getTerminal(X);
+                    final int nonterminal = symbols.getNonterminal(X);
+
+                    if(terminal >= 0) itemSymbols[item] = terminal;
+                    else if(nonterminal >= 0) itemSymbols[item] = symbols.getTerminalCount() + nonterminal;
+                }
+
+                if(symbols.isNonterminal(X.symbol())) {
+                    itemExpansions[item] = expansions.computeIfAbsent(X.symbol(), k -> {
+                        direct.add(new BitSet(itemProductions.length));
+                        return direct.size() - 1;
+                    });
+                }
+            }
+        }
+
+        for(int p = 0; p < productions.size(); p++) {
+            final Integer expansion = expansions.get(productions.get(p).getLhs().symbol());
+            if(expansion != null) direct.get(expansion).set(offsets[p]);
+        }
+
+        computeClosures();
+    }
+
+
+    public SymbolTable getSymbolTable() {
+        return symbols;
+    }
+
+    public List<Production> getProductions() {
+        return productions;
+    }
+
+    public int size() {
+        return itemProductions.length;
+    }
+
+    public Token[] getRhs(final int production) {
+        return productions.get(production).getRhs().get(0); // preprocessing contract
+    }
+
+    /**
+     * Get the item of a production with a dot position.
+     * @param production The production id.
+     * @param dot The dot position.
+     * @return The item.
+     */
+    public int getItem(final int production, final int dot) {
+        return offsets[production] + dot;
+    }
+
+    public int getProduction(final int item) {
+        return itemProductions[item];
+    }
+
+    public int getDot(final int item) {
+        return item - offsets[itemProductions[item]];
+    }
+
+    /**
+     * Get the symbol after the dot of an item, which has a transition.
+     * @param item The item.
+     * @return The symbol id (see {@link SymbolTable#getId(String)}) or {@link LR0Items#NONE}, if the dot is at the end or before the empty symbol.
+     */
+    public int getSymbol(final int item) {
+        return itemSymbols[item];
+    }
+
+    /**
+     * Check if an item is complete (the dot is at the end or before the empty symbol).
+     * @param item The item.
+     * @return True if the item is complete, false otherwise.
+     */
+    public boolean isComplete(final int item) {
+        final Token[] rhs = getRhs(itemProductions[item]);
+        final int dot = getDot(item);
+
+        return dot == rhs.length || rhs[dot].symbol().equals(Grammar.EMPTY_SYMBOL);
+    }
+
+    /**
+     * Get the closure of the nonterminal after the dot of an item.
+     * @param item The item.
+     * @return The items with the dot at 0, which the nonterminal adds transitively, or null, if there is no nonterminal after the dot. The set must not be modified.
+     */
+    public BitSet getExpansion(final int item) {
+        return itemExpansions[item] == NONE ? null : closures.get(itemExpansions[item]);
+    }
+
+    /**
+     * Computes the closure of an item set.
+     * @param kernel The item set.
+     * @return The closure (a new set).
+     */
+    public BitSet closure(final BitSet kernel) {
+        final BitSet closure = (BitSet) kernel.clone();
+
+        for(int item = kernel.nextSetBit(0); item >= 0; item = kernel.nextSetBit(item + 1)) {
+            if(itemExpansions[item] != NONE) closure.or(closures.get(itemExpansions[item]));
+        }
+
+        return closure;
+    }
+
+    /**
+     * Get the packed item of an item.
+     * @param item The item.
+     * @return The packed item or {@link LR0Items#NONE}, if its production isn't a production of the grammar.
+     */
+    public int toId(final Item item) {
+        final Integer production = productionIds.get(item.getProduction());
+
+        return production == null ? NONE : offsets[production] + item.getPosition();
+    }
+
+    /**
+     * Get the item of a packed item.
+     * @param item The packed item.
+     * @return The item.
+     */
+    public Item toItem(final int item) {
+        return new Item(productions.get(itemProductions[item]), getDot(item));
+    }
+
+    /**
+     * Computes the closure of a kernel in the order of the former CLOSURE: the kernel items first,
+     * then the direct items of every expanded nonterminal (in the order of the productions) in the order, in which the nonterminals are reached.
+     * @param kernel The kernel items in their order.
+     * @return The items of the closure.
+     */
+    public int[] orderedClosure(final int[] kernel) {
+        final BitSet added = new BitSet(itemProductions.length);
+        for(final int item : kernel) added.set(item);
+
+        final int[] closure = new int[closure(added).cardinality()];
+        final boolean[] expanded = new boolean[direct.size()];
+        int size = 0;
+
+        added.clear();
+
+        for(final int item : kernel) {
+            if(added.get(item)) continue;
+
+            added.set(item);
+            closure[size++] = item;
+        }
+
+        for(int i = 0; i < size; i++) {
+            final int m = itemExpansions[closure[i]];
+            if(m == NONE || expanded[m]) continue;
+
+            expanded[m] = true;
+
+            for(int item = direct.get(m).nextSetBit(0); item >= 0; item = direct.get(m).nextSetBit(item + 1)) {
+                if(added.get(item)) continue;
+
+                added.set(item);
+                closure[size++] = item;
+            }
+        }
+
+        return closure;
+    }
+
+    /**
+     * Get the items of packed items.
+     * @param items The packed items.
+     * @return The items (in the same order).
+     */
+    public List<Item> toItems(final int[] items) {
+        final List<Item> I = new ArrayList<>(items.length);
+        for(final int item : items) I.add(toItem(item));
+
+        return I;
+    }
+
+
+    /**
+     * Computes the closure of every expanded nonterminal: its direct items and the closures of the nonterminals after the dots of them (transitively).
+     */
+    private void computeClosures() {
+        final boolean[] visited = new boolean[direct.size()];
+        final int[] queue = new int[direct.size()];
+
+        for(int n = 0; n < direct.size(); n++) {
+            final BitSet closure = new BitSet(itemProductions.length);
+            int size = 0;
+
+            visited[n] = true;
+            queue[size++] = n;
+
+            for(int i = 0; i < size; i++) {
+                final BitSet items = direct.get(queue[i]);
+                closure.or(items);
+
+                for(int item = items.nextSetBit(0); item >= 0; item = items.nextSetBit(item + 1)) {
+                    final int m = itemExpansions[item];
+
+                    if(m != NONE && !visited[m]) {
+                        visited[m] = true;
+                        queue[size++] = m;
+                    }
+                }
+            }
+
+            for(int i = 0; i < size; i++) visited[queue[i]] = false;
+
+            closures.add(closure);
+        }
+    }
+}
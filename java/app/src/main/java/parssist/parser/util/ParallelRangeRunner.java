@@ -0,0 +1,49 @@
+package parssist.parser.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntConsumer;
+
+import parssist.Config;
+
+
+/**
+ * Runner, which splits a range into chunks and runs them on a {@link ForkJoinPool}.
+ * Ranges smaller than two chunks of {@link Config#GRAMMAR_PARALLEL_MIN_CHUNK_SIZE} are run sequentially in the calling thread.
+ * Only the parallel builds use this class, so the webassembly build (which has no {@link ForkJoinPool}) never reaches it.
+ */
+public final class ParallelRangeRunner implements RangeRunner {
+    private final ForkJoinPool pool;
+
+
+    /**
+     * Create a runner on a pool.
+     * @param pool The pool, whose parallelism is the maximal number of chunks.
+     */
+    public ParallelRangeRunner(final ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+
+    @Override public void run(final int from, final int to, final IntConsumer task) {
+        final int chunkCount = Math.min(pool.getParallelism(), (to - from) / Config.GRAMMAR_PARALLEL_MIN_CHUNK_SIZE);
+
+        if(chunkCount < 2) {
+            SEQUENTIAL.run(from, to, task);
+            return;
+        }
+
+        final List<ForkJoinTask<?>> tasks = new ArrayList<>();
+
+        for(int k = 0; k < chunkCount; k++) {
+            final int start = from + (int) ((long) (to - from) * k / chunkCount);
+            final int end = from + (int) ((long) (to - from) * (k + 1) / chunkCount);
+
+            tasks.add(pool.submit(() -> SEQUENTIAL.run(start, end, task)));
+        }
+
+        for(final ForkJoinTask<?> chunk : tasks) chunk.join();
+    }
+}
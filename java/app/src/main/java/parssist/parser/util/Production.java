@@ -28,6 +28,10 @@ public class Production {
         return false;
     }
 
+    @Override public int hashCode() {
+        return 31 * lhs.symbol().hashCode() + rhs.size(); // consistent with equals, which only compares the common prefixes of the alternatives (and the token type names)
+    }
+
     @Override public String toString() {
         final StringBuilder sb = new StringBuilder();
 
@@ -0,0 +1,28 @@
+package parssist.parser.util;
+
+import java.util.function.IntConsumer;
+
+
+/**
+ * Runs a task for every index of a range (the states of a frontier or the rows of a parse table).
+ * The tasks of a range are independent, every task only writes its own slot or row, so they can run in any order and in parallel.
+ * The runner returns, when all tasks are done.
+ */
+@FunctionalInterface
+public interface RangeRunner {
+    /**
+     * Runs the tasks one after another in the calling thread.
+     */
+    RangeRunner SEQUENTIAL = (from, to, task) -> {
+        for(int i = from; i < to; i++) task.accept(i);
+    };
+
+
+    /**
+     * Runs a task for every index of a range.
+     * @param from The first index (inclusive).
+     * @param to The last index (exclusive).
+     * @param task The task.
+     */
+    void run(int from, int to, IntConsumer task);
+}
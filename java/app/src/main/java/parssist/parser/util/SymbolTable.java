@@ -0,0 +1,180 @@
+package parssist.parser.util;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import parssist.Config;
+import parssist.lexer.util.Token;
+
+
+/**
+ * Dense int ids of the terminals (alphabet) and nonterminals (vocabulary) of a {@link Grammar}.
+ * The terminals have the ids 0 to t - 1 in the order of the alphabet and the nonterminals the ids t to t + n - 1 in the order of the vocabulary,
+ * so the index of a terminal (nonterminal) is its column in an action (goto) table.
+ * A symbol is a terminal (nonterminal), if it is the symbol of an alphabet (vocabulary) token or fully matched by its regex.
+ * Every lookup by name is a hash map hit: the regexes are only tried on the first lookup of an unknown name and the result is remembered.
+ * Tokens are looked up like with {@link List#indexOf(Object)}.
+ */
+public final class SymbolTable {
+    private final List<Token> alphabet;
+    private final List<Token> vocabulary;
+    private final Map<List<String>, Integer> terminalTokens = new HashMap<>(); // keyed by token type name and symbol, the token hash isn't consistent with equals
+    private final Map<List<String>, Integer> nonterminalTokens = new HashMap<>();
+    private final Map<String, Integer> terminals = new HashMap<>();
+    private final Map<String, Integer> nonterminals = new HashMap<>();
+    private final Pattern[] terminalPatterns;
+    private final Pattern[] nonterminalPatterns;
+
+
+    /**
+     * Create the symbol table of a grammar. The symbols of the productions are classified in advance.
+     * @param alphabet The terminals.
+     * @param vocabulary The nonterminals.
+     * @param productions The productions.
+     */
+    public SymbolTable(final List<Token> alphabet, final List<Token> vocabulary, final List<Production> productions) {
+        this.alphabet = List.copyOf(alphabet);
+        this.vocabulary = List.copyOf(vocabulary);
+        this.terminalPatterns = new Pattern[alphabet.size()];
+        this.nonterminalPatterns = new Pattern[vocabulary.size()];
+
+        for(int t = 0; t < alphabet.size(); t++) {
+            terminalTokens.putIfAbsent(key(alphabet.get(t)), t);
+            terminals.putIfAbsent(alphabet.get(t).symbol(), t);
+        }
+
+        for(int n = 0; n < vocabulary.size(); n++) {
+            nonterminalTokens.putIfAbsent(key(vocabulary.get(n)), n);
+            nonterminals.putIfAbsent(vocabulary.get(n).symbol(), n);
+        }
+
+        for(final Production production : productions) {
+            getNonterminal(production.getLhs().symbol());
+
+            for(final Token[] rhs : production.getRhs()) {
+                for(final Token token : rhs) {
+                    getTerminal(token.symbol());
+                    getNonterminal(token.symbol());
+                }
+            }
+        }
+    }
+
+
+    public int getTerminalCount() {
+        return alphabet.size();
+    }
+
+    public int getNonterminalCount() {
+        return vocabulary.size();
+    }
+
+    public int size() {
+        return alphabet.size() + vocabulary.size();
+    }
+
+    /**
+     * Get the index of a terminal in the alphabet.
+     * @param symbol The symbol.
+     * @return The index or -1, if the symbol isn't a terminal.
+     */
+    public int getTerminal(final String symbol) {
+        return lookup(symbol, terminals, alphabet, terminalPatterns);
+    }
+
+    /**
+     * Get the index of a nonterminal in the vocabulary.
+     * @param symbol The symbol.
+     * @return The index or -1, if the symbol isn't a nonterminal.
+     */
+    public int getNonterminal(final String symbol) {
+        return lookup(symbol, nonterminals, vocabulary, nonterminalPatterns);
+    }
+
+    /**
+     * Get the index of a token in the alphabet (equal token type name and symbol).
+     * @param token The token.
+     * @return The index or -1, if the token isn't in the alphabet.
+     */
+    public int getTerminal(final Token token) {
+        return terminalTokens.getOrDefault(key(token), -1);
+    }
+
+    /**
+     * Get the index of a token in the vocabulary (equal token type name and symbol).
+     * @param token The token.
+     * @return The index or -1, if the token isn't in the vocabulary.
+     */
+    public int getNonterminal(final Token token) {
+        return nonterminalTokens.getOrDefault(key(token), -1);
+    }
+
+    /**
+     * Get the id of a symbol. Terminals win over nonterminals (like in the parsers).
+     * @param symbol The symbol.
+     * @return The id or -1, if the symbol is neither a terminal nor a nonterminal.
+     */
+    public int getId(final String symbol) {
+        final int terminal = getTerminal(symbol);
+        if(terminal >= 0) return terminal;
+
+        final int nonterminal = getNonterminal(symbol);
+        return nonterminal >= 0 ? alphabet.size() + nonterminal : -1;
+    }
+
+    /**
+     * Get the token of an id.
+     * @param id The id.
+     * @return The alphabet or vocabulary token.
+     * @throws IndexOutOfBoundsException If the id doesn't exist.
+     */
+    public Token getToken(final int id) throws IndexOutOfBoundsException {
+        return id < alphabet.size() ? alphabet.get(id) : vocabulary.get(id - alphabet.size());
+    }
+
+    public boolean isTerminal(final int id) {
+        return id >= 0 && id < alphabet.size();
+    }
+
+    public boolean isNonterminal(final int id) {
+        return id >= alphabet.size() && id < size();
+    }
+
+    public boolean isTerminal(final String symbol) {
+        return getTerminal(symbol) >= 0;
+    }
+
+    public boolean isNonterminal(final String symbol) {
+        return getNonterminal(symbol) >= 0;
+    }
+
+
+    private static List<String> key(final Token token) {
+        return List.of(token.tokenType().name(), token.symbol());
+    }
+
+    /**
+     * Looks up a symbol. On a miss the regexes of the tokens are tried and the result (also a miss) is remembered.
+     * @param symbol The symbol.
+     * @param indices The remembered indices.
+     * @param tokens The tokens.
+     * @param patterns The compiled regexes of the tokens (compiled on demand).
+     * @return The index of the first matching token or -1.
+     */
+    private static int lookup(final String symbol, final Map<String, Integer> indices, final List<Token> tokens, final Pattern[] patterns) {
+        final Integer index = indices.get(symbol);
+        if(index != null) return index;
+
+        int match = -1;
+        for(int i = 0; i < tokens.size() && match < 0; i++) {
+            if(patterns[i] == null) patterns[i] = Pattern.compile(Config.LEXER_REGEX_STARTSYMBOL + tokens.get(i).tokenType().regex() + Config.LEXER_REGEX_ENDSYMBOL);
+            if(patterns[i].matcher(symbol).matches()) match = i;
+        }
+
+        indices.put(symbol, match);
+
+        return match;
+    }
+}
@@ -3,6 +3,7 @@ package parssist.parser.util.tree;
 import java.util.List;
 
 import parssist.Config;
+import parssist.lexer.util.LineIndex;
 import parssist.lexer.util.Token;
 import parssist.parser.util.tree.visitor.Visitor;
 
@@ -18,6 +19,8 @@ public class ParseTreeNode {
     private final int state;
 
     private ParseTreeNode parent;
+    private int position = Config.PARSETREE_NO_POSITION;
+    private LineIndex lineIndex;
 
 
     /**
@@ -85,6 +88,36 @@ public class ParseTreeNode {
         this.parent = parent;
     }
 
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Set the position of the token in the input. Line and column are only computed, when they are requested.
+     * @param position The offset of the token in the input.
+     * @param lineIndex The line index of the input.
+     */
+    public void setPosition(final int position, final LineIndex lineIndex) {
+        this.position = position;
+        this.lineIndex = lineIndex;
+    }
+
+    /**
+     * Get the line of the token.
+     * @return The line (starting at 1) or {@link Config#PARSETREE_NO_POSITION}, if the node has no position.
+     */
+    public int getLine() {
+        return position == Config.PARSETREE_NO_POSITION ? Config.PARSETREE_NO_POSITION : lineIndex.getLine(position);
+    }
+
+    /**
+     * Get the column of the token.
+     * @return The column (starting at 1) or {@link Config#PARSETREE_NO_POSITION}, if the node has no position.
+     */
+    public int getColumn() {
+        return position == Config.PARSETREE_NO_POSITION ? Config.PARSETREE_NO_POSITION : lineIndex.getColumn(position);
+    }
+
     
     /**
      * Clean the children of the node.
@@ -0,0 +1,72 @@
+package parssist.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+
+/**
+ * Char sequence view on a byte buffer, in which every byte is one char (ASCII or Latin-1).
+ * The bytes are neither decoded nor copied, so the buffer can be a memory-mapped file outside of the heap.
+ * With another charset (e.g. UTF-8), the chars are still the raw bytes (so an automaton over bytes can run on them)
+ * and only {@link ByteCharSequence#toString()} decodes them, so a token is only decoded, when its symbol is requested.
+ */
+public class ByteCharSequence implements CharSequence {
+    private final ByteBuffer buffer;
+    private final Charset charset;
+    private final int offset;
+    private final int length;
+
+
+    /**
+     * Create a new view on the whole buffer (from index 0 up to its limit).
+     * @param buffer The byte buffer.
+     */
+    public ByteCharSequence(final ByteBuffer buffer) {
+        this(buffer, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Create a new view on the whole buffer (from index 0 up to its limit), whose string is decoded with a charset.
+     * @param buffer The byte buffer.
+     * @param charset The charset of the bytes.
+     */
+    public ByteCharSequence(final ByteBuffer buffer, final Charset charset) {
+        this(buffer, charset, 0, buffer.limit());
+    }
+
+    private ByteCharSequence(final ByteBuffer buffer, final Charset charset, final int offset, final int length) {
+        this.buffer = buffer;
+        this.charset = charset;
+        this.offset = offset;
+        this.length = length;
+    }
+
+
+    public Charset getCharset() {
+        return charset;
+    }
+
+    @Override public int length() {
+        return length;
+    }
+
+    @Override public char charAt(final int index) {
+        if(index < 0 || index >= length) throw new IndexOutOfBoundsException(index);
+
+        return (char) (buffer.get(offset + index) & 0xFF);
+    }
+
+    @Override public CharSequence subSequence(final int start, final int end) {
+        if(start < 0 || end > length || start > end) throw new IndexOutOfBoundsException(start);
+
+        return new ByteCharSequence(buffer, charset, offset + start, end - start);
+    }
+
+    @Override public String toString() {
+        final byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+
+        return new String(bytes, charset);
+    }
+}
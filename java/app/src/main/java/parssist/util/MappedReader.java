@@ -0,0 +1,109 @@
+package parssist.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+import parssist.Config;
+
+
+/**
+ * Reader class, which maps the input file into memory, instead of reading it into a string.
+ * Because of webassembly, it is only used by {@link parssist.JvmApp}, so TeaVM never reaches the NIO classes.
+ */
+public class MappedReader extends Reader {
+    @Override public CharSequence load(final String path) throws IOException {
+        return map(path);
+    }
+
+
+    /**
+     * Map the input file into memory, instead of reading it into a string.
+     * If the file is ASCII (the common case), the mapped bytes are used directly as chars.
+     * Otherwise the file is decoded as UTF-8 once into a direct buffer, which is outside of the heap too.
+     * @param path The filepath.
+     * @return The file content as char sequence.
+     * @throws IOException If the file couldn't be read, is too big or isn't valid UTF-8.
+     */
+    public CharSequence map(final String path) throws IOException {
+        final File file = new File(path);
+
+        if(!file.exists()) throw new IOException(path);
+
+        try(final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if(channel.size() > Integer.MAX_VALUE) throw new IOException(Config.READER_ERROR_FILE_TOO_BIG + path);
+
+            final MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if(isAscii(bytes)) return new ByteCharSequence(bytes);
+            if(bytes.limit() > Integer.MAX_VALUE / Character.BYTES) throw new IOException(Config.READER_ERROR_FILE_TOO_BIG + path);
+
+            return decode(bytes);
+        }
+    }
+
+    /**
+     * Map the input file into memory as raw bytes, e.g. for the UTF-8 tokenization, which doesn't decode them.
+     * @param path The filepath.
+     * @return The mapped bytes.
+     * @throws IOException If the file couldn't be read or is too big.
+     */
+    public ByteBuffer mapBytes(final String path) throws IOException {
+        final File file = new File(path);
+
+        if(!file.exists()) throw new IOException(path);
+
+        try(final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if(channel.size() > Integer.MAX_VALUE) throw new IOException(Config.READER_ERROR_FILE_TOO_BIG + path);
+
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+
+    /**
+     * Check if a buffer contains only ASCII bytes. Checks 8 bytes at once.
+     * @param bytes The buffer.
+     * @return True if no byte has the high bit set, false otherwise.
+     */
+    private boolean isAscii(final ByteBuffer bytes) {
+        final int limit = bytes.limit();
+        int i = 0;
+
+        for(; i + Long.BYTES <= limit; i += Long.BYTES) {
+            if((bytes.getLong(i) & 0x8080808080808080L) != 0) return false;
+        }
+        for(; i < limit; i++) {
+            if(bytes.get(i) < 0) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Decode UTF-8 bytes into a direct char buffer.
+     * @param bytes The bytes.
+     * @return The chars.
+     * @throws CharacterCodingException If the bytes aren't valid UTF-8.
+     */
+    private CharBuffer decode(final ByteBuffer bytes) throws CharacterCodingException {
+        final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+        final CharBuffer chars = ByteBuffer.allocateDirect(bytes.limit() * Character.BYTES).asCharBuffer();
+
+        CoderResult result = decoder.decode(bytes.duplicate(), chars, true);
+        if(!result.isUnderflow()) result.throwException();
+
+        result = decoder.flush(chars);
+        if(!result.isUnderflow()) result.throwException();
+
+        return chars.flip();
+    }
+}
\ No newline at end of file
@@ -30,4 +30,14 @@ public class Reader {
             return code;
         }
     }
+
+    /**
+     * Load the input file for the file mode of the application.
+     * @param path The filepath.
+     * @return The file content.
+     * @throws IOException If the file couldn't be read.
+     */
+    public CharSequence load(final String path) throws IOException {
+        return read(path);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,94 @@
+package parssist.lexer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import parssist.lexer.exception.InvalidLexFormatException;
+import parssist.lexer.exception.InvalidTokenException;
+import parssist.lexer.util.TokenBuffer;
+
+
+/**
+ * Testclass for {@link IncrementalLexer}.
+ */
+public class IncrementalLexerTest {
+    private static final String LEX = "%\" \", \"\\n\"\n" +
+        "IF := \"if\"\n" +
+        "ID := \"[a-z][a-z0-9]*\"\n" +
+        "NUM := \"[0-9]+(\\.[0-9]+)?\"\n" +
+        "STRING := \"'[^']*'\"\n" +
+        "COMMENT := \"/\\*([^*]|\\*+[^*/])*\\*+/\"\n" +
+        "OP := \"[*/.=]\"";
+    private static final String ALPHABET = "ifx19.'/* \n";
+
+
+    private void assertSameTokens(final TokenBuffer expected, final TokenBuffer actual) {
+        assertEquals(expected.size(), actual.size());
+
+        for(int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.getType(i), actual.getType(i));
+            assertEquals(expected.getStart(i), actual.getStart(i));
+            assertEquals(expected.getEnd(i), actual.getEnd(i));
+        }
+    }
+
+    private void randomEdits(final LexerSpec spec) throws InvalidTokenException {
+        final Random random = new Random(42);
+        final StringBuilder sb = new StringBuilder();
+        for(int i = 0; i < 200; i++) sb.append("if x1 = 1.5 /* c */ 'str' y\n");
+
+        final IncrementalLexer lexer = new IncrementalLexer(spec, sb);
+
+        for(int n = 0; n < 500; n++) {
+            final String code = lexer.getCode();
+            final int offset = random.nextInt(code.length() + 1);
+            final int removed = random.nextInt(Math.min(4, code.length() - offset) + 1);
+            final StringBuilder inserted = new StringBuilder();
+            for(int i = random.nextInt(4); i > 0; i--) inserted.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+
+            final String edited = code.substring(0, offset) + inserted + code.substring(offset + removed);
+            TokenBuffer expected;
+
+            try {
+                expected = spec.tokenizeToBuffer(edited);
+            } catch(InvalidTokenException e) {
+                assertThrows(InvalidTokenException.class, () -> lexer.edit(offset, removed, inserted.toString()));
+                assertEquals(code, lexer.getCode());
+                continue;
+            }
+
+            assertSameTokens(expected, lexer.edit(offset, removed, inserted.toString()));
+            assertEquals(edited, lexer.getCode());
+        }
+    }
+
+
+    @Test
+    @DisplayName("Test random edits")
+    public void testRandomEdits() throws InvalidLexFormatException, InvalidTokenException {
+        randomEdits(LexerSpec.compile(LEX));
+    }
+
+    @Test
+    @DisplayName("Test random edits in the fallback")
+    public void testRandomEditsFallback() throws InvalidLexFormatException, InvalidTokenException {
+        randomEdits(LexerSpec.compile(LEX + "\nEND := \"\\.$\""));
+    }
+
+    @Test
+    @DisplayName("Test edit inside of a comment")
+    public void testEditInComment() throws InvalidLexFormatException, InvalidTokenException {
+        final LexerSpec spec = LexerSpec.compile(LEX);
+        final IncrementalLexer lexer = new IncrementalLexer(spec, "x /* a */ y");
+
+        assertSameTokens(spec.tokenizeToBuffer("x /* */ if /* */ y"), lexer.edit(5, 1, "*/ if /*"));
+        assertSameTokens(spec.tokenizeToBuffer("/*x /* */ if /* */ y"), lexer.edit(0, 0, "/*"));
+        assertSameTokens(spec.tokenizeToBuffer("/*x /* */ if /* */ y*/"), lexer.edit(20, 0, "*/"));
+        assertThrows(IndexOutOfBoundsException.class, () -> lexer.edit(0, 100, ""));
+    }
+}
@@ -0,0 +1,235 @@
+package parssist.lexer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import parssist.Config;
+import parssist.lexer.exception.InvalidLexFormatException;
+import parssist.lexer.exception.InvalidTokenException;
+import parssist.lexer.exception.UnsupportedRegexException;
+import parssist.lexer.util.Diagnostic;
+import parssist.lexer.util.Token;
+import parssist.lexer.util.TokenBuffer;
+import parssist.lexer.util.TokenType;
+
+
+/**
+ * Testclass for {@link LexerSpec}.
+ */
+public class LexerSpecTest {
+    private static final String LEX = "%\" \"\n" +
+        "ID := \"[a-z]+\"\n" +
+        "NUM := \"[0-9]+\"\n" +
+        "PLUS := \"\\+\"";
+
+
+    @Test
+    @DisplayName("Test compiled token types")
+    public void testTokenTypes() throws InvalidLexFormatException {
+        final LexerSpec spec = LexerSpec.compile(LEX);
+
+        assertEquals(4, spec.size());
+        assertEquals("ID", spec.getTokenType(0).name());
+        assertTrue(spec.isDeterministic());
+        assertTrue(spec.getTokenTypes().stream().filter(e -> e.ignore()).count() == 1);
+        assertFalse(spec.isIgnored(0));
+        assertThrows(UnsupportedOperationException.class, () -> spec.getTokenTypes().add(new TokenType("X", "x", 0, false)));
+        assertThrows(InvalidLexFormatException.class, () -> LexerSpec.compile("X := \"(\""));
+    }
+
+    @Test
+    @DisplayName("Test shared spec across threads")
+    public void testConcurrentTokenize() throws Exception {
+        final LexerSpec spec = LexerSpec.compile(LEX);
+        final StringBuilder sb = new StringBuilder();
+        for(int i = 0; i < 2000; i++) sb.append("abc + ").append(i).append(' ');
+        final String code = sb.toString();
+        final List<Token> expected = spec.tokenize(code);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<List<Token>>> results = new ArrayList<>();
+            for(int i = 0; i < 8; i++) results.add(executor.submit(() -> new Lexer(spec).getSpec().tokenize(code)));
+
+            for(final Future<List<Token>> result : results) assertEquals(expected, result.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Test parallel tokenize")
+    public void testParallelTokenize() throws Exception {
+        final LexerSpec spec = LexerSpec.compile("%\" \", \"\\n\"\n" +
+            "ID := \"[a-z]+\"\n" +
+            "STRING := \"'[^']*'\"\n" +
+            "COMMENT := \"#[^\\n]*\"");
+        final StringBuilder sb = new StringBuilder();
+        for(int i = 0; sb.length() < 8 * Config.LEXER_PARALLEL_MIN_CHUNK_SIZE; i++) {
+            sb.append("abc ").append(i % 3 == 0 ? "'multi line\n string with blanks' " : "def\n");
+            if(i % 5000 == 0) sb.append("'").append(" \n".repeat(Config.LEXER_PARALLEL_MAX_BOUNDARY_SEARCH)).append("' # comment ' x\n");
+        }
+        final String code = sb.toString();
+        final ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            final TokenBuffer expected = spec.tokenizeToBuffer(code);
+            final TokenBuffer actual = spec.tokenizeParallel(code, pool);
+
+            assertEquals(expected.size(), actual.size());
+            for(int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.getType(i), actual.getType(i));
+                assertEquals(expected.getStart(i), actual.getStart(i));
+                assertEquals(expected.getEnd(i), actual.getEnd(i));
+            }
+
+            final int position = code.indexOf("def\n", code.length() / 2) + 4;
+            final String invalid = code.substring(0, position) + "?" + code.substring(position);
+            final InvalidTokenException sequential = assertThrows(InvalidTokenException.class, () -> spec.tokenizeToBuffer(invalid));
+            final InvalidTokenException parallel = assertThrows(InvalidTokenException.class, () -> spec.tokenizeParallel(invalid, pool));
+            assertEquals(sequential.getMessage(), parallel.getMessage());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Test linear spec")
+    public void testLinear() throws Exception {
+        final String lex = "%\" \"\n" +
+            "X := \"[ab]*a[ab]{13}\"\n" +
+            "W := \"[ab]+\"";
+        final LexerSpec linear = LexerSpec.compileLinear(lex, 0);
+        final LexerSpec backtracking = LexerSpec.compile(lex);
+        final Random random = new Random(42);
+        final StringBuilder sb = new StringBuilder();
+        for(int i = 0; i < 300; i++) {
+            for(int j = random.nextInt(30); j >= 0; j--) sb.append(random.nextBoolean() ? 'a' : 'b');
+            sb.append(' ');
+        }
+        final String code = sb.toString();
+
+        assertTrue(linear.isLinear());
+        assertFalse(linear.isDeterministic());
+        assertFalse(backtracking.isDeterministic());
+        assertEquals(backtracking.tokenize(code), linear.tokenize(code));
+
+        try(final TokenStream stream = new TokenStream(linear, new StringReader(code))) {
+            assertEquals(linear.tokenize(code), stream.stream().toList());
+        }
+
+        assertThrows(InvalidLexFormatException.class, () -> LexerSpec.compileLinear("A := \"a(?=b)\"", 0));
+        assertThrows(InvalidLexFormatException.class, () -> new Lexer("A := \"(a)\\1\"", 0));
+    }
+
+    @Test
+    @DisplayName("Test step budget")
+    public void testStepBudget() throws Exception {
+        final String code = "abc + 12 + " + "x".repeat(100);
+        final InvalidTokenException dfa = assertThrows(InvalidTokenException.class, () -> LexerSpec.compileLinear(LEX, 50).tokenize(code));
+        final InvalidTokenException nfa = assertThrows(InvalidTokenException.class, () -> LexerSpec.compileLinear(LEX + "\nX := \"[ab]*a[ab]{13}\"", 50).tokenize(code));
+
+        assertEquals(Config.LEXER_REGEX_ERROR_BUDGET + 11, dfa.getMessage());
+        assertEquals(Config.LEXER_REGEX_ERROR_BUDGET + 11, nfa.getMessage());
+        assertEquals(LexerSpec.compile(LEX).tokenize(code), LexerSpec.compileLinear(LEX, 200).tokenize(code));
+
+        final String nfaLex = LEX + "\nX := \"[ab]*a[ab]{13}\"";
+        final String fits = "abc + " + "x".repeat(50);
+        assertFalse(LexerSpec.compileLinear(nfaLex, 50).isDeterministic());
+        assertEquals(LexerSpec.compile(LEX).tokenize(fits), LexerSpec.compileLinear(LEX, 50).tokenize(fits));
+        assertEquals(LexerSpec.compile(LEX).tokenize(fits), LexerSpec.compileLinear(nfaLex, 50).tokenize(fits));
+        assertThrows(InvalidTokenException.class, () -> LexerSpec.compileLinear(LEX, 50).tokenize(fits + "x"));
+        assertThrows(InvalidTokenException.class, () -> LexerSpec.compileLinear(nfaLex, 50).tokenize(fits + "x"));
+    }
+
+    @Test
+    @DisplayName("Test recovery mode")
+    public void testRecovery() throws Exception {
+        final LexerSpec spec = LexerSpec.compile(LEX);
+        final List<Diagnostic> diagnostics = new ArrayList<>();
+        final TokenBuffer tokens = spec.tokenizeWithRecovery("ab ?? 12 +#x ?", diagnostics);
+
+        assertEquals(List.of(new Diagnostic(3, 5, Config.LEXER_ERROR_CURSOR + 3), new Diagnostic(10, 11, Config.LEXER_ERROR_CURSOR + 10), new Diagnostic(13, 14, Config.LEXER_ERROR_CURSOR + 13)), diagnostics);
+        assertEquals(TokenBuffer.ERROR, tokens.getType(2));
+        assertEquals("??", tokens.getSymbol(2));
+        assertEquals(Config.LEXER_ERROR_TOKENNAME, tokens.getTokenType(2).name());
+        assertEquals("ab", tokens.getSymbol(0));
+        assertEquals("x", tokens.getSymbol(tokens.size() - 3));
+        assertEquals(tokens.size(), tokens.asList().size());
+
+        diagnostics.clear();
+        assertEquals(spec.tokenize("ab 12"), spec.tokenizeWithRecovery("ab 12", diagnostics).asList());
+        assertTrue(diagnostics.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test tokenization of UTF-8 bytes")
+    public void testUtf8() throws Exception {
+        final LexerSpec spec = LexerSpec.compile("%\" \"\nNUM := \"[0-9]+\"\nPLUS := \"\\+\"\nEURO := \"\u20ac\"\nWORD := \"[^ 0-9+]+\"");
+        final String code = "gr\u00fc\u00dfe + 12 \u20ac \ud83d\ude00x+abc";
+        final TokenBuffer tokens = spec.tokenizeUtf8(ByteBuffer.wrap(code.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(spec.tokenize(code), tokens.asList());
+        assertEquals(8, tokens.getStart(2));
+        assertEquals("\u20ac", tokens.getSymbol(6));
+        assertEquals("EURO", tokens.getTokenType(6).name());
+        assertEquals(17, tokens.getStart(8));
+        assertEquals(22, tokens.getEnd(8));
+        assertEquals(spec.tokenize("abc + 12"), spec.tokenizeUtf8(ByteBuffer.wrap("abc + 12".getBytes(StandardCharsets.US_ASCII))).asList());
+        assertThrows(InvalidTokenException.class, () -> spec.tokenizeUtf8(ByteBuffer.wrap(new byte[] { 'a', ' ', (byte) 0xFF })));
+
+        final LexerSpec fallback = LexerSpec.compile("A := \"a\"\nX := \"(x{1000}){60}\"\nY := \"(y{1000}){60}\"");
+        final UnsupportedRegexException e = assertThrows(UnsupportedRegexException.class, () -> fallback.tokenizeUtf8(ByteBuffer.wrap("ay".getBytes(StandardCharsets.UTF_8))));
+        assertEquals(Config.LEXER_REGEX_ERROR_NO_BYTES + "Y", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Test lexer modes")
+    public void testModes() throws Exception {
+        final String lex = "%\" \"\n" +
+            "ID := \"[a-z]+\"\n" +
+            "QUOTE := \"\\\"\" -> push(STRING)\n" +
+            "OPEN := \"/\\*\" -> push(COMMENT)\n" +
+            "@STRING\n" +
+            "ESCAPE := \"\\\\.\"\n" +
+            "TEXT := \"[^\\\"\\\\]+\"\n" +
+            "QUOTE := \"\\\"\" -> pop\n" +
+            "@COMMENT\n" +
+            "OPEN := \"/\\*\" -> push(COMMENT)\n" +
+            "CLOSE := \"\\*/\" -> pop\n" +
+            "TEXT := \"[^*/]+|[*/]\"";
+        final LexerSpec spec = LexerSpec.compile(lex);
+        final String code = "ab \"x y\\\"z\" cd /* a /* b */ \" */ ef";
+        final List<String> names = spec.tokenize(code).stream().filter(e -> !e.tokenType().ignore()).map(e -> e.tokenType().name() + ":" + e.symbol()).toList();
+
+        assertEquals(3, spec.getModeCount());
+        assertTrue(spec.isDeterministic());
+        assertEquals(List.of("ID:ab", "QUOTE:\"", "TEXT:x y", "ESCAPE:\\\"", "TEXT:z", "QUOTE:\"", "ID:cd",
+            "OPEN:/*", "TEXT: a ", "OPEN:/*", "TEXT: b ", "CLOSE:*/", "TEXT: \" ", "CLOSE:*/", "ID:ef"), names);
+
+        try(final TokenStream stream = new TokenStream(spec, new StringReader(code))) {
+            assertEquals(spec.tokenize(code), stream.stream().toList());
+        }
+
+        assertEquals(spec.tokenize(code), spec.tokenizeUtf8(ByteBuffer.wrap(code.getBytes(StandardCharsets.UTF_8))).asList());
+        assertEquals(spec.tokenize(code), LexerSpec.compileLinear(lex, 0).tokenize(code));
+        assertEquals(spec.tokenize(code.replace("ef", "\"")), new IncrementalLexer(spec, code).edit(code.length() - 2, 2, "\"").asList());
+        assertThrows(InvalidLexFormatException.class, () -> LexerSpec.compile("A := \"a\" -> push(B)"));
+    }
+}
@@ -0,0 +1,157 @@
+package parssist.lexer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import parssist.lexer.exception.InvalidLexFormatException;
+import parssist.lexer.exception.InvalidTokenException;
+import parssist.lexer.util.Token;
+import parssist.lexer.util.TokenBuffer;
+
+
+/**
+ * Testclass for {@link Lexer}.
+ */
+public class LexerTest {
+    private static final String LEX = "%\" \", \"\\n\"\n" +
+        "IF := \"if\"\n" +
+        "ID := \"[a-z][a-z0-9]*\"\n" +
+        "NUM := \"[0-9]+\"\n" +
+        "ASSIGN := \"=\"\n" +
+        "EQ := \"==\"";
+
+
+    private List<Token> tokenize(final String lex, final CharSequence code) throws IOException, InvalidLexFormatException, InvalidTokenException {
+        final Lexer lexer = new Lexer(lex);
+        lexer.setCode(code);
+        return lexer.tokenize();
+    }
+
+    private String print(final List<Token> tokens) {
+        final StringBuilder sb = new StringBuilder();
+
+        for(final Token token : tokens) sb.append(token.tokenType().name()).append('(').append(token.symbol()).append(')');
+
+        return sb.toString();
+    }
+
+
+    @Test
+    @DisplayName("Test longest match")
+    public void testLongestMatch() throws IOException, InvalidLexFormatException, InvalidTokenException {
+        assertEquals("ID(iffy)IGNORE( )EQ(==)IGNORE( )NUM(42)", print(tokenize(LEX, "iffy == 42")));
+        assertEquals("ID(x1)ASSIGN(=)ID(y)", print(tokenize(LEX, "x1=y")));
+    }
+
+    @Test
+    @DisplayName("Test priority of equally long matches")
+    public void testPriority() throws IOException, InvalidLexFormatException, InvalidTokenException {
+        assertEquals("IF(if)IGNORE(\n)ID(i)", print(tokenize(LEX, "if\ni")));
+    }
+
+    @Test
+    @DisplayName("Test char sequence input")
+    public void testCharSequence() throws IOException, InvalidLexFormatException, InvalidTokenException {
+        final StringBuilder code = new StringBuilder("x=1");
+
+        assertEquals("ID(x)ASSIGN(=)NUM(1)", print(tokenize(LEX, code)));
+        assertEquals("ID(x)ASSIGN(=)NUM(1)", print(tokenize(LEX + "\nLOOKAHEAD := \"y(?=z)\"", code)));
+        assertEquals("x=1", code.toString());
+    }
+
+    @Test
+    @DisplayName("Test columnar token buffer")
+    public void testTokenBuffer() throws IOException, InvalidLexFormatException, InvalidTokenException {
+        final Lexer lexer = new Lexer(LEX);
+        lexer.setCode("if x1 == 42");
+
+        final TokenBuffer buffer = lexer.tokenizeToBuffer();
+
+        assertEquals(7, buffer.size());
+        assertEquals("IF", buffer.getTokenType(0).name());
+        assertEquals(3, buffer.getStart(2));
+        assertEquals(5, buffer.getEnd(2));
+        assertEquals("x1", buffer.getSymbol(2));
+        assertEquals(lexer.tokenize(), buffer.asList());
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.getStart(7));
+        assertThrows(UnsupportedOperationException.class, () -> buffer.asList().remove(0));
+    }
+
+    @Test
+    @DisplayName("Test invalid token")
+    public void testInvalidToken() {
+        assertThrows(InvalidTokenException.class, () -> tokenize(LEX, "x = ?"));
+    }
+
+    @Test
+    @DisplayName("Test fallback for non regular token regex")
+    public void testFallback() throws IOException, InvalidLexFormatException, InvalidTokenException {
+        final String lex = "A := \"a(?=b)\"\nB := \"b+\"";
+
+        assertEquals("A(a)B(bbb)", print(tokenize(lex, "abbb")));
+        assertThrows(InvalidTokenException.class, () -> tokenize(lex, "aab"));
+        assertEquals("AB(ab)B(bb)", print(tokenize(lex + "\nAB := \"ab\"", "abbb")));
+    }
+
+    @Test
+    @DisplayName("Test longest match of the regular token types beside the fallback")
+    public void testFallbackPerTokenType() throws IOException, InvalidLexFormatException, InvalidTokenException {
+        final String lex = "AB := \"a|ab\"\nB := \"b\"";
+
+        assertEquals("AB(ab)", print(tokenize(lex, "ab")));
+        assertEquals("AB(ab)", print(tokenize(lex + "\nX := \"x(?=y)\"", "ab")));
+        assertEquals("AB(ab)X(x)Y(y)AB(a)", print(tokenize(lex + "\nX := \"x(?=y)\"\nY := \"y\"", "abxya")));
+
+        final String big = lex + "\nW := \"[ab]*a[ab]{13}\""; // the DFA gets too big
+        assertFalse(new Lexer(big).getSpec().isDeterministic());
+        assertEquals(print(tokenize(lex, "abab")), print(tokenize(big, "abab")));
+
+        final String huge = lex + "\nX := \"(x{1000}){60}\"\nY := \"(y{1000}){60}\""; // only the NFA of both together gets too big
+        final LexerSpec spec = new Lexer(huge).getSpec();
+        assertArrayEquals(new int[] { 0, 1, 2 }, spec.getAutomatonTypes());
+        assertArrayEquals(new int[] { 3 }, spec.getPatternTypes());
+        assertEquals("AB(ab)Y(" + "y".repeat(60000) + ")", print(tokenize(huge, "ab" + "y".repeat(60000))));
+    }
+
+    @Test
+    @DisplayName("Test literal token types beside the fallback")
+    public void testLiteralFallback() throws IOException, InvalidLexFormatException, InvalidTokenException {
+        final String lex = LEX + "\nEND := \"\\.$\"";
+
+        assertEquals("IF(if)IGNORE( )ID(iff)EQ(==)ASSIGN(=)NUM(1)END(.)", print(tokenize(lex, "if iff===1.")));
+        assertEquals(print(tokenize(LEX, "if iff === 1")), print(tokenize(lex, "if iff === 1")));
+        assertThrows(InvalidTokenException.class, () -> tokenize(lex, "x . y"));
+    }
+
+    @Test
+    @DisplayName("Test first char dispatch in the fallback")
+    public void testFirstCharDispatch() throws IOException, InvalidLexFormatException, InvalidTokenException {
+        final String lex = "A := \"a(?=b)\"\n" +
+            "OPT := \"x?y+\"\n" +
+            "UMLAUT := \"[\\u00e4\\u00f6\\u00fc]+\"\n" +
+            "WORD := \"[a-w\\u00e4-\\u00fc]+\"\n" +
+            "NUM := \"(-|[0-9]*)[0-9]\"";
+
+        assertEquals("OPT(xyyy)UMLAUT(\u00e4\u00f6)NUM(-1)OPT(y)NUM(42)WORD(ab)", print(tokenize(lex, "xyyy\u00e4\u00f6-1y42ab")));
+        assertThrows(InvalidTokenException.class, () -> tokenize(lex, "x?"));
+    }
+
+    @Test
+    @DisplayName("Test runs of single char ignorables")
+    public void testIgnorableRuns() throws IOException, InvalidLexFormatException, InvalidTokenException {
+        final String lex = "%\" \", \"\\t\", \"\\n\"\n" +
+            "COMMENT := \"\\n#[a-z]*\"\n" +
+            "TAB := \"\\t\"\n" +
+            "ID := \"[a-z]+\"";
+
+        assertEquals("ID(a)IGNORE( )IGNORE( )ID(b)COMMENT(\n#c)IGNORE(\n)IGNORE(\t)ID(d)", print(tokenize(lex, "a  b\n#c\n\td")));
+    }
+}
@@ -0,0 +1,93 @@
+package parssist.lexer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import parssist.Config;
+import parssist.lexer.exception.InvalidLexFormatException;
+import parssist.lexer.exception.InvalidTokenException;
+import parssist.lexer.exception.UncheckedInvalidTokenException;
+import parssist.lexer.util.Token;
+
+
+/**
+ * Testclass for {@link TokenStream}.
+ */
+public class TokenStreamTest {
+    private static final String LEX = "%\" \", \"\\n\"\n" +
+        "ID := \"[a-z]+\"\n" +
+        "NUM := \"[0-9]+(\\.[0-9]+)?\"\n" +
+        "STRING := \"'[^']*'\"";
+
+
+    private String code() {
+        final StringBuilder sb = new StringBuilder();
+
+        for(int i = 0; sb.length() < 5 * Config.LEXER_STREAM_BUFFER_SIZE; i++) {
+            sb.append("word").append(i % 7 == 0 ? "\n" : " ").append(i).append('.').append(i % 13).append(' ');
+            if(i % 100 == 0) sb.append('\'').append("x".repeat(3 * Config.LEXER_STREAM_BUFFER_SIZE / 2)).append("' ");
+        }
+
+        return sb.toString();
+    }
+
+
+    @Test
+    @DisplayName("Test stream over reader")
+    public void testReader() throws InvalidLexFormatException, InvalidTokenException, IOException {
+        final LexerSpec spec = LexerSpec.compile(LEX);
+        final String code = code();
+
+        try(final TokenStream stream = new TokenStream(spec, new StringReader(code))) {
+            assertEquals(spec.tokenize(code), stream.stream().collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    @DisplayName("Test stream over channel with fallback patterns")
+    public void testChannelFallback() throws InvalidLexFormatException, InvalidTokenException, IOException {
+        final LexerSpec spec = LexerSpec.compile(LEX + "\nEND := \"\\.$\"");
+        final String code = code() + ".";
+
+        try(final TokenStream stream = new TokenStream(spec, Channels.newChannel(new ByteArrayInputStream(code.getBytes(StandardCharsets.UTF_8))), StandardCharsets.UTF_8)) {
+            final List<Token> tokens = stream.stream().collect(Collectors.toList());
+
+            assertEquals(spec.tokenize(code), tokens);
+            assertEquals("END", tokens.get(tokens.size() - 1).tokenType().name());
+        }
+    }
+
+    @Test
+    @DisplayName("Test invalid token in stream")
+    public void testInvalidToken() throws InvalidLexFormatException, InvalidTokenException, IOException {
+        final LexerSpec spec = LexerSpec.compile(LEX);
+
+        try(final TokenStream stream = new TokenStream(spec, new StringReader("abc ?"))) {
+            assertEquals("abc", stream.nextToken().symbol());
+            assertEquals(" ", stream.nextToken().symbol());
+            assertEquals(4, stream.getPosition());
+            assertThrows(InvalidTokenException.class, () -> stream.nextToken());
+        }
+
+        try(final TokenStream stream = new TokenStream(spec, new StringReader("'" + "x".repeat(Config.LEXER_STREAM_MAX_BUFFER_SIZE)))) {
+            assertThrows(UncheckedInvalidTokenException.class, () -> stream.hasNext());
+        }
+
+        try(final TokenStream stream = new TokenStream(LexerSpec.compileLinear(LEX, 8), new StringReader("abc " + "x".repeat(20)))) {
+            assertEquals("abc", stream.nextToken().symbol());
+            assertEquals(" ", stream.nextToken().symbol());
+            assertThrows(InvalidTokenException.class, () -> stream.nextToken());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package parssist.lexer.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import parssist.lexer.LexerSpec;
+
+
+/**
+ * Testclass for {@link LineIndex}.
+ */
+public class LineIndexTest {
+    @Test
+    @DisplayName("Test line and column")
+    public void testLineAndColumn() {
+        final LineIndex index = new LineIndex("ab\n\ncd\n");
+
+        assertEquals(4, index.getLineCount());
+        assertEquals("1:1", index.format(0));
+        assertEquals("1:3", index.format(2));
+        assertEquals("2:1", index.format(3));
+        assertEquals("3:2", index.format(5));
+        assertEquals("4:1", index.format(7));
+        assertEquals(4, index.getLineStart(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> index.getLine(8));
+        assertEquals(1, new LineIndex("").getLineCount());
+    }
+
+    @Test
+    @DisplayName("Test line and column of tokens and diagnostics")
+    public void testTokens() throws Exception {
+        final LexerSpec spec = LexerSpec.compile("%\" \", \"\\n\"\nID := \"[a-z]+\"");
+        final TokenBuffer tokens = spec.tokenizeWithRecovery("ab\n  cd ?\nx", new ArrayList<>());
+        final List<Diagnostic> diagnostics = new ArrayList<>();
+        spec.tokenizeWithRecovery("ab\n  cd ?\nx", diagnostics);
+
+        assertEquals(2, tokens.getLine(4));
+        assertEquals(3, tokens.getColumn(4));
+        assertEquals("cd", tokens.getSymbol(4));
+        assertEquals("2:6", tokens.getLineIndex().format(diagnostics.get(0).start()));
+    }
+}
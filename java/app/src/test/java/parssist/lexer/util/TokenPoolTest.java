@@ -0,0 +1,45 @@
+package parssist.lexer.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import parssist.lexer.LexerSpec;
+
+
+/**
+ * Testclass for {@link TokenPool}.
+ */
+public class TokenPoolTest {
+    @Test
+    @DisplayName("Test canonical and interned tokens")
+    public void testInterning() {
+        final List<TokenType> tokenTypes = List.of(new TokenType("IF", "if", 0, false), new TokenType("ID", "[a-z]+", 1, false));
+        final TokenPool pool = new TokenPool(tokenTypes, new String[] { "if", null }, 16, 4);
+        final String input = "if abc abc if abcdef abcdef";
+
+        assertSame(pool.get(0, input, 0, 2), pool.get(0, input, 11, 13));
+        assertSame(pool.get(1, input, 3, 6), pool.get(1, input, 7, 10));
+        assertEquals(new Token(tokenTypes.get(1), "abc"), pool.get(1, input, 3, 6));
+        assertNotSame(pool.get(1, input, 14, 20), pool.get(1, input, 21, 27));
+        assertEquals(pool.get(1, input, 14, 20), pool.get(1, input, 21, 27));
+        assertEquals(TokenBuffer.ERROR_TYPE, pool.get(TokenBuffer.ERROR, input, 0, 2).tokenType());
+    }
+
+    @Test
+    @DisplayName("Test tokens of a spec")
+    public void testSpecTokens() throws Exception {
+        final LexerSpec spec = LexerSpec.compile("%\" \"\nPLUS := \"\\+\"\nID := \"[a-z]+\"");
+        final List<Token> tokens = spec.tokenize("ab + ab + cd");
+
+        assertSame(tokens.get(0), tokens.get(4));
+        assertSame(tokens.get(2), tokens.get(6));
+        assertSame(tokens.get(1), spec.tokenize(" ").get(0));
+        assertEquals("cd", tokens.get(8).symbol());
+    }
+}
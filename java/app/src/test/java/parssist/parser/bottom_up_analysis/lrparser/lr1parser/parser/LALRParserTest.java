@@ -0,0 +1,445 @@
+package parssist.parser.bottom_up_analysis.lrparser.lr1parser.parser;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import parssist.Config;
+import parssist.lexer.util.Token;
+import parssist.lexer.util.TokenType;
+import parssist.parser.bottom_up_analysis.lrparser.lr1parser.parser.LRParser.LRParseTable;
+import parssist.parser.bottom_up_analysis.lrparser.lr1parser.parser.exception.LRParseException;
+import parssist.parser.util.Grammar;
+import parssist.parser.util.Production;
+
+
+/**
+ * Testclass for {@link LALRParser}.
+ */
+public class LALRParserTest {
+    private List<Production> productions;
+    private List<Token> vocabulary; 
+    private List<Token> alphabet;
+    private Token startsymbol;
+    private Grammar grammar;
+    private List<Token[]> list2;
+    private List<Token[]> list3;
+    private List<Token[]> list4;
+
+
+    /**
+     * Set up the grammar, by using the following grammar:
+     * E_ -> E
+     * E -> E + T | T
+     * T -> T*F | F
+     * F -> (E) | id
+     * (Example 4.19 from the {@link <a href="https://suif.stanford.edu/dragonbook/">Dragonbook</a>})
+     */
+    public void setUp1() {
+        productions = new ArrayList<>();
+        vocabulary = new ArrayList<>();
+        alphabet = new ArrayList<>();
+        list2 = new ArrayList<>();
+        list3 = new ArrayList<>();
+        list4 = new ArrayList<>();
+
+
+        list2.add(new Token[] {
+            new Token(new TokenType("NONTERMINAL", "E", 0, false), "E"),
+            new Token(new TokenType("TERMINAL", "\\+", 0, false), "+"), 
+            new Token(new TokenType("NONTERMINAL", "T", 0, false), "T")
+        });
+        list2.add(new Token[] {
+            new Token(new TokenType("NONTERMINAL", "T", 0, false), "T")
+        });
+        productions.add(
+            new Production(
+                new Token(
+                    new TokenType("NONTERMINAL", "E", 0, false), "E"
+                ), 
+                list2
+            )
+        );
+
+
+        list3.add(new Token[] {
+            new Token(new TokenType("NONTERMINAL", "T", 0, false), "T"),
+            new Token(new TokenType("TERMINAL", "\\*", 0, false), "*"), 
+            new Token(new TokenType("NONTERMINAL", "F", 0, false), "F")
+        });
+        list3.add(new Token[] {
+            new Token(new TokenType("NONTERMINAL", "F", 0, false), "F")
+        });
+        productions.add(
+            new Production(
+                new Token(
+                    new TokenType("NONTERMINAL", "T", 0, false), "T"
+                ), 
+                list3
+            )
+        );
+
+
+        list4.add(new Token[] {
+            new Token(new TokenType("TERMINAL", "\\(", 0, false), "("), 
+            new Token(new TokenType("NONTERMINAL", "E", 0, false), "E"),
+            new Token(new TokenType("TERMINAL", "\\)", 0, false), ")")
+        });
+        list4.add(new Token[] {
+            new Token(new TokenType("TERMINAL", "id", 0, false), "id")
+        });
+        productions.add(
+            new Production(
+                new Token(
+                    new TokenType("NONTERMINAL", "F", 0, false), "F"
+                ), 
+                list4
+            )
+        );
+
+
+        vocabulary.add(new Token(
+            new TokenType("NONTERMINAL", "E", 0, false), "E"
+        ));
+        vocabulary.add(new Token(
+            new TokenType("NONTERMINAL", "T", 0, false), "T"
+        ));
+        vocabulary.add(new Token(
+            new TokenType("NONTERMINAL", "F", 0, false), "F"
+        ));
+        
+        alphabet.add(new Token(
+            new TokenType("TERMINAL", "\\(", 0, false), "("
+        ));
+        alphabet.add(new Token(
+            new TokenType("TERMINAL", "\\)", 0, false), ")"
+        ));
+        alphabet.add(new Token(
+            new TokenType("TERMINAL", "\\*", 0, false), "*"
+        ));
+        alphabet.add(new Token(
+            new TokenType("TERMINAL", "\\+", 0, false), "+"
+        ));
+        alphabet.add(new Token(
+            new TokenType("TERMINAL", "id", 0, false), "id"
+        ));
+        alphabet.add(new Token(
+            new TokenType("EMPTY_SYMBOL", "\\$", 0, true), "$"
+        ));
+
+        startsymbol = new Token(
+            new TokenType("NONTERMINAL", "E", 0, false), "E"
+        );
+        
+        List<TokenType> tokentypes = new ArrayList<>();
+        tokentypes.addAll(alphabet.stream().map(e -> e.tokenType()).toList());
+        tokentypes.addAll(vocabulary.stream().map(e -> e.tokenType()).toList());
+
+        grammar = new Grammar(tokentypes, vocabulary, alphabet, productions, startsymbol, true);
+        grammar.addArgumentProduction(new Token(new TokenType("NONTERMINAL", Config.GRAMMAR_ARGUMENT_SYMBOL, 0, false), Config.GRAMMAR_ARGUMENT_SYMBOL));
+    }
+
+    /**
+     * Set up the grammar, by using the following grammar:
+     * S -> L=R | R
+     * L -> *R | id
+     * R -> L
+     * (Example 4.20 from the {@link <a href="https://suif.stanford.edu/dragonbook/">Dragonbook</a>})
+     */
+    public void setUp2() {
+        productions = new ArrayList<>();
+        vocabulary = new ArrayList<>();
+        alphabet = new ArrayList<>();
+        list2 = new ArrayList<>();
+        list3 = new ArrayList<>();
+        list4 = new ArrayList<>();
+
+
+        list2.add(new Token[] {
+            new Token(new TokenType("NONTERMINAL", "L", 0, false), "L"),
+            new Token(new TokenType("TERMINAL", "\\=", 0, false), "="), 
+            new Token(new TokenType("NONTERMINAL", "R", 0, false), "R")
+        });
+        list2.add(new Token[] {
+            new Token(new TokenType("NONTERMINAL", "R", 0, false), "R")
+        });
+        productions.add(
+            new Production(
+                new Token(
+                    new TokenType("NONTERMINAL", "S", 0, false), "S"
+                ), 
+                list2
+            )
+        );
+
+
+        list3.add(new Token[] {
+            new Token(new TokenType("TERMINAL", "\\*", 0, false), "*"), 
+            new Token(new TokenType("NONTERMINAL", "R", 0, false), "R")
+        });
+        list3.add(new Token[] {
+            new Token(new TokenType("TERMINAL", "id", 0, false), "id")
+        });
+        productions.add(
+            new Production(
+                new Token(
+                    new TokenType("NONTERMINAL", "L", 0, false), "L"
+                ), 
+                list3
+            )
+        );
+
+
+        list4.add(new Token[] {
+            new Token(new TokenType("NONTERMINAL", "L", 0, false), "L")
+        });
+        productions.add(
+            new Production(
+                new Token(
+                    new TokenType("NONTERMINAL", "R", 0, false), "R"
+                ), 
+                list4
+            )
+        );
+
+
+        vocabulary.add(new Token(
+            new TokenType("NONTERMINAL", "S", 0, false), "S"
+        ));
+        vocabulary.add(new Token(
+            new TokenType("NONTERMINAL", "L", 0, false), "L"
+        ));
+        vocabulary.add(new Token(
+            new TokenType("NONTERMINAL", "R", 0, false), "R"
+        ));
+        
+        alphabet.add(new Token(
+            new TokenType("TERMINAL", "id", 0, false), "id"
+        ));
+        alphabet.add(new Token(
+            new TokenType("TERMINAL", "\\=", 0, false), "="
+        ));
+        alphabet.add(new Token(
+            new TokenType("TERMINAL", "\\*", 0, false), "*"
+        ));
+        alphabet.add(new Token(
+            new TokenType("EMPTY_SYMBOL", "\\$", 0, false), "$"
+        ));
+
+        startsymbol = new Token(
+            new TokenType("NONTERMINAL", "S", 0, false), "S"
+        );
+        
+        List<TokenType> tokentypes = new ArrayList<>();
+        tokentypes.addAll(alphabet.stream().map(e -> e.tokenType()).toList());
+        tokentypes.addAll(vocabulary.stream().map(e -> e.tokenType()).toList());
+
+        grammar = new Grammar(tokentypes, vocabulary, alphabet, productions, startsymbol, true);
+        grammar.addArgumentProduction(new Token(new TokenType("NONTERMINAL", Config.GRAMMAR_ARGUMENT_SYMBOL, 0, false), Config.GRAMMAR_ARGUMENT_SYMBOL));
+    }
+
+    /**
+     * Set up the grammar, by using the following grammar:
+     * S -> TS | $
+     * T -> (S) | $
+     * (Grammar for the language of balanced parentheses)
+     */
+    private void setUp3() {
+        List<Production> productions = new ArrayList<>();
+        List<Token> vocabulary = new ArrayList<>();
+        List<Token> alphabet = new ArrayList<>();
+        List<Token[]> list1 = new ArrayList<>();
+        List<Token[]> list2 = new ArrayList<>();
+        List<Token[]> list3 = new ArrayList<>();
+
+
+        list1.add(new Token[] {
+            new Token(new TokenType("NONTERMINAL", "T", 0, false), "T"),  
+            new Token(new TokenType("NONTERMINAL", "S", 0, false), "S")
+        });
+        productions.add(
+            new Production(
+                new Token(
+                    new TokenType("NONTERMINAL", "S", 0, false), "S"
+                ), 
+                list1
+            )
+        );
+
+
+        list2.add(new Token[] {
+            new Token(new TokenType("EMPTY_SYMBOL", "\\$", 0, true), "$")
+        });
+        productions.add(
+            new Production(
+                new Token(
+                    new TokenType("NONTERMINAL", "S", 0, false), "S"
+                ), 
+                list2
+            )
+        );
+
+
+        list3.add(new Token[] {
+            new Token(new TokenType("TERMINAL", "(", 0, false), "("),  
+            new Token(new TokenType("NONTERMINAL", "S", 0, false), "S"),
+            new Token(new TokenType("TERMINAL", ")", 0, false), ")"),  
+        });
+        productions.add(
+            new Production(
+                new Token(
+                    new TokenType("NONTERMINAL", "T", 0, false), "T"
+                ), 
+                list3
+            )
+        );
+
+
+        vocabulary.add(new Token(
+            new TokenType("NONTERMINAL", "S", 0, false), "S"
+        ));
+        vocabulary.add(new Token(
+            new TokenType("NONTERMINAL", "T", 0, false), "T"
+        ));
+        
+        alphabet.add(new Token(
+            new TokenType("TERMINAL", "\\(", 0, false), "("
+        ));
+        alphabet.add(new Token(
+            new TokenType("TERMINAL", "\\)", 0, false), ")"
+        ));
+        alphabet.add(new Token(
+            new TokenType("EMPTY_SYMBOL", "\\$", 0, true), "$"
+        ));
+
+        Token startsymbol = new Token(
+            new TokenType("NONTERMINAL", "S", 0, false), "S"
+        );
+        
+        List tokentypes = new ArrayList<>();
+        tokentypes.add(new TokenType("TERMINAL", "\\(|\\)", 0, false));
+        tokentypes.add(new TokenType("NONTERMINAL", "S", 0, false));
+        tokentypes.add(new TokenType("EMPTY_SYMBOL", "\\$", 0, true));
+
+
+        grammar = new Grammar(tokentypes, vocabulary, alphabet, productions, startsymbol, true);
+        grammar.addArgumentProduction(new Token(new TokenType("NONTERMINAL", Config.GRAMMAR_ARGUMENT_SYMBOL, 0, false), Config.GRAMMAR_ARGUMENT_SYMBOL));
+    }
+
+
+    /**
+     * Test the {@link LALRParser#createParseTable()} with the grammar from {@link #setUp1()}.
+     * The grammar is SLR(1) and the LALR(1) lookaheads are the FOLLOW sets, so the table is the SLR(1) table.
+     * @throws Exception If there was an error creating the parse table.
+     */
+    @Test
+    @DisplayName("Test createParseTable()")
+    public void testCreateParseTable1() throws Exception {
+        setUp1();
+
+        final LRParseTable table = new LALRParser(grammar).createParseTable();
+        
+        assertEquals(new SLRParser(grammar).createParseTable().print(), table.print());
+    }
+
+
+    /**
+     * Test the {@link LALRParser#createParseTable()} with the grammar from {@link #setUp2()}.
+     * The grammar is not SLR(1), but LALR(1): [R -> L.] is only reduced on $ in the state with [S -> L.=R].
+     * @throws Exception If there was an error creating the parse table.
+     */
+    @Test
+    @DisplayName("Test createParseTable() of a LALR(1), but not SLR(1) grammar")
+    public void testCreateParseTable2() throws Exception {
+        setUp2();
+
+        final LRParser parser = new LALRParser(grammar);
+        final LRParseTable table = parser.createParseTable();
+        final int state = table.getGotoTable()[0][1]; // L
+
+        assertEquals(LRParser.Action.Type.SHIFT, table.getActionTable()[state][1].type);
+        assertEquals(LRParser.Action.Type.REDUCE, table.getActionTable()[state][3].type);
+
+        assertDoesNotThrow(() -> parser.parse("id"));
+        assertDoesNotThrow(() -> parser.parse("*id=id"));
+        assertDoesNotThrow(() -> parser.parse("**id=*id"));
+
+        assertThrows(LRParseException.class, () -> parser.parse("id="));
+        assertThrows(LRParseException.class, () -> parser.parse("=id"));
+        assertThrows(LRParseException.class, () -> parser.parse("id=id=id"));
+    }
+
+
+    /**
+     * Test the {@link LALRParser#createParseTable()} with the grammar from {@link #setUp3()}.
+     * The empty productions are only reduced on the lookaheads, which can follow in the state (not on all of FOLLOW).
+     * @throws Exception If there was an error creating the parse table.
+     */
+    @Test
+    @DisplayName("Test createParseTable() with empty productions")
+    public void testCreateParseTable3() throws Exception {
+        setUp3();
+
+        final LRParser parser = new LALRParser(grammar);
+        final LRParseTable table = parser.createParseTable();
+
+        assertEquals(LRParser.Action.Type.ERROR, table.getActionTable()[0][1].type);
+        assertEquals(LRParser.Action.Type.REDUCE, table.getActionTable()[0][2].type);
+
+        assertDoesNotThrow(() -> parser.parse("()"));
+        assertDoesNotThrow(() -> parser.parse("(())()"));
+
+        assertThrows(LRParseException.class, () -> parser.parse(")("));
+        assertThrows(LRParseException.class, () -> parser.parse("(()"));
+    }
+
+
+    /**
+     * Test the {@link LALRParser#createParseTable()} with a chain grammar of 1001 states and 500 nested includes:
+     * N0 -> a0 N1 | a0, ..., N498 -> a498 N499 | a498, N499 -> a499
+     * @throws Exception If there was an error creating the parse table.
+     */
+    @Test
+    @DisplayName("Test createParseTable() with many states")
+    public void testCreateParseTableLarge() throws Exception {
+        final int n = 500;
+        final List<Production> productions = new ArrayList<>();
+        final List<Token> vocabulary = new ArrayList<>();
+        final List<Token> alphabet = new ArrayList<>();
+
+        for(int i = 0; i < n; i++) {
+            final Token nonterminal = new Token(new TokenType("NONTERMINAL", "N" + i, 0, false), "N" + i);
+            final Token terminal = new Token(new TokenType("TERMINAL", "a" + i, 0, false), "a" + i);
+            final List<Token[]> rhs = new ArrayList<>();
+
+            if(i < n - 1) rhs.add(new Token[] { terminal, new Token(new TokenType("NONTERMINAL", "N" + (i + 1), 0, false), "N" + (i + 1)) });
+            rhs.add(new Token[] { terminal });
+
+            productions.add(new Production(nonterminal, rhs));
+            vocabulary.add(nonterminal);
+            alphabet.add(terminal);
+        }
+        alphabet.add(new Token(new TokenType("EMPTY_SYMBOL", "\\$", 0, true), "$"));
+
+        grammar = new Grammar(new ArrayList<>(), vocabulary, alphabet, productions, vocabulary.get(0), true);
+        grammar.addArgumentProduction(new Token(new TokenType("NONTERMINAL", Config.GRAMMAR_ARGUMENT_SYMBOL, 0, false), Config.GRAMMAR_ARGUMENT_SYMBOL));
+
+        final LRParseTable slr = new SLRParser(grammar).createParseTable();
+        final LRParseTable lalr = new LALRParser(grammar).createParseTable();
+
+        assertEquals(2 * n + 1, lalr.getActionTable().length);
+
+        for(int i = 0; i < slr.getActionTable().length; i++) {
+            assertArrayEquals(slr.getGotoTable()[i], lalr.getGotoTable()[i]);
+
+            for(int a = 0; a <= n; a++) assertEquals(slr.getActionTable()[i][a].toString(), lalr.getActionTable()[i][a].toString());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,524 @@
+package parssist.parser.bottom_up_analysis.lrparser.lr1parser.parser;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import parssist.Config;
+import parssist.lexer.util.Token;
+import parssist.lexer.util.TokenType;
+import parssist.parser.bottom_up_analysis.lrparser.lr1parser.parser.LRParser.LRParseTable;
+import parssist.parser.bottom_up_analysis.lrparser.lr1parser.parser.exception.LRParseException;
+import parssist.parser.bottom_up_analysis.lrparser.lr1parser.parser.exception.NoLALR1GrammarException;
+import parssist.parser.bottom_up_analysis.lrparser.lr1parser.parser.exception.NoLR1GrammarException;
+import parssist.parser.util.Grammar;
+import parssist.parser.util.Production;
+
+
+/**
+ * Testclass for {@link LR1Parser}.
+ */
+public class LR1ParserTest {
+    private List<Production> productions;
+    private List<Token> vocabulary; 
+    private List<Token> alphabet;
+    private Token startsymbol;
+    private Grammar grammar;
+    private List<Token[]> list2;
+    private List<Token[]> list3;
+    private List<Token[]> list4;
+
+
+    /**
+     * Set up the grammar, by using the following grammar:
+     * E_ -> E
+     * E -> E + T | T
+     * T -> T*F | F
+     * F -> (E) | id
+     * (Example 4.19 from the {@link <a href="https://suif.stanford.edu/dragonbook/">Dragonbook</a>})
+     */
+    public void setUp1() {
+        productions = new ArrayList<>();
+        vocabulary = new ArrayList<>();
+        alphabet = new ArrayList<>();
+        list2 = new ArrayList<>();
+        list3 = new ArrayList<>();
+        list4 = new ArrayList<>();
+
+
+        list2.add(new Token[] {
+            new Token(new TokenType("NONTERMINAL", "E", 0, false), "E"),
+            new Token(new TokenType("TERMINAL", "\\+", 0, false), "+"), 
+            new Token(new TokenType("NONTERMINAL", "T", 0, false), "T")
+        });
+        list2.add(new Token[] {
+            new Token(new TokenType("NONTERMINAL", "T", 0, false), "T")
+        });
+        productions.add(
+            new Production(
+                new Token(
+                    new TokenType("NONTERMINAL", "E", 0, false), "E"
+                ), 
+                list2
+            )
+        );
+
+
+        list3.add(new Token[] {
+            new Token(new TokenType("NONTERMINAL", "T", 0, false), "T"),
+            new Token(new TokenType("TERMINAL", "\\*", 0, false), "*"), 
+            new Token(new TokenType("NONTERMINAL", "F", 0, false), "F")
+        });
+        list3.add(new Token[] {
+            new Token(new TokenType("NONTERMINAL", "F", 0, false), "F")
+        });
+        productions.add(
+            new Production(
+                new Token(
+                    new TokenType("NONTERMINAL", "T", 0, false), "T"
+                ), 
+                list3
+            )
+        );
+
+
+        list4.add(new Token[] {
+            new Token(new TokenType("TERMINAL", "\\(", 0, false), "("), 
+            new Token(new TokenType("NONTERMINAL", "E", 0, false), "E"),
+            new Token(new TokenType("TERMINAL", "\\)", 0, false), ")")
+        });
+        list4.add(new Token[] {
+            new Token(new TokenType("TERMINAL", "id", 0, false), "id")
+        });
+        productions.add(
+            new Production(
+                new Token(
+                    new TokenType("NONTERMINAL", "F", 0, false), "F"
+                ), 
+                list4
+            )
+        );
+
+
+        vocabulary.add(new Token(
+            new TokenType("NONTERMINAL", "E", 0, false), "E"
+        ));
+        vocabulary.add(new Token(
+            new TokenType("NONTERMINAL", "T", 0, false), "T"
+        ));
+        vocabulary.add(new Token(
+            new TokenType("NONTERMINAL", "F", 0, false), "F"
+        ));
+        
+        alphabet.add(new Token(
+            new TokenType("TERMINAL", "\\(", 0, false), "("
+        ));
+        alphabet.add(new Token(
+            new TokenType("TERMINAL", "\\)", 0, false), ")"
+        ));
+        alphabet.add(new Token(
+            new TokenType("TERMINAL", "\\*", 0, false), "*"
+        ));
+        alphabet.add(new Token(
+            new TokenType("TERMINAL", "\\+", 0, false), "+"
+        ));
+        alphabet.add(new Token(
+            new TokenType("TERMINAL", "id", 0, false), "id"
+        ));
+        alphabet.add(new Token(
+            new TokenType("EMPTY_SYMBOL", "\\$", 0, true), "$"
+        ));
+
+        startsymbol = new Token(
+            new TokenType("NONTERMINAL", "E", 0, false), "E"
+        );
+        
+        List<TokenType> tokentypes = new ArrayList<>();
+        tokentypes.addAll(alphabet.stream().map(e -> e.tokenType()).toList());
+        tokentypes.addAll(vocabulary.stream().map(e -> e.tokenType()).toList());
+
+        grammar = new Grammar(tokentypes, vocabulary, alphabet, productions, startsymbol, true);
+        grammar.addArgumentProduction(new Token(new TokenType("NONTERMINAL", Config.GRAMMAR_ARGUMENT_SYMBOL, 0, false), Config.GRAMMAR_ARGUMENT_SYMBOL));
+    }
+
+    /**
+     * Set up the grammar, by using the following grammar:
+     * S -> TS | $
+     * T -> (S) | $
+     * (Grammar for the language of balanced parentheses)
+     */
+    private void setUp3() {
+        List<Production> productions = new ArrayList<>();
+        List<Token> vocabulary = new ArrayList<>();
+        List<Token> alphabet = new ArrayList<>();
+        List<Token[]> list1 = new ArrayList<>();
+        List<Token[]> list2 = new ArrayList<>();
+        List<Token[]> list3 = new ArrayList<>();
+
+
+        list1.add(new Token[] {
+            new Token(new TokenType("NONTERMINAL", "T", 0, false), "T"),  
+            new Token(new TokenType("NONTERMINAL", "S", 0, false), "S")
+        });
+        productions.add(
+            new Production(
+                new Token(
+                    new TokenType("NONTERMINAL", "S", 0, false), "S"
+                ), 
+                list1
+            )
+        );
+
+
+        list2.add(new Token[] {
+            new Token(new TokenType("EMPTY_SYMBOL", "\\$", 0, true), "$")
+        });
+        productions.add(
+            new Production(
+                new Token(
+                    new TokenType("NONTERMINAL", "S", 0, false), "S"
+                ), 
+                list2
+            )
+        );
+
+
+        list3.add(new Token[] {
+            new Token(new TokenType("TERMINAL", "(", 0, false), "("),  
+            new Token(new TokenType("NONTERMINAL", "S", 0, false), "S"),
+            new Token(new TokenType("TERMINAL", ")", 0, false), ")"),  
+        });
+        productions.add(
+            new Production(
+                new Token(
+                    new TokenType("NONTERMINAL", "T", 0, false), "T"
+                ), 
+                list3
+            )
+        );
+
+
+        vocabulary.add(new Token(
+            new TokenType("NONTERMINAL", "S", 0, false), "S"
+        ));
+        vocabulary.add(new Token(
+            new TokenType("NONTERMINAL", "T", 0, false), "T"
+        ));
+        
+        alphabet.add(new Token(
+            new TokenType("TERMINAL", "\\(", 0, false), "("
+        ));
+        alphabet.add(new Token(
+            new TokenType("TERMINAL", "\\)", 0, false), ")"
+        ));
+        alphabet.add(new Token(
+            new TokenType("EMPTY_SYMBOL", "\\$", 0, true), "$"
+        ));
+
+        Token startsymbol = new Token(
+            new TokenType("NONTERMINAL", "S", 0, false), "S"
+        );
+        
+        List tokentypes = new ArrayList<>();
+        tokentypes.add(new TokenType("TERMINAL", "\\(|\\)", 0, false));
+        tokentypes.add(new TokenType("NONTERMINAL", "S", 0, false));
+        tokentypes.add(new TokenType("EMPTY_SYMBOL", "\\$", 0, true));
+
+
+        grammar = new Grammar(tokentypes, vocabulary, alphabet, productions, startsymbol, true);
+        grammar.addArgumentProduction(new Token(new TokenType("NONTERMINAL", Config.GRAMMAR_ARGUMENT_SYMBOL, 0, false), Config.GRAMMAR_ARGUMENT_SYMBOL));
+    }
+
+
+    /**
+     * Set up the grammar, by using the following grammar:
+     * S -> aAd | bBd | aBe | bAe
+     * A -> c
+     * B -> c
+     * (Example 4.58 from the {@link <a href="https://suif.stanford.edu/dragonbook/">Dragonbook</a>}, which is LR(1), but not LALR(1))
+     */
+    private void setUp4() {
+        List<Production> productions = new ArrayList<>();
+        List<Token> vocabulary = new ArrayList<>();
+        List<Token> alphabet = new ArrayList<>();
+        List<Token[]> list1 = new ArrayList<>();
+        List<Token[]> list2 = new ArrayList<>();
+        List<Token[]> list3 = new ArrayList<>();
+        List<Token[]> list4 = new ArrayList<>();
+        List<Token[]> list5 = new ArrayList<>();
+        List<Token[]> list6 = new ArrayList<>();
+
+
+        list1.add(new Token[] {
+            new Token(new TokenType("TERMINAL", "a", 0, false), "a"),
+            new Token(new TokenType("NONTERMINAL", "A", 0, false), "A"),
+            new Token(new TokenType("TERMINAL", "d", 0, false), "d")
+        });
+        productions.add(
+            new Production(
+                new Token(
+                    new TokenType("NONTERMINAL", "S", 0, false), "S"
+                ), 
+                list1
+            )
+        );
+
+
+        list2.add(new Token[] {
+            new Token(new TokenType("TERMINAL", "b", 0, false), "b"),
+            new Token(new TokenType("NONTERMINAL", "B", 0, false), "B"),
+            new Token(new TokenType("TERMINAL", "d", 0, false), "d")
+        });
+        productions.add(
+            new Production(
+                new Token(
+                    new TokenType("NONTERMINAL", "S", 0, false), "S"
+                ), 
+                list2
+            )
+        );
+
+
+        list3.add(new Token[] {
+            new Token(new TokenType("TERMINAL", "a", 0, false), "a"),
+            new Token(new TokenType("NONTERMINAL", "B", 0, false), "B"),
+            new Token(new TokenType("TERMINAL", "e", 0, false), "e")
+        });
+        productions.add(
+            new Production(
+                new Token(
+                    new TokenType("NONTERMINAL", "S", 0, false), "S"
+                ), 
+                list3
+            )
+        );
+
+
+        list4.add(new Token[] {
+            new Token(new TokenType("TERMINAL", "b", 0, false), "b"),
+            new Token(new TokenType("NONTERMINAL", "A", 0, false), "A"),
+            new Token(new TokenType("TERMINAL", "e", 0, false), "e")
+        });
+        productions.add(
+            new Production(
+                new Token(
+                    new TokenType("NONTERMINAL", "S", 0, false), "S"
+                ), 
+                list4
+            )
+        );
+
+
+        list5.add(new Token[] {
+            new Token(new TokenType("TERMINAL", "c", 0, false), "c")
+        });
+        productions.add(
+            new Production(
+                new Token(
+                    new TokenType("NONTERMINAL", "A", 0, false), "A"
+                ), 
+                list5
+            )
+        );
+
+
+        list6.add(new Token[] {
+            new Token(new TokenType("TERMINAL", "c", 0, false), "c")
+        });
+        productions.add(
+            new Production(
+                new Token(
+                    new TokenType("NONTERMINAL", "B", 0, false), "B"
+                ), 
+                list6
+            )
+        );
+
+
+        vocabulary.add(new Token(
+            new TokenType("NONTERMINAL", "S", 0, false), "S"
+        ));
+        vocabulary.add(new Token(
+            new TokenType("NONTERMINAL", "A", 0, false), "A"
+        ));
+        vocabulary.add(new Token(
+            new TokenType("NONTERMINAL", "B", 0, false), "B"
+        ));
+        
+        alphabet.add(new Token(
+            new TokenType("TERMINAL", "a", 0, false), "a"
+        ));
+        alphabet.add(new Token(
+            new TokenType("TERMINAL", "b", 0, false), "b"
+        ));
+        alphabet.add(new Token(
+            new TokenType("TERMINAL", "c", 0, false), "c"
+        ));
+        alphabet.add(new Token(
+            new TokenType("TERMINAL", "d", 0, false), "d"
+        ));
+        alphabet.add(new Token(
+            new TokenType("TERMINAL", "e", 0, false), "e"
+        ));
+        alphabet.add(new Token(
+            new TokenType("EMPTY_SYMBOL", "\\$", 0, true), "$"
+        ));
+
+        Token startsymbol = new Token(
+            new TokenType("NONTERMINAL", "S", 0, false), "S"
+        );
+        
+        List<TokenType> tokentypes = new ArrayList<>();
+        tokentypes.add(new TokenType("TERMINAL", "a|b|c|d|e", 0, false));
+        tokentypes.add(new TokenType("NONTERMINAL", "S|A|B", 0, false));
+        tokentypes.add(new TokenType("EMPTY_SYMBOL", "\\$", 0, true));
+
+
+        grammar = new Grammar(tokentypes, vocabulary, alphabet, productions, startsymbol, true);
+        grammar.addArgumentProduction(new Token(new TokenType("NONTERMINAL", Config.GRAMMAR_ARGUMENT_SYMBOL, 0, false), Config.GRAMMAR_ARGUMENT_SYMBOL));
+    }
+
+
+    /**
+     * Set up the grammar, by using the following grammar:
+     * E -> E+E | id
+     * (Ambiguous grammar, which isn't LR(1))
+     */
+    private void setUp5() {
+        List<Production> productions = new ArrayList<>();
+        List<Token> vocabulary = new ArrayList<>();
+        List<Token> alphabet = new ArrayList<>();
+        List<Token[]> list1 = new ArrayList<>();
+
+
+        list1.add(new Token[] {
+            new Token(new TokenType("NONTERMINAL", "E", 0, false), "E"),
+            new Token(new TokenType("TERMINAL", "\\+", 0, false), "+"),
+            new Token(new TokenType("NONTERMINAL", "E", 0, false), "E")
+        });
+        list1.add(new Token[] {
+            new Token(new TokenType("TERMINAL", "id", 0, false), "id")
+        });
+        productions.add(
+            new Production(
+                new Token(
+                    new TokenType("NONTERMINAL", "E", 0, false), "E"
+                ), 
+                list1
+            )
+        );
+
+
+        vocabulary.add(new Token(
+            new TokenType("NONTERMINAL", "E", 0, false), "E"
+        ));
+        
+        alphabet.add(new Token(
+            new TokenType("TERMINAL", "\\+", 0, false), "+"
+        ));
+        alphabet.add(new Token(
+            new TokenType("TERMINAL", "id", 0, false), "id"
+        ));
+        alphabet.add(new Token(
+            new TokenType("EMPTY_SYMBOL", "\\$", 0, true), "$"
+        ));
+
+        Token startsymbol = new Token(
+            new TokenType("NONTERMINAL", "E", 0, false), "E"
+        );
+        
+        List<TokenType> tokentypes = new ArrayList<>();
+        tokentypes.add(new TokenType("TERMINAL", "\\+|id", 0, false));
+        tokentypes.add(new TokenType("NONTERMINAL", "E", 0, false));
+        tokentypes.add(new TokenType("EMPTY_SYMBOL", "\\$", 0, true));
+
+
+        grammar = new Grammar(tokentypes, vocabulary, alphabet, productions, startsymbol, true);
+        grammar.addArgumentProduction(new Token(new TokenType("NONTERMINAL", Config.GRAMMAR_ARGUMENT_SYMBOL, 0, false), Config.GRAMMAR_ARGUMENT_SYMBOL));
+    }
+
+
+    /**
+     * Test the {@link LR1Parser#createParseTable()} with the grammar from {@link #setUp1()}.
+     * All LR(1) states of the same core are compatible, so the table is the SLR(1) table.
+     * @throws Exception If there was an error creating the parse table.
+     */
+    @Test
+    @DisplayName("Test createParseTable()")
+    public void testCreateParseTable1() throws Exception {
+        setUp1();
+
+        final LRParseTable table = new LR1Parser(grammar).createParseTable();
+        
+        assertEquals(new SLRParser(grammar).createParseTable().print(), table.print());
+    }
+
+
+    /**
+     * Test the {@link LR1Parser#createParseTable()} with the grammar from {@link #setUp3()}.
+     * @throws Exception If there was an error creating the parse table.
+     */
+    @Test
+    @DisplayName("Test createParseTable() with empty productions")
+    public void testCreateParseTable2() throws Exception {
+        setUp3();
+
+        final LRParser parser = new LR1Parser(grammar);
+        final LRParseTable table = parser.createParseTable();
+
+        assertEquals(new LALRParser(grammar).createParseTable().print(), table.print());
+
+        assertDoesNotThrow(() -> parser.parse("()"));
+        assertDoesNotThrow(() -> parser.parse("(())()"));
+
+        assertThrows(LRParseException.class, () -> parser.parse(")("));
+        assertThrows(LRParseException.class, () -> parser.parse("(()"));
+    }
+
+
+    /**
+     * Test the {@link LR1Parser#createParseTable()} with the grammar from {@link #setUp4()}.
+     * The states after ac and bc have the same core, but aren't compatible (merging them would add a reduce/reduce conflict), so only they are split.
+     * @throws Exception If there was an error creating the parse table.
+     */
+    @Test
+    @DisplayName("Test createParseTable() of a LR(1), but not LALR(1) grammar")
+    public void testCreateParseTable3() throws Exception {
+        setUp4();
+
+        assertThrows(NoLALR1GrammarException.class, () -> new LALRParser(grammar).createParseTable());
+
+        final LRParser parser = new LR1Parser(grammar);
+        final LRParseTable table = parser.createParseTable();
+
+        assertEquals(grammar.getAutomaton().getStateCount() + 1, table.getActionTable().length);
+
+        assertDoesNotThrow(() -> parser.parse("acd"));
+        assertDoesNotThrow(() -> parser.parse("bce"));
+        assertDoesNotThrow(() -> parser.parse("ace"));
+        assertDoesNotThrow(() -> parser.parse("bcd"));
+
+        assertThrows(LRParseException.class, () -> parser.parse("acc"));
+        assertThrows(LRParseException.class, () -> parser.parse("ac"));
+    }
+
+
+    /**
+     * Test the {@link LR1Parser#createParseTable()} with the ambiguous grammar from {@link #setUp5()}.
+     * It should throw a {@link NoLR1GrammarException}.
+     */
+    @Test
+    @DisplayName("Test createParseTable() of an ambiguous grammar")
+    public void testCreateParseTable4() {
+        setUp5();
+
+        final LR1Parser parser = new LR1Parser(grammar);
+        assertThrows(NoLR1GrammarException.class, () -> parser.createParseTable());
+    }
+}
\ No newline at end of file
@@ -1,11 +1,13 @@
 package parssist.parser.bottom_up_analysis.lrparser.lr1parser.parser;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,6 +20,7 @@ import parssist.parser.bottom_up_analysis.lrparser.lr1parser.parser.exception.LR
 import parssist.parser.bottom_up_analysis.lrparser.lr1parser.parser.exception.NoSLR1GrammarException;
 import parssist.parser.util.Grammar;
 import parssist.parser.util.Production;
+import parssist.parser.util.tree.ParseTreeNode;
 import parssist.parser.util.tree.visitor.JsonLikeTreeVisitor;
 
 
@@ -385,6 +388,79 @@ public class SLRParserTest {
     }
 
 
+    /**
+     * Test the {@link SLRParser#createParseTable()} with a chain grammar of 1001 states:
+     * N0 -> a0 N1 | a0, ..., N498 -> a498 N499 | a498, N499 -> a499
+     * @throws Exception If there was an error creating the parse table.
+     */
+    @Test
+    @DisplayName("Test createParseTable() with many states")
+    public void testCreateParseTableLarge() throws Exception {
+        final int n = 500;
+        final List<Production> productions = new ArrayList<>();
+        final List<Token> vocabulary = new ArrayList<>();
+        final List<Token> alphabet = new ArrayList<>();
+
+        for(int i = 0; i < n; i++) {
+            final Token nonterminal = new Token(new TokenType("NONTERMINAL", "N" + i, 0, false), "N" + i);
+            final Token terminal = new Token(new TokenType("TERMINAL", "a" + i, 0, false), "a" + i);
+            final List<Token[]> rhs = new ArrayList<>();
+
+            if(i < n - 1) rhs.add(new Token[] { terminal, new Token(new TokenType("NONTERMINAL", "N" + (i + 1), 0, false), "N" + (i + 1)) });
+            rhs.add(new Token[] { terminal });
+
+            productions.add(new Production(nonterminal, rhs));
+            vocabulary.add(nonterminal);
+            alphabet.add(terminal);
+        }
+        alphabet.add(new Token(new TokenType("EMPTY_SYMBOL", "\\$", 0, true), "$"));
+
+        grammar = new Grammar(new ArrayList<>(), vocabulary, alphabet, productions, vocabulary.get(0), true);
+        grammar.addArgumentProduction(new Token(new TokenType("NONTERMINAL", Config.GRAMMAR_ARGUMENT_SYMBOL, 0, false), Config.GRAMMAR_ARGUMENT_SYMBOL));
+
+        final LRParseTable table = new SLRParser(grammar).createParseTable();
+        final int last = table.getActionTable().length - 1;
+
+        assertEquals(2 * n + 1, table.getActionTable().length);
+        assertEquals(LRParser.Action.Type.SHIFT, table.getActionTable()[0][0].type);
+        assertEquals(LRParser.Action.Type.ACCEPT, table.getActionTable()[table.getGotoTable()[0][0]][n].type);
+        assertEquals(LRParser.Action.Type.REDUCE, table.getActionTable()[last][n].type);
+    }
+
+
+    /**
+     * Test the {@link SLRParser#createParseTableParallel(ForkJoinPool)} with a wide grammar, whose second frontier has 301 states:
+     * S -> a0 N0 | ... | a299 N299, N0 -> b0, ..., N299 -> b299
+     * The table has to be identical to the sequential one.
+     * @throws Exception If there was an error creating the parse table.
+     */
+    @Test
+    @DisplayName("Test createParseTableParallel()")
+    public void testCreateParseTableParallel() throws Exception {
+        final int n = 300;
+        final ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            final LRParseTable expected = new SLRParser(createWideGrammar(n)).createParseTable();
+            final LRParseTable actual = new SLRParser(createWideGrammar(n)).createParseTableParallel(pool);
+
+            assertEquals(3 * n + 2, actual.getActionTable().length);
+            assertEquals(expected.getStates(), actual.getStates());
+
+            for(int i = 0; i < expected.getActionTable().length; i++) {
+                assertArrayEquals(expected.getGotoTable()[i], actual.getGotoTable()[i]);
+
+                for(int a = 0; a < expected.getActionTable()[i].length; a++) assertEquals(expected.getActionTable()[i][a].toString(), actual.getActionTable()[i][a].toString());
+            }
+
+            setUp2();
+            assertThrows(NoSLR1GrammarException.class, () -> new SLRParser(grammar).createParseTableParallel(pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+
     /**
      * Test the {@link SLRParser#parse(String)} with the grammar from {@link #setUp1()}.
      * @throws Exception 
@@ -417,4 +493,59 @@ public class SLRParserTest {
 
         System.out.println(visitor.getJson());
     }
+
+    /**
+     * Test the positions of the leaves of {@link SLRParser#parse(String)} with the grammar from {@link #setUp1()}.
+     * @throws Exception
+     */
+    @Test
+    @DisplayName("Test positions of the parse tree")
+    public void testParsePositions() throws Exception {
+        setUp1();
+
+        final SLRParser parser = new SLRParser(grammar);
+        final List<String> positions = new ArrayList<>();
+        collectPositions(parser.parse("id+id*id"), positions);
+
+        assertEquals(List.of("id@6 1:7", "*@5 1:6", "id@3 1:4", "+@2 1:3", "id@0 1:1"), positions);
+    }
+
+
+    private Grammar createWideGrammar(final int n) {
+        final Token S = new Token(new TokenType("NONTERMINAL", "S", 0, false), "S");
+        final List<Production> productions = new ArrayList<>();
+        final List<Token> vocabulary = new ArrayList<>();
+        final List<Token> alphabet = new ArrayList<>();
+        final List<Token[]> rhsS = new ArrayList<>();
+
+        productions.add(new Production(S, rhsS));
+        vocabulary.add(S);
+
+        for(int i = 0; i < n; i++) {
+            final Token nonterminal = new Token(new TokenType("NONTERMINAL", "N" + i, 0, false), "N" + i);
+            final Token a = new Token(new TokenType("TERMINAL", "a" + i, 0, false), "a" + i);
+            final Token b = new Token(new TokenType("TERMINAL", "b" + i, 0, false), "b" + i);
+            final List<Token[]> rhs = new ArrayList<>();
+
+            rhsS.add(new Token[] { a, nonterminal });
+            rhs.add(new Token[] { b });
+
+            productions.add(new Production(nonterminal, rhs));
+            vocabulary.add(nonterminal);
+            alphabet.add(a);
+            alphabet.add(b);
+        }
+        alphabet.add(new Token(new TokenType("EMPTY_SYMBOL", "\\$", 0, true), "$"));
+
+        final Grammar wide = new Grammar(new ArrayList<>(), vocabulary, alphabet, productions, S, true);
+        wide.addArgumentProduction(new Token(new TokenType("NONTERMINAL", Config.GRAMMAR_ARGUMENT_SYMBOL, 0, false), Config.GRAMMAR_ARGUMENT_SYMBOL));
+
+        return wide;
+    }
+
+    private void collectPositions(final ParseTreeNode node, final List<String> positions) {
+        if(node.isLeaf() && node.getPosition() != Config.PARSETREE_NO_POSITION) positions.add(node.getToken().symbol() + "@" + node.getPosition() + " " + node.getLine() + ":" + node.getColumn());
+
+        for(final ParseTreeNode child : node.getChildren()) collectPositions(child, positions);
+    }
 }
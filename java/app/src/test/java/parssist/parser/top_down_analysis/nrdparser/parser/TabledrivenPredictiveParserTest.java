@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -682,4 +683,71 @@ public class TabledrivenPredictiveParserTest {
         parser.resetStack();
         assertThrows(NonRecursivePredictiveParseException.class, () -> parser.computeSystemAnalysis());
     }
-}
+
+
+    /**
+     * Test the parallel {@link TabledrivenPredictiveParser#TabledrivenPredictiveParser(Grammar, CharSequence, ForkJoinPool)} with a grammar of 301 rows:
+     * S -> a0 N0 | ... | a299 N299, N0 -> b0 | $, ..., N299 -> b299 | $
+     * The parse table has to be identical to the sequential one.
+     * @throws NonRecursivePredictiveParseException If the input is invalid.
+     * @throws NoLL1GrammarException If the grammar is not LL(1).
+     */
+    @Test
+    @DisplayName("Test the parallel parse table")
+    public void testCreateParseTableParallel() throws NonRecursivePredictiveParseException, NoLL1GrammarException {
+        final int n = 300;
+        final ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            final List<Production>[][] expected = new TabledrivenPredictiveParser(createWideGrammar(n)).getParseTable();
+            final TabledrivenPredictiveParser parser = new TabledrivenPredictiveParser(createWideGrammar(n), "a7b7", pool);
+            final List<Production>[][] actual = parser.getParseTable();
+
+            assertEquals(n + 1, actual.length);
+
+            for(int i = 0; i < expected.length; i++) {
+                for(int j = 0; j < expected[i].length; j++) assertEquals(expected[i][j].toString(), actual[i][j].toString());
+            }
+
+            assertTrue(parser.computeSystemAnalysis());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+
+    private Grammar createWideGrammar(final int n) {
+        final Token S = new Token(new TokenType("NONTERMINAL", "S", 0, false), "S");
+        final Token empty = new Token(new TokenType("EMPTY_SYMBOL", "\\$", 0, true), "$");
+        final List<Production> productions = new ArrayList<>();
+        final List<Token> vocabulary = new ArrayList<>();
+        final List<Token> alphabet = new ArrayList<>();
+        final List<TokenType> tokentypes = new ArrayList<>();
+        final List<Token[]> rhsS = new ArrayList<>();
+
+        productions.add(new Production(S, rhsS));
+        vocabulary.add(S);
+
+        for(int i = 0; i < n; i++) {
+            final Token nonterminal = new Token(new TokenType("NONTERMINAL", "N" + i, 0, false), "N" + i);
+            final Token a = new Token(new TokenType("TERMINAL", "a" + i, 0, false), "a" + i);
+            final Token b = new Token(new TokenType("TERMINAL", "b" + i, 0, false), "b" + i);
+            final List<Token[]> rhs = new ArrayList<>();
+
+            rhsS.add(new Token[] { a, nonterminal });
+            rhs.add(new Token[] { b });
+            rhs.add(new Token[] { empty });
+
+            productions.add(new Production(nonterminal, rhs));
+            vocabulary.add(nonterminal);
+            alphabet.add(a);
+            alphabet.add(b);
+        }
+        alphabet.add(empty);
+
+        tokentypes.addAll(alphabet.stream().map(e -> e.tokenType()).toList());
+        tokentypes.addAll(vocabulary.stream().map(e -> e.tokenType()).toList());
+
+        return new Grammar(tokentypes, vocabulary, alphabet, productions, S, true);
+    }
+}
\ No newline at end of file
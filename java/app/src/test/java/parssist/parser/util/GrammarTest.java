@@ -334,6 +334,33 @@ public class GrammarTest {
     }
 
 
+    /**
+     * Test the analysis of a left recursive grammar, which the recursive functions couldn't compute.
+     */
+    @Test
+    @DisplayName("Test NULLABLE, FIRST and FOLLOW of a left recursive grammar.")
+    public void testAnalysisLeftRecursive() {
+        setUp2();
+
+        final GrammarAnalysis analysis = grammar.getAnalysis();
+        final SymbolTable symbols = grammar.getSymbolTable();
+        final String first_e = grammar.first("E").stream().map(Token::symbol).sorted().reduce("", (a, b) -> a + b);
+        final String follow_e = grammar.follow("E").stream().map(Token::symbol).reduce("", (a, b) -> a + b);
+        final String follow_t = grammar.follow("T").stream().map(Token::symbol).reduce("", (a, b) -> a + b);
+        final String follow_f = grammar.follow("F").stream().map(Token::symbol).reduce("", (a, b) -> a + b);
+
+        assertEquals("(id", first_e);
+        assertEquals("$)+", follow_e);
+        assertEquals("$)*+", follow_t);
+        assertEquals("$)*+", follow_f);
+        assertEquals("$", grammar.follow(Config.GRAMMAR_ARGUMENT_SYMBOL).stream().map(Token::symbol).reduce("", (a, b) -> a + b));
+        assertTrue(!analysis.isNullable(symbols.getNonterminal("E")));
+        assertTrue(analysis.getFirst(symbols.getNonterminal("T")).get(symbols.getTerminal("id")));
+        assertTrue(analysis.getFollow(symbols.getNonterminal("E")).get(analysis.getEmpty()));
+        assertTrue(grammar.follow("E") == grammar.follow("E"));
+    }
+
+
     /**
      * Test the closure function.
      */
@@ -397,4 +424,57 @@ public class GrammarTest {
 
         assertEquals(expectedGoto, actualGoto);
     }
-}
\ No newline at end of file
+
+
+    /**
+     * Test the canonical collection and the goto graph.
+     */
+    @Test
+    @DisplayName("Test the canonical collection of LR(0) items.")
+    public void testElementsIntegration() {
+        setUp2();
+
+        final LR0Automaton automaton = grammar.getAutomaton();
+        final SymbolTable symbols = grammar.getSymbolTable();
+        final List<List<Item>> C = grammar.elements();
+
+        assertEquals(12, C.size());
+        assertEquals(12, automaton.getStateCount());
+        assertEquals("\n" + Config.GRAMMAR_ARGUMENT_SYMBOL + " -> .E\nE -> .E+T\nE -> .T\nT -> .T*F\nT -> .F\nF -> .(E)\nF -> .id", C.get(0).stream().map(e->e.toString()).reduce("", (a, b) -> a + "\n" + b));
+
+        final int E = symbols.getId("E");
+        final int plus = symbols.getId("+");
+        final int I1 = automaton.getGoto(0, E);
+        final int I6 = automaton.getGoto(I1, plus);
+
+        assertEquals(1, I1);
+        assertEquals("\n" + Config.GRAMMAR_ARGUMENT_SYMBOL + " -> E.\nE -> E.+T", C.get(I1).stream().map(e->e.toString()).reduce("", (a, b) -> a + "\n" + b));
+        assertEquals("\nE -> E+.T\nT -> .T*F\nT -> .F\nF -> .(E)\nF -> .id", C.get(I6).stream().map(e->e.toString()).reduce("", (a, b) -> a + "\n" + b));
+        assertEquals("\nF -> (.E)\nE -> .E+T\nE -> .T\nT -> .T*F\nT -> .F\nF -> .(E)\nF -> .id", C.get(automaton.getGoto(0, symbols.getId("("))).stream().map(e->e.toString()).reduce("", (a, b) -> a + "\n" + b));
+        assertEquals(automaton.getGoto(0, symbols.getId("(")), automaton.getGoto(automaton.getGoto(0, symbols.getId("(")), symbols.getId("(")));
+        assertEquals(LR0Automaton.NONE, automaton.getGoto(I1, symbols.getId("id")));
+    }
+
+
+    /**
+     * Test the packed items and the closures of the nonterminals.
+     */
+    @Test
+    @DisplayName("Test the packed LR(0) items.")
+    public void testItems() {
+        setUp2();
+
+        final LR0Items items = grammar.getItems();
+        final int item = items.getItem(1, 2); // E -> E+.T
+
+        assertEquals(1, items.getProduction(item));
+        assertEquals(2, items.getDot(item));
+        assertEquals("E -> E+.T", items.toItem(item).toString());
+        assertEquals(item, items.toId(items.toItem(item)));
+        assertEquals(grammar.getSymbolTable().getId("T"), items.getSymbol(item));
+        assertEquals(4, items.getExpansion(item).cardinality());
+        assertEquals(6, items.getExpansion(items.getItem(0, 0)).cardinality());
+        assertTrue(items.isComplete(items.getItem(6, 1)));
+        assertEquals(LR0Items.NONE, items.getSymbol(items.getItem(6, 1)));
+    }
+}
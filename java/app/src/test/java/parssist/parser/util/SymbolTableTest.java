@@ -0,0 +1,53 @@
+package parssist.parser.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import parssist.lexer.util.Token;
+import parssist.lexer.util.TokenType;
+
+
+/**
+ * Testclass for {@link SymbolTable}.
+ */
+public class SymbolTableTest {
+    @Test
+    @DisplayName("Test ids, classification and token lookup")
+    public void testLookup() {
+        final List<Token> alphabet = List.of(
+            new Token(new TokenType("TERMINAL", "\\+", 0, false), "+"),
+            new Token(new TokenType("TERMINAL", "[a-z]+", 0, false), "[a-z]+"),
+            new Token(new TokenType("EMPTY_SYMBOL", "\\$", 0, false), "$")
+        );
+        final List<Token> vocabulary = List.of(
+            new Token(new TokenType("NONTERMINAL", "E", 0, false), "E"),
+            new Token(new TokenType("NONTERMINAL", "T", 0, false), "T")
+        );
+        final List<Token[]> rhs = new ArrayList<>();
+        rhs.add(new Token[] { vocabulary.get(1), alphabet.get(0), vocabulary.get(0) });
+
+        final SymbolTable symbols = new SymbolTable(alphabet, vocabulary, List.of(new Production(vocabulary.get(0), rhs)));
+
+        assertEquals(5, symbols.size());
+        assertEquals(0, symbols.getTerminal("+"));
+        assertEquals(1, symbols.getTerminal("abc"));
+        assertEquals(-1, symbols.getTerminal("E"));
+        assertEquals(1, symbols.getNonterminal("T"));
+        assertEquals(4, symbols.getId("T"));
+        assertEquals(-1, symbols.getId("42"));
+        assertEquals("T", symbols.getToken(4).symbol());
+        assertTrue(symbols.isTerminal(2) && symbols.isNonterminal(3));
+        assertFalse(symbols.isTerminal("42"));
+
+        assertEquals(2, symbols.getTerminal(new Token(new TokenType("EMPTY_SYMBOL", "", 0, false), "$")));
+        assertEquals(-1, symbols.getTerminal(new Token(new TokenType("TERMINAL", "", 0, false), "$")));
+        assertEquals(0, symbols.getNonterminal(new Token(new TokenType("NONTERMINAL", "", 0, false), "E")));
+    }
+}
@@ -0,0 +1,53 @@
+package parssist.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Testclass for {@link MappedReader}.
+ */
+public class MappedReaderTest {
+    private String map(final String content) throws IOException {
+        final File file = File.createTempFile("parssist", ".txt");
+        file.deleteOnExit();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+
+        final CharSequence mapped = new MappedReader().map(file.getPath());
+
+        assertEquals(content.length(), mapped.length());
+        for(int i = 0; i < content.length(); i++) assertEquals(content.charAt(i), mapped.charAt(i));
+
+        return mapped.toString();
+    }
+
+
+    @Test
+    @DisplayName("Test memory-mapped ASCII file")
+    public void testMapAscii() throws IOException {
+        final String content = "S -> TS | $\nT -> (S)";
+
+        assertEquals(content, map(content));
+        assertEquals("TS", new ByteCharSequence(ByteBuffer.wrap(content.getBytes(StandardCharsets.US_ASCII))).subSequence(5, 7).toString());
+    }
+
+    @Test
+    @DisplayName("Test memory-mapped UTF-8 file")
+    public void testMapUtf8() throws IOException {
+        final String content = "\u00e4\u00f6\u00fc -> \u20ac";
+
+        assertEquals(content, map(content));
+        assertTrue(map("").isEmpty());
+        assertThrows(IOException.class, () -> new MappedReader().map("/does/not/exist"));
+    }
+}